@@ -0,0 +1,46 @@
+#!/usr/bin/env bash
+# Measures startup time and time to first response of one launch command, averaged over a few runs.
+# Usage: scripts/measure-startup.sh [runs] -- <command that starts the app>
+#   scripts/measure-startup.sh 5 -- java -jar target/msvc-primefinder.jar
+#   scripts/measure-startup.sh 5 -- java -XX:SharedArchiveFile=target/cds/application.jsa -jar target/cds/msvc-primefinder.jar
+#   scripts/measure-startup.sh 5 -- target/msvc-primefinder
+# "started" is Spring's own "Started ... in X seconds" (context refresh done), "first response" is wall time from
+# launching the process to the first 200 from /api/find-primes?limit=100, which includes JVM boot and the first request.
+set -euo pipefail
+
+runs=5
+if [[ "${1:-}" =~ ^[0-9]+$ ]]; then runs=$1; shift; fi
+[[ "${1:-}" == "--" ]] && shift
+if [[ $# -eq 0 ]]; then
+    echo "Usage: $0 [runs] -- <command>" >&2
+    exit 1
+fi
+
+port=${PORT:-18080}
+url="http://localhost:${port}/api/find-primes?limit=100"
+log=$(mktemp)
+trap 'rm -f "$log"' EXIT
+
+total_started=0
+total_first=0
+for ((run = 1; run <= runs; run++)); do
+    start_ns=$(date +%s%N)
+    PORT=$port "$@" > "$log" 2>&1 &
+    pid=$!
+    until curl -sf -o /dev/null "$url"; do
+        if ! kill -0 "$pid" 2> /dev/null; then
+            cat "$log" >&2
+            echo "The app exited before answering" >&2
+            exit 1
+        fi
+        sleep 0.01
+    done
+    first_ms=$(( ($(date +%s%N) - start_ns) / 1000000 ))
+    started_ms=$(grep -o 'Started [A-Za-z]* in [0-9.]* seconds' "$log" | awk '{printf "%d", $4 * 1000}')
+    kill "$pid"
+    wait "$pid" 2> /dev/null || true
+    echo "run ${run}: started ${started_ms} ms, first response ${first_ms} ms"
+    total_started=$((total_started + started_ms))
+    total_first=$((total_first + first_ms))
+done
+echo "mean over ${runs} runs: started $((total_started / runs)) ms, first response $((total_first / runs)) ms"
@@ -0,0 +1,254 @@
+package com.example.msvcprimefinder.algo;
+
+import com.example.msvcprimefinder.util.PrimeEstimator;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+
+/**
+ * Factorizes positive 64-bit values.
+ * Values up to spfLimit are answered from a smallest-prime-factor table built once by a linear sieve.
+ * Larger values are trial divided by the small primes, then split with Pollard-Brent rho, with a deterministic
+ * Miller-Rabin test deciding when a cofactor is prime. Both run on Montgomery arithmetic so no 128-bit division is needed.
+ * Instances are immutable after construction and safe to share between threads.
+ * */
+public class Factorizer {
+    // Deterministic for every n < 2^64 (Jim Sinclair's bases)
+    private static final long[] MILLER_RABIN_BASES = {2, 325, 9375, 28178, 450775, 9780504, 1795265022};
+    private static final int RHO_BATCH_SIZE = 128;
+
+    private final int spfLimit;
+    private final int[] smallestPrimeFactor;
+    private final long[] trialPrimes;
+    private final long trialLimitSquared;
+
+    public Factorizer(int spfLimit, long[] trialPrimes) {
+        this.spfLimit = spfLimit;
+        this.smallestPrimeFactor = linearSieve(spfLimit);
+        this.trialPrimes = trialPrimes;
+        long largestTrialPrime = trialPrimes.length == 0 ? 1 : trialPrimes[trialPrimes.length - 1];
+        this.trialLimitSquared = largestTrialPrime * largestTrialPrime;
+    }
+
+    /**
+     * Linear sieve: every composite is crossed off exactly once, by its smallest prime factor,
+     * which leaves spf[i] = smallest prime factor of i for all i in [2, limit].
+     * */
+    public static int[] linearSieve(int limit) {
+        int[] spf = new int[limit + 1];
+        int[] primes = new int[PrimeEstimator.estimatePrimesArrayLength(limit)];
+        int primeCount = 0;
+        for (int i = 2; i <= limit; i++) {
+            if (spf[i] == 0) {
+                spf[i] = i;
+                primes[primeCount++] = i;
+            }
+            for (int j = 0; j < primeCount; j++) {
+                int prime = primes[j];
+                long multiple = (long) prime * i;
+                if (prime > spf[i] || multiple > limit) break;
+                spf[(int) multiple] = prime;
+            }
+        }
+        return spf;
+    }
+
+    /** Returns the prime factors of value as a sorted map of prime to exponent */
+    public TreeMap<Long, Integer> factorize(long value) {
+        if (value < 1) {
+            throw new IllegalArgumentException("Only positive values can be factorized");
+        }
+        TreeMap<Long, Integer> factors = new TreeMap<>();
+        long n = value;
+
+        if (n > spfLimit) {
+            for (long prime : trialPrimes) {
+                if (prime * prime > n) break;
+                while (n % prime == 0) {
+                    factors.merge(prime, 1, Integer::sum);
+                    n /= prime;
+                }
+            }
+        }
+
+        if (n <= spfLimit) {
+            factorizeWithTable((int) n, factors);
+        } else if (n <= trialLimitSquared) {
+            // No factor up to the largest trial prime is left, so n is prime
+            factors.merge(n, 1, Integer::sum);
+        } else {
+            factorizeLarge(n, factors);
+        }
+        return factors;
+    }
+
+    public boolean isPrime(long n) {
+        if (n < 2) return false;
+        if (n <= spfLimit) return smallestPrimeFactor[(int) n] == n;
+        for (long prime : trialPrimes) {
+            if (prime * prime > n) return true;
+            if (n % prime == 0) return false;
+        }
+        return millerRabin(n);
+    }
+
+    private void factorizeWithTable(int n, TreeMap<Long, Integer> factors) {
+        while (n > 1) {
+            int prime = smallestPrimeFactor[n];
+            factors.merge((long) prime, 1, Integer::sum);
+            n /= prime;
+        }
+    }
+
+    // n is odd and has no factor below the trial limit here
+    private void factorizeLarge(long n, TreeMap<Long, Integer> factors) {
+        List<Long> pending = new ArrayList<>();
+        pending.add(n);
+        while (!pending.isEmpty()) {
+            long m = pending.remove(pending.size() - 1);
+            if (m == 1) continue;
+            if (m <= spfLimit) {
+                factorizeWithTable((int) m, factors);
+            } else if (millerRabin(m)) {
+                factors.merge(m, 1, Integer::sum);
+            } else {
+                long divisor = pollardBrent(m);
+                pending.add(divisor);
+                pending.add(m / divisor);
+            }
+        }
+    }
+
+    // Deterministic Miller-Rabin for n < 2^63
+    static boolean millerRabin(long n) {
+        if ((n & 1) == 0) return n == 2;
+        Montgomery mont = new Montgomery(n);
+        long d = n - 1;
+        int s = Long.numberOfTrailingZeros(d);
+        d >>= s;
+        long one = mont.one;
+        long minusOne = n - one;
+
+        for (long base : MILLER_RABIN_BASES) {
+            long a = base % n;
+            if (a == 0) continue;
+            long x = mont.pow(mont.toMontgomery(a), d);
+            if (x == one || x == minusOne) continue;
+            boolean composite = true;
+            for (int r = 1; r < s; r++) {
+                x = mont.multiply(x, x);
+                if (x == minusOne) {
+                    composite = false;
+                    break;
+                }
+            }
+            if (composite) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Brent's variant of Pollard's rho on f(x) = x^2 + c, multiplying RHO_BATCH_SIZE differences together
+     * so only one gcd is taken per batch. Retries with the next c on the rare failure.
+     * Works in Montgomery form throughout: gcd(x * R mod n, n) = gcd(x, n) because R is coprime to odd n.
+     * */
+    static long pollardBrent(long n) {
+        if ((n & 1) == 0) return 2;
+        Montgomery mont = new Montgomery(n);
+        for (long c = 1; ; c++) {
+            long cm = mont.toMontgomery(c);
+            long y = mont.toMontgomery(2);
+            long x = y;
+            long ys = y;
+            long q = mont.one;
+            long g = 1;
+            for (long r = 1; g == 1; r <<= 1) {
+                x = y;
+                for (long i = 0; i < r; i++) {
+                    y = mont.add(mont.multiply(y, y), cm);
+                }
+                for (long k = 0; k < r && g == 1; k += RHO_BATCH_SIZE) {
+                    ys = y;
+                    long batch = Math.min(RHO_BATCH_SIZE, r - k);
+                    for (long i = 0; i < batch; i++) {
+                        y = mont.add(mont.multiply(y, y), cm);
+                        q = mont.multiply(q, Math.abs(x - y));
+                    }
+                    g = gcd(q, n);
+                }
+            }
+            if (g == n) {
+                // The batch overshot, step back one at a time from the saved point
+                do {
+                    ys = mont.add(mont.multiply(ys, ys), cm);
+                    g = gcd(Math.abs(x - ys), n);
+                } while (g == 1);
+            }
+            if (g != n) return g;
+        }
+    }
+
+    static long gcd(long a, long b) {
+        while (b != 0) {
+            long t = a % b;
+            a = b;
+            b = t;
+        }
+        return a;
+    }
+
+    /** Montgomery arithmetic modulo an odd n < 2^63 with R = 2^64 */
+    private static final class Montgomery {
+        private final long n;
+        private final long nInverse;    // n^-1 mod 2^64
+        private final long r2;          // R^2 mod n
+        private final long one;         // R mod n
+
+        Montgomery(long n) {
+            this.n = n;
+            long inverse = n;   // correct to 3 bits for odd n, each Newton step doubles that
+            for (int i = 0; i < 5; i++) {
+                inverse *= 2 - n * inverse;
+            }
+            this.nInverse = inverse;
+            // 2^64 mod n = ((2^64 - 1) mod n + 1) mod n
+            long rModN = Long.remainderUnsigned(-1L, n) + 1;
+            this.one = rModN == n ? 0 : rModN;
+            long r = one;
+            for (int i = 0; i < 64; i++) {
+                r <<= 1;    // r < n < 2^63, so this never overflows unsigned
+                if (Long.compareUnsigned(r, n) >= 0) r -= n;
+            }
+            this.r2 = r;
+        }
+
+        long toMontgomery(long a) {
+            return multiply(a % n, r2);
+        }
+
+        long multiply(long a, long b) {
+            long hi = Math.multiplyHigh(a, b);
+            long lo = a * b;
+            // REDC: (hi * R + lo - m * n) / R where m makes the low word cancel exactly
+            long m = lo * nInverse;
+            long result = hi - Math.unsignedMultiplyHigh(m, n);
+            return result < 0 ? result + n : result;
+        }
+
+        long add(long a, long b) {
+            long sum = a + b;   // both < n < 2^63
+            return Long.compareUnsigned(sum, n) >= 0 ? sum - n : sum;
+        }
+
+        long pow(long base, long exponent) {
+            long result = one;
+            while (exponent > 0) {
+                if ((exponent & 1) == 1) result = multiply(result, base);
+                base = multiply(base, base);
+                exponent >>= 1;
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.example.msvcprimefinder.algo;
+
+import com.example.msvcprimefinder.exception.ConcurrentSieveException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Odd-only, bit-packed sieve up to a limit with per-block prefix popcounts.
+ * Bit k represents the odd number 2k + 1, so a limit of 10^9 fits in ~60MB.
+ * Once built, pi(x) is answered in O(1) (one prefix lookup plus at most 8 popcounts) and any range of primes
+ * can be listed into an exactly sized array, so many queries can share a single sieve pass.
+ * */
+public class PrimeBitmap {
+    private static final int WORDS_PER_BLOCK = 8;
+    // 4096 words = 2^18 bits = 2^19 numbers per task, 32KB of bitmap so each task stays in L1d on most cores
+    public static final int DEFAULT_WORDS_PER_TASK = 4096;
+
+    private final long limit;
+    private final long[] words;
+    // blockPrefix[b] = number of set bits in words [0, b * WORDS_PER_BLOCK)
+    private final long[] blockPrefix;
+
+    private PrimeBitmap(long limit, long[] words) {
+        this.limit = limit;
+        this.words = words;
+        int blocks = (words.length + WORDS_PER_BLOCK - 1) / WORDS_PER_BLOCK;
+        this.blockPrefix = new long[blocks + 1];
+        for (int b = 0; b < blocks; b++) {
+            long count = 0;
+            int end = Math.min((b + 1) * WORDS_PER_BLOCK, words.length);
+            for (int w = b * WORDS_PER_BLOCK; w < end; w++) {
+                count += Long.bitCount(words[w]);
+            }
+            blockPrefix[b + 1] = blockPrefix[b] + count;
+        }
+    }
+
+    /**
+     * Sieves [0, limit] into an odd-only bitmap. Tasks cover disjoint, word-aligned ranges of the bitmap,
+     * so they can mark in parallel on the executor without any locking.
+     * */
+    public static PrimeBitmap sieve(long limit, Executor executor) {
+        return sieve(limit, executor, DEFAULT_WORDS_PER_TASK);
+    }
+
+    public static PrimeBitmap sieve(long limit, Executor executor, int wordsPerTask) {
+        long bitCount = limit / 2 + 1;  // odd numbers 1, 3, ..., <= limit (+1 so limit = 1 still has bit 0)
+        int wordCount = (int) ((bitCount + 63) >>> 6);
+        long[] words = new long[wordCount];
+        int[] basePrimes = SegmentedSieve.basePrimesUpTo((int) Math.sqrt(Math.max(limit, 4)) + 1);
+
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        for (int fromWord = 0; fromWord < wordCount; fromWord += wordsPerTask) {
+            final int taskFrom = fromWord;
+            final int taskTo = Math.min(fromWord + wordsPerTask, wordCount);
+            futures.add(CompletableFuture.runAsync(() -> markTask(words, taskFrom, taskTo, bitCount, basePrimes), executor));
+        }
+        try {
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+        } catch (Exception e) {
+            throw new ConcurrentSieveException(e.getMessage(), e.getCause());
+        }
+        return new PrimeBitmap(limit, words);
+    }
+
+    private static void markTask(long[] words, int fromWord, int toWord, long bitCount, int[] basePrimes) {
+        long fromBit = (long) fromWord << 6;
+        long toBit = Math.min((long) toWord << 6, bitCount);   // exclusive
+
+        // Mark all odd numbers in the task as prime
+        for (int w = fromWord; w < toWord; w++) words[w] = -1L;
+        if (toBit < ((long) toWord << 6)) {
+            words[toWord - 1] &= -1L >>> (((long) toWord << 6) - toBit);
+        }
+        if (fromBit == 0) words[0] &= ~1L; // 1 is not prime
+
+        long lowNumber = 2 * fromBit + 1;
+        long highNumber = 2 * (toBit - 1) + 1;
+        for (int prime : basePrimes) {
+            if (prime == 2) continue;
+            long p = prime;
+            if (p * p > highNumber) break;
+            // First odd multiple of p that is >= max(p^2, lowNumber)
+            long start = Math.max(p * p, (lowNumber + p - 1) / p * p);
+            if ((start & 1) == 0) start += p;
+            // Consecutive odd multiples are 2p apart, which is p bits apart
+            for (long bit = (start - 1) >>> 1; bit < toBit; bit += p) {
+                words[(int) (bit >>> 6)] &= ~(1L << bit);
+            }
+        }
+    }
+
+    public long getLimit() {
+        return limit;
+    }
+
+    /** pi(x): number of primes <= x, for x <= limit */
+    public long countUpTo(long x) {
+        if (x < 2) return 0;
+        long bit = (Math.min(x, limit) - 1) >>> 1;  // largest odd number <= x is 2 * bit + 1
+        int word = (int) (bit >>> 6);
+        int block = word / WORDS_PER_BLOCK;
+        long count = blockPrefix[block];
+        for (int w = block * WORDS_PER_BLOCK; w < word; w++) {
+            count += Long.bitCount(words[w]);
+        }
+        count += Long.bitCount(words[word] & (-1L >>> (63 - (bit & 63))));
+        return count + 1;   // the prime 2 is not in the odd-only bitmap
+    }
+
+    public long countInRange(long from, long to) {
+        if (to < from) return 0;
+        return countUpTo(to) - countUpTo(from - 1);
+    }
+
+    /** Lists the primes in [from, to] into an exactly sized array, sized up front from the prefix counts */
+    public long[] primesInRange(long from, long to) {
+        from = Math.max(from, 2);
+        to = Math.min(to, limit);
+        long count = countInRange(from, to);
+        long[] primes = new long[(int) count];
+        int index = 0;
+        if (from <= 2 && to >= 2) primes[index++] = 2;
+
+        long fromBit = Math.max(from, 3) >>> 1;     // first odd >= from is 2 * fromBit + 1
+        if (2 * fromBit + 1 < from) fromBit++;
+        long toBit = (to - 1) >>> 1;
+        for (long bit = fromBit; bit <= toBit && index < primes.length; ) {
+            int w = (int) (bit >>> 6);
+            long word = words[w] & (-1L << (bit & 63));
+            while (word != 0) {
+                long setBit = ((long) w << 6) + Long.numberOfTrailingZeros(word);
+                if (setBit > toBit) break;
+                primes[index++] = 2 * setBit + 1;
+                word &= word - 1;
+            }
+            bit = (long) (w + 1) << 6;
+        }
+        return primes;
+    }
+}
@@ -0,0 +1,234 @@
+package com.example.msvcprimefinder.algo;
+
+import com.example.msvcprimefinder.util.PrimeEstimator;
+import com.example.msvcprimefinder.util.type.NthPrimeResult;
+import com.example.msvcprimefinder.util.type.PrimeSums;
+
+import java.math.BigInteger;
+
+public class PrimeCounter {
+
+    /**
+     * Counts primes up to and including n without listing them, using the Lucy_Hedgehog dynamic programming
+     * over the O(sqrt(n)) distinct values of floor(n / k).
+     * S(v) starts as the count of integers in [2, v], then for each prime p every S(v) with v >= p^2 drops the
+     * numbers whose smallest prime factor is p: S(v) -= S(v / p) - S(p - 1).
+     * Runs in roughly O(n^(3/4)) time with O(sqrt(n)) memory.
+     * */
+    public static long countPrimes(long n) {
+        if (n < 2) return 0;
+        int r = (int) PrimeFinder.floorSqrt(n);
+        long[] small = new long[r + 1];     // small[v] = S(v)
+        long[] large = new long[r + 1];     // large[i] = S(n / i)
+        for (int i = 1; i <= r; i++) {
+            small[i] = i - 1;
+            large[i] = n / i - 1;
+        }
+
+        for (int p = 2; p <= r; p++) {
+            if (small[p] == small[p - 1]) continue; // p is not prime
+            long primesBelowP = small[p - 1];
+            long pSquared = (long) p * p;
+
+            // large[i * p] and small[n / (i * p)] still hold the previous round, as i increases and small is updated last
+            long iMax = Math.min(r, n / pSquared);
+            for (int i = 1; i <= iMax; i++) {
+                long d = (long) i * p;
+                long sv = d <= r ? large[(int) d] : small[(int) (n / d)];
+                large[i] -= sv - primesBelowP;
+            }
+            for (int v = r; v >= pSquared; v--) {
+                small[v] -= small[v / p] - primesBelowP;
+            }
+        }
+        return large[1];
+    }
+
+    public static PrimeSums primeSums(long n) {
+        return primeSums(n, 0);
+    }
+
+    /**
+     * Count, sum and sum of squares of the primes p <= n, plus the count in every residue class mod q when q > 0,
+     * from a single Lucy_Hedgehog pass. Every aggregate runs the countPrimes recurrence over the same floor(n / k)
+     * values and the same primes, so the tables are updated side by side instead of one pass per aggregate:
+     * - sums weight the recurrence by p^e: S(v) -= p^e * (S(v / p) - S(p - 1)), held as 128-bit hi/lo long pairs,
+     *   which is exact while n^(e+1) stays below 2^127 (n <= 10^12 for squares) and far cheaper than BigInteger
+     * - a number k * p whose smallest prime factor is p lands in class (b * p) mod q when k is in class b,
+     *   so for every residue table: S_(b*p mod q)(v) -= S_b(v / p) - S_b(p - 1)
+     * The residue tables take O(q sqrt(n)) memory, the rest O(sqrt(n)).
+     * */
+    public static PrimeSums primeSums(long n, int q) {
+        if (n < 2) return new PrimeSums(0, BigInteger.ZERO, BigInteger.ZERO, q > 0 ? new long[q] : null);
+        int r = (int) PrimeFinder.floorSqrt(n);
+        long[] smallCount = new long[r + 1];
+        long[] largeCount = new long[r + 1];
+        long[] smallSumHi = new long[r + 1];
+        long[] smallSumLo = new long[r + 1];
+        long[] largeSumHi = new long[r + 1];
+        long[] largeSumLo = new long[r + 1];
+        long[] smallSquaresHi = new long[r + 1];
+        long[] smallSquaresLo = new long[r + 1];
+        long[] largeSquaresHi = new long[r + 1];
+        long[] largeSquaresLo = new long[r + 1];
+        // Row-major [value][residue] so each update walks contiguous memory
+        long[] smallResidues = q > 0 ? new long[(r + 1) * q] : null;
+        long[] largeResidues = q > 0 ? new long[(r + 1) * q] : null;
+        long[] initial = new long[2];
+        for (int i = 1; i <= r; i++) {
+            long v = n / i;
+            smallCount[i] = i - 1;
+            largeCount[i] = v - 1;
+            powerSumFrom2(i, 1, initial);
+            smallSumHi[i] = initial[0];
+            smallSumLo[i] = initial[1];
+            powerSumFrom2(v, 1, initial);
+            largeSumHi[i] = initial[0];
+            largeSumLo[i] = initial[1];
+            powerSumFrom2(i, 2, initial);
+            smallSquaresHi[i] = initial[0];
+            smallSquaresLo[i] = initial[1];
+            powerSumFrom2(v, 2, initial);
+            largeSquaresHi[i] = initial[0];
+            largeSquaresLo[i] = initial[1];
+            if (q > 0) {
+                integersFrom2ByResidue(i, q, smallResidues, i * q);
+                integersFrom2ByResidue(v, q, largeResidues, i * q);
+            }
+        }
+
+        long[] residuesBelow = q > 0 ? new long[q] : null;
+        for (int p = 2; p <= r; p++) {
+            if (smallCount[p] == smallCount[p - 1]) continue; // p is not prime
+            long countBelow = smallCount[p - 1];
+            long sumBelowHi = smallSumHi[p - 1];
+            long sumBelowLo = smallSumLo[p - 1];
+            long squaresBelowHi = smallSquaresHi[p - 1];
+            long squaresBelowLo = smallSquaresLo[p - 1];
+            if (q > 0) System.arraycopy(smallResidues, (p - 1) * q, residuesBelow, 0, q);
+            int pMod = q > 0 ? p % q : 0;
+            long pSquared = (long) p * p;
+
+            // Entries at i * p and n / (i * p) still hold the previous round, as i increases and small is updated last
+            long iMax = Math.min(r, n / pSquared);
+            for (int i = 1; i <= iMax; i++) {
+                long d = (long) i * p;
+                boolean fromLarge = d <= r;
+                int index = fromLarge ? (int) d : (int) (n / d);
+                largeCount[i] -= (fromLarge ? largeCount : smallCount)[index] - countBelow;
+                subtractWeighted(largeSumHi, largeSumLo, i,
+                        (fromLarge ? largeSumHi : smallSumHi)[index], (fromLarge ? largeSumLo : smallSumLo)[index],
+                        sumBelowHi, sumBelowLo, p);
+                subtractWeighted(largeSquaresHi, largeSquaresLo, i,
+                        (fromLarge ? largeSquaresHi : smallSquaresHi)[index], (fromLarge ? largeSquaresLo : smallSquaresLo)[index],
+                        squaresBelowHi, squaresBelowLo, pSquared);
+                if (q > 0) {
+                    long[] source = fromLarge ? largeResidues : smallResidues;
+                    int sourceRow = index * q;
+                    int row = i * q;
+                    for (int b = 0; b < q; b++) {
+                        largeResidues[row + (b * pMod) % q] -= source[sourceRow + b] - residuesBelow[b];
+                    }
+                }
+            }
+            for (int v = r; v >= pSquared; v--) {
+                int index = v / p;
+                smallCount[v] -= smallCount[index] - countBelow;
+                subtractWeighted(smallSumHi, smallSumLo, v, smallSumHi[index], smallSumLo[index], sumBelowHi, sumBelowLo, p);
+                subtractWeighted(smallSquaresHi, smallSquaresLo, v, smallSquaresHi[index], smallSquaresLo[index],
+                        squaresBelowHi, squaresBelowLo, pSquared);
+                if (q > 0) {
+                    int row = v * q;
+                    int sourceRow = index * q;
+                    for (int b = 0; b < q; b++) {
+                        smallResidues[row + (b * pMod) % q] -= smallResidues[sourceRow + b] - residuesBelow[b];
+                    }
+                }
+            }
+        }
+
+        long[] residueCounts = null;
+        if (q > 0) {
+            residueCounts = new long[q];
+            System.arraycopy(largeResidues, q, residueCounts, 0, q);
+        }
+        return new PrimeSums(largeCount[1], toBigInteger(largeSumHi[1], largeSumLo[1]),
+                toBigInteger(largeSquaresHi[1], largeSquaresLo[1]), residueCounts);
+    }
+
+    // 128-bit table[at] -= weight * (source - below), with every value held as a {hi, lo} pair
+    private static void subtractWeighted(long[] hi, long[] lo, int at, long sourceHi, long sourceLo,
+                                         long belowHi, long belowLo, long weight) {
+        long diffLo = sourceLo - belowLo;
+        long diffHi = sourceHi - belowHi - (Long.compareUnsigned(sourceLo, belowLo) < 0 ? 1 : 0);
+        long prodLo = diffLo * weight;
+        long prodHi = Math.unsignedMultiplyHigh(diffLo, weight) + diffHi * weight;
+        long current = lo[at];
+        lo[at] = current - prodLo;
+        hi[at] = hi[at] - prodHi - (Long.compareUnsigned(current, prodLo) < 0 ? 1 : 0);
+    }
+
+    // Writes sum_{k=2..v} k^exponent as a 128-bit {hi, lo} pair, dividing out the 2 and 3 before multiplying
+    private static void powerSumFrom2(long v, int exponent, long[] out) {
+        long a = v;
+        long b = v + 1;
+        long hi;
+        long lo;
+        if (exponent == 1) {
+            // v (v + 1) / 2
+            if ((a & 1) == 0) a >>= 1; else b >>= 1;
+            lo = a * b;
+            hi = Math.unsignedMultiplyHigh(a, b);
+        } else {
+            // v (v + 1) (2v + 1) / 6
+            long c = 2 * v + 1;
+            if ((a & 1) == 0) a >>= 1; else b >>= 1;
+            if (a % 3 == 0) a /= 3; else if (b % 3 == 0) b /= 3; else c /= 3;
+            long abLo = a * b;
+            long abHi = Math.unsignedMultiplyHigh(a, b);
+            lo = abLo * c;
+            hi = Math.unsignedMultiplyHigh(abLo, c) + abHi * c;
+        }
+        // minus the k = 1 term
+        out[0] = lo == 0 ? hi - 1 : hi;
+        out[1] = lo - 1;
+    }
+
+    private static void integersFrom2ByResidue(long v, int q, long[] table, int row) {
+        for (int a = 0; a < q; a++) {
+            table[row + a] = a <= v ? (v - a) / q + 1 : 0;
+        }
+        table[row]--;           // k = 0
+        table[row + 1 % q]--;   // k = 1
+    }
+
+    private static BigInteger toBigInteger(long hi, long lo) {
+        return BigInteger.valueOf(hi).shiftLeft(64).add(new BigInteger(Long.toUnsignedString(lo)));
+    }
+
+    /**
+     * Finds the nth prime without materialising the primes before it:
+     * the explicit bounds from PrimeEstimator give a window that must contain p_n, pi(lower - 1) is counted
+     * with countPrimes, and only the window is sieved until the count reaches n.
+     * */
+    public static NthPrimeResult nthPrime(long n) {
+        long lower = PrimeEstimator.nthPrimeLowerBound(n);
+        long upper = PrimeEstimator.nthPrimeUpperBound(n);
+        long count = countPrimes(lower - 1);
+
+        SegmentedSieve sieve = new SegmentedSieve(lower, upper);
+        while (sieve.nextSegment()) {
+            int segmentCount = sieve.countPrimesInSegment();
+            if (count + segmentCount < n) {
+                count += segmentCount;
+                continue;
+            }
+            for (long candidate = sieve.segmentLow(); candidate <= sieve.segmentHigh(); candidate++) {
+                if (sieve.isPrime(candidate) && ++count == n) {
+                    return new NthPrimeResult(n, candidate, lower, upper);
+                }
+            }
+        }
+        throw new IllegalStateException("Prime number " + n + " was not found in window [" + lower + ", " + upper + "]");
+    }
+}
@@ -1,6 +1,11 @@
 package com.example.msvcprimefinder.algo;
 
 import com.example.msvcprimefinder.exception.ConcurrentSieveException;
+import com.example.msvcprimefinder.model.enums.PrimePhase;
+import com.example.msvcprimefinder.model.primes.PrimeSequence;
+import com.example.msvcprimefinder.model.primes.PrimeSequenceBuilder;
+import com.example.msvcprimefinder.util.Deadline;
+import com.example.msvcprimefinder.util.PhaseTimings;
 import com.example.msvcprimefinder.util.PrimeEstimator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -10,13 +15,15 @@ import java.util.Arrays;
 import java.util.BitSet;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executor;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.IntStream;
 import java.util.stream.LongStream;
 
 public class PrimeFinder {
     private static final Logger logger = LoggerFactory.getLogger(PrimeFinder.class);
+    private static final int ATKIN_SEGMENT_BITS = 1 << 20;
 
     public static long[] findPrimesNaive(long limit) {
         long[] primes = new long[PrimeEstimator.estimatePrimesArrayLength(limit)];
@@ -32,16 +39,32 @@ public class PrimeFinder {
     }
 
     public static long[] findPrimesWithSieve(long limit) {
+        return findPrimeSequenceWithSieve(limit).toLongArray();
+    }
+
+    public static PrimeSequence findPrimeSequenceWithSieve(long limit) {
+        return findPrimeSequenceWithSieve(limit, PhaseTimings.NONE);
+    }
+
+    public static PrimeSequence findPrimeSequenceWithSieve(long limit, PhaseTimings timings) {
         int intLimit = (int) limit; // if limit > max_int exception has already been thrown
+        long phaseStart = timings.start();
         boolean[] isPrime = simpleIntSieve(intLimit);
-        long[] primes = new long[PrimeEstimator.estimatePrimesArrayLength(limit) + 1];
-        int count = 0;
+        timings.end(PrimePhase.SEGMENT_MARKING, phaseStart);
+
+        phaseStart = timings.start();
+        PrimeSequenceBuilder primes = PrimeSequenceBuilder.forLimit(limit);
         for (int i = 2; i <= limit; i++) {
             if (isPrime[i]){
-                primes[count++] = i;
+                primes.add(i);
             }
         }
-        return Arrays.copyOf(primes, count);
+        timings.end(PrimePhase.EXTRACTION, phaseStart);
+
+        phaseStart = timings.start();
+        PrimeSequence sequence = primes.build();
+        timings.end(PrimePhase.MERGE, phaseStart);
+        return sequence;
     }
 
     public static long[] findPrimesWithSieve_BitSet(long limit) {
@@ -87,9 +110,19 @@ public class PrimeFinder {
     }
 
     public static long[] findPrimesWithSegmentedSieve(long limit) {
+        return findPrimesWithSegmentedSieve(limit, PhaseTimings.NONE);
+    }
+
+    public static long[] findPrimesWithSegmentedSieve(long limit, PhaseTimings timings) {
+        return findPrimesWithSegmentedSieve(limit, timings, Deadline.NONE);
+    }
+
+    /** Stops between segments once the deadline has passed, returning the primes up to the last full segment */
+    public static long[] findPrimesWithSegmentedSieve(long limit, PhaseTimings timings, Deadline deadline) {
         long segmentSize = (long) Math.sqrt(limit) + 1;
 
         // Create the boolean array for result up to sqrt(limit)
+        long phaseStart = timings.start();
         boolean[] isPrime = simpleIntSieve((int) segmentSize);
         long[] smallPrimes = new long[(int) segmentSize];
         int smallPrimesCount = 0;
@@ -100,6 +133,7 @@ public class PrimeFinder {
                 smallPrimes[smallPrimesCount++] = i;
             }
         }
+        timings.end(PrimePhase.BASE_PRIMES, phaseStart);
 
         // List to hold all result up to the limit
         long[] resultPrimes = new long[PrimeEstimator.estimatePrimesArrayLength(limit)];
@@ -110,10 +144,15 @@ public class PrimeFinder {
 
         // Process each segment and mark non-result
         while (low <= limit) {
+            if (low > 2 && deadline.isExpired()) {
+                deadline.stop(low - 1);
+                break;
+            }
             // Adjust the high for final segment as to not exceed array size
             high = Math.min(low + segmentSize - 1, limit);
 
             // Mark all numbers in the current segment as prime
+            phaseStart = timings.start();
             boolean[] mark = new boolean[(int) (high - low + 1)];
             Arrays.fill(mark, true);
 
@@ -125,19 +164,25 @@ public class PrimeFinder {
                     mark[(int) (j - low)] = false;
                 }
             }
+            timings.end(PrimePhase.SEGMENT_MARKING, phaseStart);
 
             // Collect all result from the current segment
+            phaseStart = timings.start();
             for (int i = 0; i < mark.length; i++) {
                 if (mark[i]) {
                     resultPrimes[resultCount++] = low + i;
                 }
             }
+            timings.end(PrimePhase.EXTRACTION, phaseStart);
 
             // Slide up by segmentSize to next segment
             low += segmentSize;
         }
 
-        return Arrays.copyOf(resultPrimes, resultCount);
+        phaseStart = timings.start();
+        long[] primes = Arrays.copyOf(resultPrimes, resultCount);
+        timings.end(PrimePhase.MERGE, phaseStart);
+        return primes;
     }
 
     public static long[] findPrimesWithSegmentedSieve_BitSet(long limit) {
@@ -237,83 +282,276 @@ public class PrimeFinder {
         return Arrays.copyOf(resultPrimes, resultCount.get());
     }
 
-    public static long[] findPrimesWithSegmentedSieve_Concurrent(long limit, long segmentSize, ExecutorService executor) {
-        // Create the boolean array for result up to sqrt(limit)
-        boolean[] isPrime = simpleIntSieve((int) segmentSize);
-        long[] smallPrimes = new long[isPrime.length];
-        AtomicInteger smallPrimesCount = new AtomicInteger(0);
+    public static long[] findPrimesWithSegmentedSieve_Concurrent(long limit, long segmentSize, Executor executor) {
+        return findPrimesWithSegmentedSieve_Concurrent(limit, segmentSize, executor, PhaseTimings.NONE);
+    }
 
-        // Collect result from the boolean array
-        for (int i = 2; i <= segmentSize; i++) {
+    public static long[] findPrimesWithSegmentedSieve_Concurrent(long limit, long segmentSize, Executor executor, PhaseTimings timings) {
+        return findPrimesWithSegmentedSieve_Concurrent(limit, segmentSize, executor,
+                Runtime.getRuntime().availableProcessors() * 2, timings);
+    }
+
+    /**
+     * Segments run through a bounded pipeline: the calling thread takes a mark buffer from a pool of maxSegmentsInFlight
+     * buffers before submitting a segment, blocking while all of them are being sieved, and the worker hands the buffer
+     * back once the segment's primes are extracted. Sieve memory peaks at maxSegmentsInFlight * segmentSize whatever
+     * the limit, and the executor queue never holds more than maxSegmentsInFlight segments.
+     * Each segment's primes go to their own slot, so the result is in order without a lock around a shared array.
+     * Segment phases are summed over all worker threads, so they can add up to more than the wall time.
+     * */
+    public static long[] findPrimesWithSegmentedSieve_Concurrent(long limit, long segmentSize, Executor executor, int maxSegmentsInFlight, PhaseTimings timings) {
+        return findPrimesWithSegmentedSieve_Concurrent(limit, segmentSize, executor, maxSegmentsInFlight, timings, Deadline.NONE);
+    }
+
+    /**
+     * Once the deadline has passed no more segments are submitted, and queued segments are skipped rather than sieved.
+     * The result is then the primes of the segments that completed in order from the start, up to the first gap.
+     * */
+    public static long[] findPrimesWithSegmentedSieve_Concurrent(long limit, long segmentSize, Executor executor, int maxSegmentsInFlight, PhaseTimings timings, Deadline deadline) {
+        if (limit < 2) return new long[0];
+        // Base primes up to sqrt(limit), segments can be smaller than that
+        long baseStart = timings.start();
+        int sqrtLimit = (int) floorSqrt(limit);
+        boolean[] isPrime = simpleIntSieve(sqrtLimit);
+        long[] smallPrimes = new long[isPrime.length];
+        int smallPrimesCount = 0;
+        for (int i = 2; i <= sqrtLimit; i++) {
             if (isPrime[i]) {
-                smallPrimes[smallPrimesCount.getAndIncrement()] =  i;
+                smallPrimes[smallPrimesCount++] = i;
+            }
+        }
+        final int basePrimesCount = smallPrimesCount;
+        timings.end(PrimePhase.BASE_PRIMES, baseStart);
+
+        int segmentCount = (int) ((limit - 2) / segmentSize + 1);
+        long[][] segmentPrimes = new long[segmentCount][];
+        SegmentBufferPool buffers = new SegmentBufferPool((int) Math.min(segmentSize, limit - 1), maxSegmentsInFlight);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        List<CompletableFuture<Void>> futures = new ArrayList<>(segmentCount);
+        logger.info("[Concurrent Sieve] {} segments of {} numbers, at most {} in flight", segmentCount, segmentSize, maxSegmentsInFlight);
+
+        // Stop submitting as soon as a segment fails, the remaining ones would be thrown away
+        for (int segment = 0; segment < segmentCount && failure.get() == null; segment++) {
+            if (segment > 0 && deadline.isExpired()) break;
+            final int index = segment;
+            final long segmentLow = 2 + segment * segmentSize;
+            final long segmentHigh = Math.min(segmentLow + segmentSize - 1, limit);
+            final boolean[] mark;
+            try {
+                mark = buffers.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ConcurrentSieveException("Interrupted while waiting for a free segment buffer", e);
+            }
+            try {
+                futures.add(CompletableFuture.runAsync(() -> {
+                    try {
+                        // The first segment always runs, so a result is never empty
+                        if (index > 0 && deadline.isExpired()) return;
+                        segmentPrimes[index] = sieveSegment(mark, segmentLow, segmentHigh, smallPrimes, basePrimesCount, timings);
+                    } finally {
+                        buffers.release(mark);
+                    }
+                }, executor).whenComplete((ignored, ex) -> {
+                    if (ex != null) {
+                        logger.error("[Concurrent Segmented Sieve]: Error in segment [{}, {}]", segmentLow, segmentHigh);
+                        failure.compareAndSet(null, ex);
+                    }
+                }));
+            } catch (RuntimeException e) {
+                buffers.release(mark);
+                throw new ConcurrentSieveException(e.getMessage(), e);
             }
         }
 
-        // List to hold all result up to the limit
-        long[] resultPrimes = new long[PrimeEstimator.estimatePrimesArrayLength(limit)];
-        AtomicInteger resultCount = new AtomicInteger(0);
+        try {
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+        } catch (Exception e) {
+            throw new ConcurrentSieveException(e.getMessage(), e.getCause());
+        }
 
-        // Get processors and make a thread pool (try w resources)
-        logger.info("[Concurrent Sieve] Available processors: " + Runtime.getRuntime().availableProcessors());
+        long mergeStart = timings.start();
+        int completed = 0;
+        int total = 0;
+        while (completed < segmentCount && segmentPrimes[completed] != null) {
+            total += segmentPrimes[completed++].length;
+        }
+        if (completed < segmentCount) {
+            deadline.stop(1 + completed * segmentSize);     // high of the last completed segment
+        }
+        long[] resultPrimes = new long[total];
+        int offset = 0;
+        for (int segment = 0; segment < completed; segment++) {
+            System.arraycopy(segmentPrimes[segment], 0, resultPrimes, offset, segmentPrimes[segment].length);
+            offset += segmentPrimes[segment].length;
+            segmentPrimes[segment] = null;  // let the segment go while the rest is copied
+        }
+        timings.end(PrimePhase.MERGE, mergeStart);
+        return resultPrimes;
+    }
 
-        long low = 2;
-        long high;
+    /** Sieves [low, high] in the first high - low + 1 entries of a pooled mark buffer and returns its primes */
+    private static long[] sieveSegment(boolean[] mark, long low, long high, long[] smallPrimes, int smallPrimesCount, PhaseTimings timings) {
+        int length = (int) (high - low + 1);
+        long phaseStart = timings.start();
+        Arrays.fill(mark, 0, length, true);
+        for (int i = 0; i < smallPrimesCount; i++) {
+            long prime = smallPrimes[i];
+            if (prime * prime > high) break;
+            long start = Math.max(prime * prime, (low + prime - 1) / prime * prime);
+            for (long j = start; j <= high; j += prime) {
+                mark[(int) (j - low)] = false;
+            }
+        }
+        timings.end(PrimePhase.SEGMENT_MARKING, phaseStart);
 
-        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        phaseStart = timings.start();
+        int count = 0;
+        for (int i = 0; i < length; i++) {
+            if (mark[i]) count++;
+        }
+        long[] primes = new long[count];
+        int index = 0;
+        for (int i = 0; i < length; i++) {
+            if (mark[i]) primes[index++] = low + i;
+        }
+        timings.end(PrimePhase.EXTRACTION, phaseStart);
+        return primes;
+    }
 
-        // Process each segment and mark non-result
-        while (low <= limit) {
-            // Adjust the high for final segment as to not exceed array size
-            high = Math.min(low + segmentSize - 1, limit);
+    public static long[] findPrimesWithSieveOfAtkin(long limit) {
+        return findPrimeSequenceWithSieveOfAtkin(limit).toLongArray();
+    }
 
-            // Mark all numbers in the current segment as prime
-            boolean[] mark = new boolean[(int) (high - low + 1)];
-            Arrays.fill(mark, true);
+    /** Sieve of Atkin collecting into an int[] below 2^31 and long[] pages above, so the result is never bounded by the array limit */
+    public static PrimeSequence findPrimeSequenceWithSieveOfAtkin(long limit) {
+        return findPrimeSequenceWithSieveOfAtkin(limit, PhaseTimings.NONE);
+    }
+
+    public static PrimeSequence findPrimeSequenceWithSieveOfAtkin(long limit, PhaseTimings timings) {
+        return findPrimeSequenceWithSieveOfAtkin(limit, timings, Deadline.NONE);
+    }
+
+    /** Stops between segments once the deadline has passed, returning the primes up to the last full segment */
+    public static PrimeSequence findPrimeSequenceWithSieveOfAtkin(long limit, PhaseTimings timings, Deadline deadline) {
+        // Base primes up to sqrt(limit) are only needed to clear multiples of prime squares
+        long phaseStart = timings.start();
+        int sqrtLimit = (int) Math.sqrt(limit) + 1;
+        boolean[] isPrime = simpleIntSieve(sqrtLimit);
+        timings.end(PrimePhase.BASE_PRIMES, phaseStart);
+
+        PrimeSequenceBuilder resultPrimes = PrimeSequenceBuilder.forLimit(limit);
+        if (limit >= 2) resultPrimes.add(2);
+        if (limit >= 3) resultPrimes.add(3);
+
+        // One bit per number, so a segment of ATKIN_SEGMENT_BITS numbers is 128KB and stays in L2
+        long[] segment = new long[ATKIN_SEGMENT_BITS >>> 6];
+        long low = 0;
 
-            // Immutability for thread safe concurrency
-            final long segmentLow = low;
-            final long segmentHigh = high;
-
-            // Build threads and add them to futures
-            CompletableFuture<Void> future = CompletableFuture.runAsync(() -> {
-                // Use the result from the simple sieve to mark multiples in the current segment
-                for (int i = 0; i < smallPrimesCount.get(); i++) {
-                    long prime = smallPrimes[i];
-                    long start = Math.max(prime * prime, (segmentLow + prime - 1) / prime * prime);
-                    for (long j = start; j <= segmentHigh; j += prime) {
-                        mark[(int) (j - segmentLow)] = false;
+        while (low <= limit) {
+            if (low > 0 && deadline.isExpired()) {
+                deadline.stop(low - 1);
+                break;
+            }
+            // high is exclusive here, the bit at index i represents the number low + i
+            long high = Math.min(low + ATKIN_SEGMENT_BITS, limit + 1);
+            phaseStart = timings.start();
+            Arrays.fill(segment, 0L);
+
+            atkinToggleQuadraticForms(segment, low, high);
+
+            // Remove multiples of prime squares, these have an odd number of solutions but are not prime
+            for (int p = 5; (long) p * p < high; p++) {
+                if (isPrime[p]) {
+                    long square = (long) p * p;
+                    long start = Math.max(square, (low + square - 1) / square * square);
+                    for (long j = start; j < high; j += square) {
+                        segment[(int) ((j - low) >>> 6)] &= ~(1L << (j - low));
                     }
                 }
+            }
 
-                // Collect all result from the current segment
-                synchronized (resultPrimes) {
-                    for (int i = 0; i < mark.length; i++) {
-                        if (mark[i]) {
-                            resultPrimes[resultCount.getAndIncrement()] = segmentLow + i;
-                        }
-                    }
+            timings.end(PrimePhase.SEGMENT_MARKING, phaseStart);
+
+            // Collect result from the set bits of the current segment
+            phaseStart = timings.start();
+            for (int w = 0; w < segment.length; w++) {
+                long word = segment[w];
+                while (word != 0) {
+                    resultPrimes.add(low + ((long) w << 6) + Long.numberOfTrailingZeros(word));
+                    word &= word - 1;
                 }
-            }, executor).exceptionally(ex -> {
-                logger.error("[Concurrent Segmented Sieve]: Error in segment [{}, {}]", segmentLow, segmentHigh);
-                return null;
-            });
+            }
+            timings.end(PrimePhase.EXTRACTION, phaseStart);
 
-            futures.add(future);
-            // Slide up bv segmentSize to next segment
-            low += segmentSize;
+            low += ATKIN_SEGMENT_BITS;
         }
 
-        logger.info("[Concurrent Sieve] Configured active threads: " + Thread.activeCount());
+        phaseStart = timings.start();
+        PrimeSequence primes = resultPrimes.build();
+        timings.end(PrimePhase.MERGE, phaseStart);
+        return primes;
+    }
 
-        CompletableFuture<Void> allFutures = CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]));
-        try {
-            allFutures.join();
-        } catch (Exception e) {
-            throw new ConcurrentSieveException(e.getMessage(), e.getCause());
+    /**
+     * Toggles every n in [low, high) once per solution of the three Atkin quadratic forms:
+     * 4x^2 + y^2 = n (n mod 12 in {1, 5}), 3x^2 + y^2 = n (n mod 12 = 7) and 3x^2 - y^2 = n with x > y (n mod 12 = 11).
+     * For each x, the range of y is solved directly so only pairs landing inside the segment are visited.
+     * */
+    private static void atkinToggleQuadraticForms(long[] segment, long low, long high) {
+        // 4x^2 + y^2, only odd y can give n mod 12 in {1, 5}
+        for (long x = 1; 4 * x * x + 1 < high; x++) {
+            long fx = 4 * x * x;
+            long y = Math.max(1, ceilSqrt(low - fx));
+            if ((y & 1) == 0) y++;
+            for (long n = fx + y * y; n < high; y += 2, n = fx + y * y) {
+                int r = (int) (n % 12);
+                if (r == 1 || r == 5) {
+                    segment[(int) ((n - low) >>> 6)] ^= 1L << (n - low);
+                }
+            }
         }
 
-        return Arrays.copyOf(resultPrimes, resultCount.get());
+        // 3x^2 + y^2, only odd x and even y can give n mod 12 = 7
+        for (long x = 1; 3 * x * x + 4 < high; x += 2) {
+            long fx = 3 * x * x;
+            long y = Math.max(2, ceilSqrt(low - fx));
+            if ((y & 1) == 1) y++;
+            for (long n = fx + y * y; n < high; y += 2, n = fx + y * y) {
+                if (n % 12 == 7) {
+                    segment[(int) ((n - low) >>> 6)] ^= 1L << (n - low);
+                }
+            }
+        }
+
+        // 3x^2 - y^2 with x > y, the smallest n for a given x is 3x^2 - (x - 1)^2 = 2x^2 + 2x - 1
+        for (long x = 2; 2 * x * x + 2 * x - 1 < high; x++) {
+            long fx = 3 * x * x;
+            if (fx - 1 < low) continue;
+            long yMax = Math.min(x - 1, floorSqrt(fx - low));
+            long yMin = fx - high < 0 ? 1 : floorSqrt(fx - high) + 1;
+            // n mod 12 = 11 needs x + y to be odd
+            long y = ((yMin + x) & 1) == 0 ? yMin + 1 : yMin;
+            for (; y <= yMax; y += 2) {
+                long n = fx - y * y;
+                if (n % 12 == 11) {
+                    segment[(int) ((n - low) >>> 6)] ^= 1L << (n - low);
+                }
+            }
+        }
+    }
+
+    static long floorSqrt(long value) {
+        long root = (long) Math.sqrt(value);
+        while (root * root > value) root--;
+        while ((root + 1) * (root + 1) <= value) root++;
+        return root;
+    }
+
+    private static long ceilSqrt(long value) {
+        if (value <= 0) return 0;
+        long root = floorSqrt(value);
+        return root * root == value ? root : root + 1;
     }
 
     private static boolean isPrimeNaive(long num) {
@@ -0,0 +1,123 @@
+package com.example.msvcprimefinder.algo;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongConsumer;
+
+/**
+ * Streaming accumulator for prime constellations and gaps. Primes must be fed in increasing order;
+ * only the last three primes are kept, so state carries across sieve segments without holding a long[] of primes.
+ * Patterns are detected on consecutive primes:
+ * twins (p, p + 2), triplets (p, p + 2, p + 6) and (p, p + 4, p + 6), quadruplets (p, p + 2, p + 6, p + 8).
+ * */
+public class PrimePatternAnalyzer implements LongConsumer {
+    private final int listLimit;
+
+    private long primeCount = 0;
+    // Previous primes, prev1 being the most recent. 0 until that many primes have been seen
+    private long prev1 = 0;
+    private long prev2 = 0;
+    private long prev3 = 0;
+
+    private long twinCount = 0;
+    private long tripletCount = 0;
+    private long quadrupletCount = 0;
+    private final List<long[]> twins = new ArrayList<>();
+    private final List<long[]> triplets = new ArrayList<>();
+    private final List<long[]> quadruplets = new ArrayList<>();
+
+    private long maxGap = 0;
+    private long maxGapStart = 0;
+    private final List<long[]> maximalGaps = new ArrayList<>();
+    // gapCounts[g] counts gaps of size g, grown on demand (the largest gap below 10^12 is 540)
+    private long[] gapCounts = new long[64];
+
+    public PrimePatternAnalyzer(int listLimit) {
+        this.listLimit = listLimit;
+    }
+
+    @Override
+    public void accept(long prime) {
+        primeCount++;
+        if (prev1 != 0) {
+            recordGap(prev1, prime);
+            if (prime - prev1 == 2) {
+                if (twinCount++ < listLimit) twins.add(new long[]{prev1, prime});
+            }
+            if (prev2 != 0 && prime - prev2 == 6) {
+                if (tripletCount++ < listLimit) triplets.add(new long[]{prev2, prev1, prime});
+            }
+            // Both pairs must be twins, prime - prev3 == 8 alone would also match (3, 5, 7, 11)
+            if (prev3 != 0 && prime - prev3 == 8 && prev2 - prev3 == 2 && prime - prev1 == 2) {
+                if (quadrupletCount++ < listLimit) quadruplets.add(new long[]{prev3, prev2, prev1, prime});
+            }
+        }
+        prev3 = prev2;
+        prev2 = prev1;
+        prev1 = prime;
+    }
+
+    private void recordGap(long previous, long prime) {
+        int gap = (int) (prime - previous);
+        if (gap >= gapCounts.length) {
+            gapCounts = Arrays.copyOf(gapCounts, Math.max(gap + 1, gapCounts.length * 2));
+        }
+        gapCounts[gap]++;
+        if (gap > maxGap) {
+            maxGap = gap;
+            maxGapStart = previous;
+            maximalGaps.add(new long[]{gap, previous});
+        }
+    }
+
+    public long getPrimeCount() {
+        return primeCount;
+    }
+
+    public long getTwinCount() {
+        return twinCount;
+    }
+
+    public long getTripletCount() {
+        return tripletCount;
+    }
+
+    public long getQuadrupletCount() {
+        return quadrupletCount;
+    }
+
+    public List<long[]> getTwins() {
+        return twins;
+    }
+
+    public List<long[]> getTriplets() {
+        return triplets;
+    }
+
+    public List<long[]> getQuadruplets() {
+        return quadruplets;
+    }
+
+    public long getMaxGap() {
+        return maxGap;
+    }
+
+    public long getMaxGapStart() {
+        return maxGapStart;
+    }
+
+    public List<long[]> getMaximalGaps() {
+        return maximalGaps;
+    }
+
+    public Map<Integer, Long> getGapHistogram() {
+        Map<Integer, Long> histogram = new LinkedHashMap<>();
+        for (int gap = 1; gap < gapCounts.length; gap++) {
+            if (gapCounts[gap] > 0) histogram.put(gap, gapCounts[gap]);
+        }
+        return histogram;
+    }
+}
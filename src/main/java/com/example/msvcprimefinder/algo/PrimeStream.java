@@ -0,0 +1,151 @@
+package com.example.msvcprimefinder.algo;
+
+import java.util.Comparator;
+import java.util.Spliterator;
+import java.util.function.LongConsumer;
+import java.util.stream.LongStream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Lazy, splittable primes for embedding the engine in other JVM code without going through HTTP.
+ * Nothing is sieved until the stream is consumed and only the current SegmentedSieve window is held, so memory stays
+ * at O(sqrt(to) + segment) however wide the range, and a short-circuiting pipeline (findFirst, limit, takeWhile)
+ * stops sieving as soon as it has what it needs.
+ * The spliterator halves a bounded range on trySplit (an unbounded one peels off growing prefixes), so .parallel()
+ * sieves disjoint ranges on the common pool while primes are still encountered in increasing order.
+ * */
+public final class PrimeStream {
+    /**
+     * Exclusive upper end of every stream, the same limit as /find-primes/stream. A window near it holds the ~665k base
+     * primes up to 10^7 (2.7MB) and a segment at least as long as the largest of them (10MB), after a transient 10MB
+     * sieve for the base primes, so about 13MB per window and per split when run with .parallel().
+     * */
+    public static final long MAX_BOUND = 100_000_000_000_000L;
+
+    private PrimeStream() {}
+
+    /** Primes p with from <= p < to */
+    public static LongStream range(long from, long to) {
+        return StreamSupport.longStream(spliterator(from, to), false);
+    }
+
+    /** Primes p >= from, up to MAX_BOUND */
+    public static LongStream from(long from) {
+        checkBounds(from, MAX_BOUND);
+        return StreamSupport.longStream(new PrimeSpliterator(Math.max(from, 2), MAX_BOUND, true), false);
+    }
+
+    public static Spliterator.OfLong spliterator(long from, long to) {
+        checkBounds(from, to);
+        return new PrimeSpliterator(Math.max(from, 2), Math.max(to, 2), false);
+    }
+
+    private static void checkBounds(long from, long to) {
+        if (from > to) {
+            throw new IllegalArgumentException("from must be less than or equal to to");
+        }
+        if (to > MAX_BOUND) {
+            throw new IllegalArgumentException("to must be less than or equal to " + MAX_BOUND);
+        }
+    }
+
+    static final class PrimeSpliterator implements Spliterator.OfLong {
+        // Each window gets its own SegmentedSieve, growing with the values so base primes are rebuilt O(log) times
+        private static final long MIN_WINDOW = 1 << 23;
+        // Below this a range is cheaper to sieve than to hand to another thread
+        private static final long MIN_SPLIT = 1 << 22;
+        private static final long MAX_UNBOUNDED_BATCH = 1L << 32;
+
+        private final long to;              // exclusive
+        private final boolean unbounded;
+        private long position;              // next number not yet looked at
+        private long unboundedBatch = MIN_SPLIT;
+        private SegmentedSieve sieve;       // over [position, windowEnd), null until traversal starts or after a split
+        private long windowEnd;
+
+        PrimeSpliterator(long from, long to, boolean unbounded) {
+            this.position = from;
+            this.to = to;
+            this.unbounded = unbounded;
+        }
+
+        @Override
+        public boolean tryAdvance(LongConsumer action) {
+            while (loadSegment()) {
+                long high = sieve.segmentHigh();
+                while (position <= high) {
+                    long candidate = position++;
+                    if (sieve.isPrime(candidate)) {
+                        action.accept(candidate);
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public void forEachRemaining(LongConsumer action) {
+            while (loadSegment()) {
+                long high = sieve.segmentHigh();
+                if (position == sieve.segmentLow()) {
+                    position = high + 1;
+                    sieve.forEachPrimeInSegment(action);
+                } else {
+                    // Finish a segment tryAdvance had started
+                    for (; position <= high; position++) {
+                        if (sieve.isPrime(position)) action.accept(position);
+                    }
+                }
+            }
+        }
+
+        /** Makes the current segment cover position, opening the next window once this one is used up */
+        private boolean loadSegment() {
+            if (sieve != null && position >= sieve.segmentLow() && position <= sieve.segmentHigh()) return true;
+            if (position >= to) return false;
+            if (sieve == null || position >= windowEnd) {
+                windowEnd = Math.min(to, position + Math.max(MIN_WINDOW, position >>> 2));
+                sieve = new SegmentedSieve(position, windowEnd - 1);
+            }
+            // Segments are contiguous from the window start, so the next one starts at position
+            return sieve.nextSegment();
+        }
+
+        @Override
+        public Spliterator.OfLong trySplit() {
+            long splitAt;
+            if (unbounded) {
+                if (to - position <= unboundedBatch) return null;
+                splitAt = position + unboundedBatch;
+                unboundedBatch = Math.min(unboundedBatch * 2, MAX_UNBOUNDED_BATCH);
+            } else {
+                long remaining = to - position;
+                if (remaining < 2 * MIN_SPLIT) return null;
+                splitAt = position + remaining / 2;
+            }
+            PrimeSpliterator prefix = new PrimeSpliterator(position, splitAt, false);
+            position = splitAt;
+            sieve = null;   // the window in progress now belongs to the prefix
+            return prefix;
+        }
+
+        /** Prime number theorem estimate of the primes left, unbounded streams report Long.MAX_VALUE */
+        @Override
+        public long estimateSize() {
+            if (unbounded) return Long.MAX_VALUE;
+            if (position >= to) return 0;
+            return (long) ((to - position) / Math.log(Math.max(to, 3))) + 1;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | DISTINCT | SORTED | NONNULL | IMMUTABLE;
+        }
+
+        @Override
+        public Comparator<? super Long> getComparator() {
+            return null;    // natural order
+        }
+    }
+}
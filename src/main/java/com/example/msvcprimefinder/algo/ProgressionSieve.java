@@ -0,0 +1,181 @@
+package com.example.msvcprimefinder.algo;
+
+import java.util.Arrays;
+import java.util.function.LongConsumer;
+
+/**
+ * Sieves only the numbers n = residue (mod modulus) in [from, to], one segment of the progression at a time.
+ * Entry k of a segment stands for residue + k * modulus, so a segment of segmentSize entries spans segmentSize * modulus
+ * numbers and the work shrinks by about a factor phi(modulus) against sieving every integer.
+ * A base prime p that does not divide the modulus hits the progression exactly once every p entries, starting at
+ * k = -residue * modulus^-1 (mod p). That start offset is computed once per prime, and each prime keeps the next entry
+ * it will cross off from one segment to the next.
+ * When gcd(residue, modulus) = g > 1 every term is a multiple of g, so g itself is the only term that can be prime.
+ * Call nextSegment() until it returns false, reading each segment with forEachPrimeInSegment/countPrimesInSegment.
+ * */
+public class ProgressionSieve {
+    private final long modulus;
+    private final long residue;
+    private final int segmentSize;
+    private final long lastIndex;
+    private final int[] basePrimes;     // base primes up to sqrt(to) that do not divide the modulus
+    private final long[] nextIndex;     // next entry each base prime crosses off
+    private final boolean[] mark;
+    private final boolean coprime;
+
+    private long segmentLowIndex;
+    private long segmentHighIndex;
+    private long nextLowIndex;
+
+    public ProgressionSieve(long from, long to, long modulus, long residue, int segmentSize) {
+        if (modulus < 1) {
+            throw new IllegalArgumentException("modulus must be at least 1");
+        }
+        if (residue < 0 || residue >= modulus) {
+            throw new IllegalArgumentException("residue must be in [0, modulus)");
+        }
+        this.modulus = modulus;
+        this.residue = residue;
+        this.segmentSize = segmentSize;
+        long g = Factorizer.gcd(residue, modulus);
+        this.coprime = g == 1;
+        if (coprime) {
+            // First term >= max(from, 2) and last term <= to
+            this.nextLowIndex = indexAtOrAbove(Math.max(from, 2));
+            this.lastIndex = to < residue ? -1 : (to - residue) / modulus;
+            int[] primes = SegmentedSieve.basePrimesUpTo((int) Math.sqrt(Math.max(to, 4)) + 1);
+            int count = 0;
+            for (int prime : primes) {
+                if (modulus % prime != 0) primes[count++] = prime;
+            }
+            this.basePrimes = Arrays.copyOf(primes, count);
+            this.nextIndex = new long[count];
+            for (int i = 0; i < count; i++) {
+                nextIndex[i] = firstIndexToCrossOff(basePrimes[i]);
+            }
+        } else {
+            // g is the term with index (g - residue) / modulus, which is 0 unless residue = 0 (then g = modulus, index 1)
+            long gIndex = residue == 0 ? 1 : 0;
+            boolean inRange = g == residue + gIndex * modulus && g >= from && g <= to;
+            this.nextLowIndex = inRange ? gIndex : 0;
+            this.lastIndex = inRange ? gIndex : -1;
+            this.basePrimes = new int[0];
+            this.nextIndex = new long[0];
+        }
+        this.mark = new boolean[(int) Math.max(1, Math.min(segmentSize, lastIndex - nextLowIndex + 1))];
+    }
+
+    public boolean nextSegment() {
+        if (nextLowIndex > lastIndex) {
+            return false;
+        }
+        segmentLowIndex = nextLowIndex;
+        segmentHighIndex = Math.min(segmentLowIndex + segmentSize - 1, lastIndex);
+        int length = (int) (segmentHighIndex - segmentLowIndex + 1);
+
+        if (!coprime) {
+            long g = term(segmentLowIndex);
+            mark[0] = g >= 2 && Factorizer.millerRabin(g);
+        } else {
+            Arrays.fill(mark, 0, length, true);
+            long highTerm = term(segmentHighIndex);
+            for (int i = 0; i < basePrimes.length; i++) {
+                long p = basePrimes[i];
+                // Crossing off starts at p^2, so no larger prime reaches this segment
+                if (p * p > highTerm) break;
+                long k = nextIndex[i];
+                for (; k <= segmentHighIndex; k += p) {
+                    mark[(int) (k - segmentLowIndex)] = false;
+                }
+                nextIndex[i] = k;
+            }
+        }
+
+        nextLowIndex = segmentHighIndex + 1;
+        return true;
+    }
+
+    public int countPrimesInSegment() {
+        int count = 0;
+        int length = (int) (segmentHighIndex - segmentLowIndex + 1);
+        for (int i = 0; i < length; i++) {
+            if (mark[i]) count++;
+        }
+        return count;
+    }
+
+    public void forEachPrimeInSegment(LongConsumer action) {
+        int length = (int) (segmentHighIndex - segmentLowIndex + 1);
+        for (int i = 0; i < length; i++) {
+            if (mark[i]) action.accept(term(segmentLowIndex + i));
+        }
+    }
+
+    /** Number of primes p in [from, to] with p = residue (mod modulus) */
+    public static long count(long from, long to, long modulus, long residue, int segmentSize) {
+        ProgressionSieve sieve = new ProgressionSieve(from, to, modulus, residue, segmentSize);
+        long count = 0;
+        while (sieve.nextSegment()) {
+            count += sieve.countPrimesInSegment();
+        }
+        return count;
+    }
+
+    /** The primes p in [from, to] with p = residue (mod modulus), in increasing order */
+    public static long[] list(long from, long to, long modulus, long residue, int segmentSize) {
+        ProgressionSieve sieve = new ProgressionSieve(from, to, modulus, residue, segmentSize);
+        long[][] primes = {new long[1024]};
+        int[] count = {0};
+        while (sieve.nextSegment()) {
+            sieve.forEachPrimeInSegment(prime -> {
+                if (count[0] == primes[0].length) primes[0] = Arrays.copyOf(primes[0], primes[0].length * 2);
+                primes[0][count[0]++] = prime;
+            });
+        }
+        return Arrays.copyOf(primes[0], count[0]);
+    }
+
+    /** Euler's totient, the number of residue classes mod n that can hold more than one prime */
+    public static long eulerPhi(long n) {
+        long phi = n;
+        for (long p = 2; p * p <= n; p++) {
+            if (n % p == 0) {
+                while (n % p == 0) n /= p;
+                phi -= phi / p;
+            }
+        }
+        if (n > 1) phi -= phi / n;
+        return phi;
+    }
+
+    private long term(long index) {
+        return residue + index * modulus;
+    }
+
+    // Smallest k with residue + k * modulus >= value
+    private long indexAtOrAbove(long value) {
+        return value <= residue ? 0 : (value - residue + modulus - 1) / modulus;
+    }
+
+    // First k >= nextLowIndex where p divides the term and the term is at least p^2, so p itself is never crossed off
+    private long firstIndexToCrossOff(long p) {
+        long offset = Math.floorMod(-residue, p) * inverse(modulus % p, p) % p;
+        long from = Math.max(nextLowIndex, indexAtOrAbove(p * p));
+        return from + Math.floorMod(offset - from, p);
+    }
+
+    // a^-1 mod m for gcd(a, m) = 1, by the extended Euclidean algorithm
+    private static long inverse(long a, long m) {
+        long oldR = a, r = m, oldS = 1, s = 0;
+        while (r != 0) {
+            long q = oldR / r;
+            long t = oldR - q * r;
+            oldR = r;
+            r = t;
+            t = oldS - q * s;
+            oldS = s;
+            s = t;
+        }
+        return Math.floorMod(oldS, m);
+    }
+}
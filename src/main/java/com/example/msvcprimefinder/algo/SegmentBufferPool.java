@@ -0,0 +1,43 @@
+package com.example.msvcprimefinder.algo;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fixed pool of reusable segment mark buffers. Unlike ByteBufferPool it never allocates past maxBuffers:
+ * acquire() blocks until a buffer is released, which is what bounds the number of segments in flight.
+ * Buffers are created lazily, so a small limit that needs one segment only allocates one.
+ * */
+public class SegmentBufferPool {
+    private final int bufferSize;
+    private final int maxBuffers;
+    private final BlockingQueue<boolean[]> free;
+    private final AtomicInteger created = new AtomicInteger();
+
+    public SegmentBufferPool(int bufferSize, int maxBuffers) {
+        if (maxBuffers < 1) {
+            throw new IllegalArgumentException("A segment buffer pool needs at least one buffer");
+        }
+        this.bufferSize = bufferSize;
+        this.maxBuffers = maxBuffers;
+        this.free = new ArrayBlockingQueue<>(maxBuffers);
+    }
+
+    public boolean[] acquire() throws InterruptedException {
+        boolean[] buffer = free.poll();
+        if (buffer != null) return buffer;
+        if (created.getAndUpdate(count -> count < maxBuffers ? count + 1 : count) < maxBuffers) {
+            return new boolean[bufferSize];
+        }
+        return free.take();
+    }
+
+    public void release(boolean[] buffer) {
+        free.offer(buffer);
+    }
+
+    public int getCreated() {
+        return created.get();
+    }
+}
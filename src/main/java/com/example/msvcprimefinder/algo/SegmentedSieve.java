@@ -0,0 +1,117 @@
+package com.example.msvcprimefinder.algo;
+
+import com.example.msvcprimefinder.util.PrimeEstimator;
+
+import java.util.Arrays;
+import java.util.function.LongConsumer;
+
+/**
+ * Sieves an arbitrary window [from, to] one segment at a time, so memory stays at
+ * O(sqrt(to) + segmentSize) however wide the window is.
+ * Call nextSegment() until it returns false, reading each segment with isPrime/forEachPrime
+ * before moving on.
+ * */
+public class SegmentedSieve {
+    public static final int DEFAULT_SEGMENT_SIZE = 1 << 18;
+
+    private final long to;
+    private final int segmentSize;
+    private final int[] basePrimes;
+    private final boolean[] mark;
+
+    private long segmentLow;
+    private long segmentHigh;
+    private long nextLow;
+
+    public SegmentedSieve(long from, long to) {
+        this(from, to, DEFAULT_SEGMENT_SIZE);
+    }
+
+    public SegmentedSieve(long from, long to, int segmentSize) {
+        this.to = to;
+        this.nextLow = Math.max(2, from);
+        this.basePrimes = basePrimesUpTo((int) Math.sqrt(Math.max(to, 4)) + 1);
+        // Never make a segment smaller than the largest base prime, or most of them would be skipped per segment anyway
+        this.segmentSize = Math.max(segmentSize, basePrimes.length == 0 ? 1 : basePrimes[basePrimes.length - 1]);
+        this.mark = new boolean[this.segmentSize];
+    }
+
+    public boolean nextSegment() {
+        if (nextLow > to) {
+            return false;
+        }
+        segmentLow = nextLow;
+        segmentHigh = Math.min(segmentLow + segmentSize - 1, to);
+        int length = (int) (segmentHigh - segmentLow + 1);
+
+        // Mark all numbers in the current segment as prime
+        Arrays.fill(mark, 0, length, true);
+
+        // Use the base primes to mark multiples in the current segment
+        for (int prime : basePrimes) {
+            long p = prime;
+            if (p * p > segmentHigh) break;
+            long start = Math.max(p * p, (segmentLow + p - 1) / p * p);
+            for (long j = start; j <= segmentHigh; j += p) {
+                mark[(int) (j - segmentLow)] = false;
+            }
+        }
+
+        nextLow = segmentHigh + 1;
+        return true;
+    }
+
+    public long segmentLow() {
+        return segmentLow;
+    }
+
+    public long segmentHigh() {
+        return segmentHigh;
+    }
+
+    public boolean isPrime(long n) {
+        return mark[(int) (n - segmentLow)];
+    }
+
+    public int countPrimesInSegment() {
+        int count = 0;
+        int length = (int) (segmentHigh - segmentLow + 1);
+        for (int i = 0; i < length; i++) {
+            if (mark[i]) count++;
+        }
+        return count;
+    }
+
+    public void forEachPrimeInSegment(LongConsumer action) {
+        int length = (int) (segmentHigh - segmentLow + 1);
+        for (int i = 0; i < length; i++) {
+            if (mark[i]) action.accept(segmentLow + i);
+        }
+    }
+
+    /** The primes of the current segment in an exactly sized array */
+    public long[] primesInSegment() {
+        long[] primes = new long[countPrimesInSegment()];
+        int length = (int) (segmentHigh - segmentLow + 1);
+        int index = 0;
+        for (int i = 0; i < length; i++) {
+            if (mark[i]) primes[index++] = segmentLow + i;
+        }
+        return primes;
+    }
+
+    public static int[] basePrimesUpTo(int limit) {
+        boolean[] composite = new boolean[limit + 1];
+        int[] primes = new int[PrimeEstimator.estimatePrimesArrayLength(limit)];
+        int count = 0;
+        for (int i = 2; i <= limit; i++) {
+            if (!composite[i]) {
+                primes[count++] = i;
+                for (long multiple = (long) i * i; multiple <= limit; multiple += i) {
+                    composite[(int) multiple] = true;
+                }
+            }
+        }
+        return Arrays.copyOf(primes, count);
+    }
+}
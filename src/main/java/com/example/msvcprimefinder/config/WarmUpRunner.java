@@ -0,0 +1,135 @@
+package com.example.msvcprimefinder.config;
+
+import com.example.msvcprimefinder.model.enums.PrimeAlgorithmNames;
+import com.example.msvcprimefinder.service.FindPrimesService;
+import com.example.msvcprimefinder.service.FindPrimesServiceImpl;
+import com.example.msvcprimefinder.service.PrimeCacheService;
+import com.example.msvcprimefinder.util.Deadline;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.CompilationMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Runs each configured engine at the configured limits before the instance takes traffic, so the first requests hit
+ * C2-compiled sieve loops instead of the interpreter, and optionally fills the cache up to primefinder.warmup.cache-prefill-limit.
+ * Spring Boot only moves readiness to ACCEPTING_TRAFFIC once every ApplicationRunner has returned, so
+ * /actuator/health/readiness stays DOWN until this is done. This bean is also the warmUp health indicator in that group.
+ * An engine counts as warm once an iteration over all limits triggers no JIT compilation, or after max-iterations.
+ * */
+@Component("warmUp")
+public class WarmUpRunner implements ApplicationRunner, HealthIndicator {
+    private static final Logger logger = LoggerFactory.getLogger(WarmUpRunner.class);
+    // C2 needs a few thousand loop iterations and some invocations before it compiles, never stop before this
+    private static final int MIN_ITERATIONS = 3;
+
+    private final FindPrimesService findPrimesService;
+    private final PrimeCacheService primeCacheService;
+    private final boolean enabled;
+    private final List<PrimeAlgorithmNames> engines;
+    private final List<Long> limits;
+    private final int maxIterations;
+    private final long maxDurationMs;
+    private final long cachePrefillLimit;
+    // Readiness probes read this while run() is still adding engines, so it is only ever replaced by a new immutable copy
+    private volatile Map<String, EngineWarmUp> results = Map.of();
+    private volatile boolean done;
+    private volatile long durationMs;
+
+    @Autowired
+    public WarmUpRunner(FindPrimesServiceImpl findPrimesService, PrimeCacheService primeCacheService,
+                        @Value("${primefinder.warmup.enabled:true}") boolean enabled,
+                        @Value("${primefinder.warmup.engines:SIEVE,SEGMENTED_SIEVE,SEGMENTED_SIEVE_CONCURRENT,SIEVE_ATKIN}") List<PrimeAlgorithmNames> engines,
+                        @Value("${primefinder.warmup.limits:100000,2000000}") List<Long> limits,
+                        @Value("${primefinder.warmup.max-iterations:20}") int maxIterations,
+                        @Value("${primefinder.warmup.max-duration-ms:20000}") long maxDurationMs,
+                        @Value("${primefinder.warmup.cache-prefill-limit:0}") long cachePrefillLimit) {
+        this.findPrimesService = findPrimesService;
+        this.primeCacheService = primeCacheService;
+        this.enabled = enabled;
+        this.engines = engines;
+        this.limits = limits;
+        this.maxIterations = maxIterations;
+        this.maxDurationMs = maxDurationMs;
+        this.cachePrefillLimit = cachePrefillLimit;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled) {
+            done = true;
+            return;
+        }
+        long startNs = System.nanoTime();
+        Deadline deadline = Deadline.afterMillis(maxDurationMs);
+        Map<String, EngineWarmUp> engineResults = new LinkedHashMap<>();
+        CompilationMXBean jit = ManagementFactory.getCompilationMXBean();
+        boolean canTrackJit = jit != null && jit.isCompilationTimeMonitoringSupported();
+
+        for (PrimeAlgorithmNames engine : engines) {
+            int iteration = 0;
+            long firstIterationNs = 0;
+            long lastIterationNs = 0;
+            boolean compiled = false;
+            while (iteration < maxIterations && !deadline.isExpired()) {
+                long jitBefore = canTrackJit ? jit.getTotalCompilationTime() : 0;
+                long iterationStart = System.nanoTime();
+                for (long limit : limits) {
+                    findPrimesService.findPrimes(limit, engine, false, false);
+                }
+                lastIterationNs = System.nanoTime() - iterationStart;
+                if (iteration++ == 0) firstIterationNs = lastIterationNs;
+                compiled = canTrackJit && iteration >= MIN_ITERATIONS && jit.getTotalCompilationTime() == jitBefore;
+                if (compiled) break;
+            }
+            engineResults.put(engine.name(), new EngineWarmUp(iteration, compiled, firstIterationNs / 1_000_000, lastIterationNs / 1_000_000));
+            results = Collections.unmodifiableMap(new LinkedHashMap<>(engineResults));
+            logger.info("[Warm Up] {}: {} iterations, {} ms -> {} ms{}", engine, iteration, firstIterationNs / 1_000_000,
+                    lastIterationNs / 1_000_000, compiled ? "" : " (stopped before the JIT went quiet)");
+        }
+
+        if (cachePrefillLimit > 0) {
+            findPrimesService.findPrimes(cachePrefillLimit, PrimeAlgorithmNames.SMART, true, false);
+            logger.info("[Warm Up] cache filled up to {}", primeCacheService.getCachedLimit());
+        }
+        durationMs = (System.nanoTime() - startNs) / 1_000_000;
+        done = true;
+        logger.info("[Warm Up] done in {} ms", durationMs);
+    }
+
+    @Override
+    public Health health() {
+        if (!done) {
+            return Health.outOfService().withDetail("engines", results).build();
+        }
+        return Health.up()
+                .withDetail("enabled", enabled)
+                .withDetail("durationMs", durationMs)
+                .withDetail("engines", results)
+                .withDetail("cachedLimit", primeCacheService.getCachedLimit())
+                .build();
+    }
+
+    public boolean isDone() {
+        return done;
+    }
+
+    /** An immutable snapshot of the engines warmed up so far, in warm-up order */
+    public Map<String, EngineWarmUp> getResults() {
+        return results;
+    }
+
+    public record EngineWarmUp(int iterations, boolean compiled, long firstIterationMs, long lastIterationMs) {}
+}
@@ -1,13 +1,32 @@
 package com.example.msvcprimefinder.config;
 
+import com.example.msvcprimefinder.serializer.FindPrimesResponseHttpMessageConverter;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
 import org.springframework.http.converter.xml.Jaxb2RootElementHttpMessageConverter;
+import org.springframework.http.converter.xml.MappingJackson2XmlHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
 
 @Configuration
-public class WebConfig {
+public class WebConfig implements WebMvcConfigurer {
     @Bean
     public Jaxb2RootElementHttpMessageConverter jaxb2RootElementHttpMessageConverter() {
         return new Jaxb2RootElementHttpMessageConverter();
     }
+
+    /**
+     * Puts the XML find-primes converter just ahead of Jackson's XML converter rather than at the front of the list,
+     * so JSON keeps coming first for requests that accept any media type.
+     * */
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        int index = 0;
+        while (index < converters.size() && !(converters.get(index) instanceof MappingJackson2XmlHttpMessageConverter)) {
+            index++;
+        }
+        converters.add(index, new FindPrimesResponseHttpMessageConverter());
+    }
 }
@@ -0,0 +1,58 @@
+package com.example.msvcprimefinder.controller;
+
+import com.example.msvcprimefinder.request.FactorizeBatchRequest;
+import com.example.msvcprimefinder.response.FactorizeResponse;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.enums.ParameterIn;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Min;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
+
+@Validated
+public interface FactorizeAPI {
+    @Operation(
+            summary = "Factorize a single value",
+            description = "Returns the prime factorization of a positive 64-bit value. Small values come from a smallest-prime-factor table, larger ones use trial division, Pollard-Brent rho and deterministic Miller-Rabin.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Successfully factorized",
+                            content = {
+                                @Content(mediaType = "application/json", schema = @Schema(implementation = FactorizeResponse.class)),
+                                @Content(mediaType = "application/xml", schema = @Schema(implementation = FactorizeResponse.class))
+                            }
+                    ),
+                    @ApiResponse(responseCode = "400", description = "Invalid input"),
+                    @ApiResponse(responseCode = "500", description = "Server Error")
+            }
+    )
+    @GetMapping("/api/factorize")
+    ResponseEntity<FactorizeResponse> factorize(
+            @Parameter(description = "Positive value to factorize", required = true, in = ParameterIn.QUERY)
+            @RequestParam @Min(1) long value
+    );
+
+    @Operation(
+            summary = "Factorize a batch of values",
+            description = "Factorizes up to 100,000 positive 64-bit values in one request, in the order given.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Successfully factorized",
+                            content = {
+                                @Content(mediaType = "application/json", schema = @Schema(implementation = FactorizeResponse.class)),
+                                @Content(mediaType = "application/xml", schema = @Schema(implementation = FactorizeResponse.class))
+                            }
+                    ),
+                    @ApiResponse(responseCode = "400", description = "Invalid input"),
+                    @ApiResponse(responseCode = "500", description = "Server Error")
+            }
+    )
+    @PostMapping("/api/factorize")
+    ResponseEntity<FactorizeResponse> factorizeBatch(@Valid @RequestBody FactorizeBatchRequest request);
+}
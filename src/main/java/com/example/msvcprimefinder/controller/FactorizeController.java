@@ -0,0 +1,40 @@
+package com.example.msvcprimefinder.controller;
+
+import com.example.msvcprimefinder.request.FactorizeBatchRequest;
+import com.example.msvcprimefinder.response.FactorizeResponse;
+import com.example.msvcprimefinder.service.FactorizeService;
+import com.example.msvcprimefinder.service.FactorizeServiceImpl;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Min;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@Validated
+@RestController
+@RequestMapping("/api")
+public class FactorizeController implements FactorizeAPI {
+
+    private final FactorizeService factorizeService;
+
+    @Autowired
+    public FactorizeController(FactorizeServiceImpl factorizeService) {
+        this.factorizeService = factorizeService;
+    }
+
+    @GetMapping("/factorize")
+    public ResponseEntity<FactorizeResponse> factorize(@RequestParam @Min(1) long value) {
+        return ResponseEntity.ok(factorizeService.factorize(new long[]{value}));
+    }
+
+    @PostMapping("/factorize")
+    public ResponseEntity<FactorizeResponse> factorizeBatch(@Valid @RequestBody FactorizeBatchRequest request) {
+        return ResponseEntity.ok(factorizeService.factorize(request.values()));
+    }
+}
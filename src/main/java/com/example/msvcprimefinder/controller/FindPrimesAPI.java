@@ -1,24 +1,43 @@
 package com.example.msvcprimefinder.controller;
 
 import com.example.msvcprimefinder.model.enums.PrimeAlgorithmNames;
+import com.example.msvcprimefinder.request.FindPrimesBatchRequest;
+import com.example.msvcprimefinder.response.FindPrimesBatchResponse;
 import com.example.msvcprimefinder.response.FindPrimesResponse;
+import com.example.msvcprimefinder.response.NthPrimeResponse;
+import com.example.msvcprimefinder.response.PrimeAnalyticsResponse;
+import com.example.msvcprimefinder.response.PrimesPageResponse;
+import com.example.msvcprimefinder.response.ProgressionPrimesResponse;
+import com.example.msvcprimefinder.response.SieveTuningResponse;
+import com.example.msvcprimefinder.response.SumPrimesResponse;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.enums.ParameterIn;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.context.request.WebRequest;
+import reactor.core.publisher.Flux;
 
 @Validated
 public interface FindPrimesAPI {
     @Operation(
             summary = "Find result up to and including a specified limit",
-            description = "Returns a result containing a list of prime numbers up to the given limit, the specified algorithm and time taken.",
+            description = "Returns a result containing a list of prime numbers up to the given limit, the specified algorithm and time taken. "
+                    + "Responses carry a weak ETag derived from the parameters and Accept header and may be cached for a year, "
+                    + "a matching If-None-Match gets a 304 without computing anything. Requests with deadlineMs or withTimings are not cacheable.",
             responses = {
                     @ApiResponse(responseCode = "200", description = "Successfully retrieved result",
                             content = {
@@ -26,6 +45,7 @@ public interface FindPrimesAPI {
                                 @Content(mediaType = "application/xml", schema = @Schema(implementation = FindPrimesResponse.class))
                             }
                     ),
+                    @ApiResponse(responseCode = "304", description = "Not modified, If-None-Match matched the ETag of this query"),
                     @ApiResponse(responseCode = "400", description = "Invalid input"),
                     @ApiResponse(responseCode = "500", description = "Server Error")
             }
@@ -42,7 +62,197 @@ public interface FindPrimesAPI {
             @RequestParam(required = false, defaultValue = "false") boolean useCache,
 
             @Parameter(description = "Return a dummy list of result instead of the real result", required = false, in = ParameterIn.QUERY)
+            @RequestParam(required = false, defaultValue = "true") boolean withResult,
+
+            @Parameter(description = "Add a timings section with the nanoseconds spent per phase (base primes, segment marking, extraction, merge, cache lookup/save)", required = false, in = ParameterIn.QUERY)
+            @RequestParam(required = false, defaultValue = "false") boolean withTimings,
+
+            @Parameter(description = "Stop sieving after this many milliseconds and return the primes found so far, with partial = true and the value sieved up to (SEGMENTED_SIEVE, SEGMENTED_SIEVE_CONCURRENT, SIEVE_ATKIN or SMART only)", required = false, in = ParameterIn.QUERY)
+            @RequestParam(required = false) @Min(1) Long deadlineMs,
+
+            @Parameter(hidden = true)
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+
+            @Parameter(hidden = true) WebRequest webRequest
+    );
+
+    @Operation(
+            summary = "Answer many limits and ranges from one sieve pass",
+            description = "Accepts up to 1,000 queries, each either a limit or an inclusive from/to range. The service sieves once up to the largest bound into a bit-packed table, then answers every count from prefix popcounts and every list as a slice of that table. Parts are returned in request order.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Successfully retrieved results",
+                            content = {
+                                @Content(mediaType = "application/json", schema = @Schema(implementation = FindPrimesBatchResponse.class)),
+                                @Content(mediaType = "application/xml", schema = @Schema(implementation = FindPrimesBatchResponse.class))
+                            }
+                    ),
+                    @ApiResponse(responseCode = "400", description = "Invalid input"),
+                    @ApiResponse(responseCode = "500", description = "Server Error")
+            }
+    )
+    @PostMapping("/api/find-primes/batch")
+    ResponseEntity<FindPrimesBatchResponse> findPrimesBatch(@Valid @RequestBody FindPrimesBatchRequest request);
+
+    @Operation(
+            summary = "Find the nth prime number",
+            description = "Returns p_n without listing the primes before it. The prime count is computed at a lower bound for p_n and only the short window up to the upper bound is sieved.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Successfully retrieved the nth prime",
+                            content = {
+                                @Content(mediaType = "application/json", schema = @Schema(implementation = NthPrimeResponse.class)),
+                                @Content(mediaType = "application/xml", schema = @Schema(implementation = NthPrimeResponse.class))
+                            }
+                    ),
+                    @ApiResponse(responseCode = "400", description = "Invalid input"),
+                    @ApiResponse(responseCode = "500", description = "Server Error")
+            }
+    )
+    @GetMapping("/api/nth-prime")
+    ResponseEntity<NthPrimeResponse> findNthPrime(
+            @Parameter(description = "1-based index of the prime to find (n = 1 returns 2)", required = true, in = ParameterIn.QUERY)
+            @RequestParam @Min(1) long n
+    );
+
+    @Operation(
+            summary = "Analyse prime patterns up to and including a specified limit",
+            description = "Returns counts of twin primes, prime triplets and quadruplets, the maximal gaps and a gap histogram. Computed in a single segmented sieve pass without holding the primes in memory.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Successfully computed analytics",
+                            content = {
+                                @Content(mediaType = "application/json", schema = @Schema(implementation = PrimeAnalyticsResponse.class)),
+                                @Content(mediaType = "application/xml", schema = @Schema(implementation = PrimeAnalyticsResponse.class))
+                            }
+                    ),
+                    @ApiResponse(responseCode = "400", description = "Invalid input"),
+                    @ApiResponse(responseCode = "500", description = "Server Error")
+            }
+    )
+    @GetMapping("/api/prime-analytics")
+    ResponseEntity<PrimeAnalyticsResponse> analysePrimes(
+            @Parameter(description = "Upper limit (inclusive) for the analysis", required = true, in = ParameterIn.QUERY)
+            @RequestParam @Min(2) long limit,
+
+            @Parameter(description = "Number of occurrences to list for each pattern, counts are always exact", required = false, in = ParameterIn.QUERY)
+            @RequestParam(required = false, defaultValue = "10") @Min(0) int listLimit
+    );
+
+    @Operation(
+            summary = "Sum and count primes up to and including a specified limit",
+            description = "Returns the prime count, the sum of primes and the sum of their squares, and optionally the prime count in every residue class mod a small modulus. Uses the Lucy_Hedgehog method in roughly O(n^(3/4)) time and O(sqrt(n)) memory, so no primes are listed.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Successfully computed sums",
+                            content = {
+                                @Content(mediaType = "application/json", schema = @Schema(implementation = SumPrimesResponse.class)),
+                                @Content(mediaType = "application/xml", schema = @Schema(implementation = SumPrimesResponse.class))
+                            }
+                    ),
+                    @ApiResponse(responseCode = "400", description = "Invalid input"),
+                    @ApiResponse(responseCode = "500", description = "Server Error")
+            }
+    )
+    @GetMapping("/api/sum-primes")
+    ResponseEntity<SumPrimesResponse> sumPrimes(
+            @Parameter(description = "Upper limit (inclusive), up to 10^12", required = true, in = ParameterIn.QUERY)
+            @RequestParam @Min(2) long limit,
+
+            @Parameter(description = "Optional modulus (1 to 64) to count primes in each residue class, for a limit up to 10^11", required = false, in = ParameterIn.QUERY)
+            @RequestParam(required = false) Integer modulus
+    );
+
+    @Operation(
+            summary = "Stream primes in a range as newline delimited JSON",
+            description = "Streams the primes in [from, limit] as one JSON array per sieve segment (half the per-thread L2 cache in numbers, see /api/sieve-tuning). Segments are sieved only as the client reads, so a slow client throttles the computation and memory stays at one segment whatever the range.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Stream of prime chunks",
+                            content = @Content(mediaType = "application/x-ndjson", schema = @Schema(type = "array", implementation = Long.class))
+                    ),
+                    @ApiResponse(responseCode = "400", description = "Invalid input"),
+                    @ApiResponse(responseCode = "500", description = "Server Error")
+            }
+    )
+    @GetMapping(value = "/api/find-primes/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    Flux<long[]> streamPrimes(
+            @Parameter(description = "Upper limit (inclusive), up to 10^14", required = true, in = ParameterIn.QUERY)
+            @RequestParam @Min(2) long limit,
+
+            @Parameter(description = "Lower bound (inclusive)", required = false, in = ParameterIn.QUERY)
+            @RequestParam(required = false, defaultValue = "2") @Min(2) long from
+    );
+
+    @Operation(
+            summary = "Read primes page by page with a cursor",
+            description = "Returns pageSize primes starting at a 0-based prime index, at the first prime >= from, or at the position encoded in nextCursor from the previous page. Pages are copied from the cache by index where it covers them and sieved in a window the size of the page otherwise, so every page costs O(pageSize). nextCursor is null after the last page.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Successfully retrieved the page",
+                            content = {
+                                @Content(mediaType = "application/json", schema = @Schema(implementation = PrimesPageResponse.class)),
+                                @Content(mediaType = "application/xml", schema = @Schema(implementation = PrimesPageResponse.class))
+                            }
+                    ),
+                    @ApiResponse(responseCode = "400", description = "Invalid input"),
+                    @ApiResponse(responseCode = "500", description = "Server Error")
+            }
+    )
+    @GetMapping("/api/find-primes/page")
+    ResponseEntity<PrimesPageResponse> findPrimesPage(
+            @Parameter(description = "nextCursor of the previous page", required = false, in = ParameterIn.QUERY)
+            @RequestParam(required = false) String cursor,
+
+            @Parameter(description = "0-based index of the first prime of the page (index 0 is 2), below pi(10^12) = 37607912018", required = false, in = ParameterIn.QUERY)
+            @RequestParam(required = false) @Min(0) Long index,
+
+            @Parameter(description = "Start the page at the first prime >= from, up to 10^12", required = false, in = ParameterIn.QUERY)
+            @RequestParam(required = false) @Min(2) Long from,
+
+            @Parameter(description = "Number of primes per page, 1 to 100,000", required = false, in = ParameterIn.QUERY)
+            @RequestParam(required = false, defaultValue = "10000") @Min(1) @Max(100_000) int pageSize
+    );
+
+    @Operation(
+            summary = "List or count the primes in an arithmetic progression",
+            description = "Returns the primes p in [from, limit] with p = residue (mod modulus), or only their count with withResult=false. Only that residue class is sieved: each base prime crosses off every p-th term of the progression from a start offset computed once, so the work is about 1 / phi(modulus) of sieving every integer. When residue and modulus share a factor at most one prime (that factor) is in the class.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Successfully retrieved result",
+                            content = {
+                                @Content(mediaType = "application/json", schema = @Schema(implementation = ProgressionPrimesResponse.class)),
+                                @Content(mediaType = "application/xml", schema = @Schema(implementation = ProgressionPrimesResponse.class))
+                            }
+                    ),
+                    @ApiResponse(responseCode = "400", description = "Invalid input"),
+                    @ApiResponse(responseCode = "500", description = "Server Error")
+            }
+    )
+    @GetMapping("/api/find-primes/progression")
+    ResponseEntity<ProgressionPrimesResponse> findPrimesInProgression(
+            @Parameter(description = "Upper limit (inclusive), up to 10^12", required = true, in = ParameterIn.QUERY)
+            @RequestParam @Min(2) long limit,
+
+            @Parameter(description = "Modulus q of the progression", required = true, in = ParameterIn.QUERY)
+            @RequestParam @Min(1) long modulus,
+
+            @Parameter(description = "Residue a of the progression, 0 <= a < modulus", required = true, in = ParameterIn.QUERY)
+            @RequestParam @Min(0) long residue,
+
+            @Parameter(description = "Lower bound (inclusive)", required = false, in = ParameterIn.QUERY)
+            @RequestParam(required = false, defaultValue = "2") @Min(2) long from,
+
+            @Parameter(description = "List the primes, or only count them when false", required = false, in = ParameterIn.QUERY)
             @RequestParam(required = false, defaultValue = "true") boolean withResult
     );
-}
 
+    @Operation(
+            summary = "Show the segment and task sizes picked for each sieve engine",
+            description = "Returns the L1d/L2/L3 sizes read from /sys/devices/system/cpu/cpu0/cache (or the fallback sizes), the worker thread count, the segment size derived from them and, when primefinder.tuner.calibrate=true, the timings of the startup calibration sweep.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Current sizing",
+                            content = {
+                                @Content(mediaType = "application/json", schema = @Schema(implementation = SieveTuningResponse.class)),
+                                @Content(mediaType = "application/xml", schema = @Schema(implementation = SieveTuningResponse.class))
+                            }
+                    ),
+                    @ApiResponse(responseCode = "500", description = "Server Error")
+            }
+    )
+    @GetMapping("/api/sieve-tuning")
+    ResponseEntity<SieveTuningResponse> getSieveTuning();
+}
@@ -1,17 +1,36 @@
 package com.example.msvcprimefinder.controller;
 
 import com.example.msvcprimefinder.model.enums.PrimeAlgorithmNames;
+import com.example.msvcprimefinder.request.FindPrimesBatchRequest;
+import com.example.msvcprimefinder.response.FindPrimesBatchResponse;
 import com.example.msvcprimefinder.response.FindPrimesResponse;
+import com.example.msvcprimefinder.response.NthPrimeResponse;
+import com.example.msvcprimefinder.response.PrimeAnalyticsResponse;
+import com.example.msvcprimefinder.response.PrimesPageResponse;
+import com.example.msvcprimefinder.response.ProgressionPrimesResponse;
+import com.example.msvcprimefinder.response.SieveTuningResponse;
+import com.example.msvcprimefinder.response.SumPrimesResponse;
 import com.example.msvcprimefinder.service.FindPrimesService;
 import com.example.msvcprimefinder.service.FindPrimesServiceImpl;
+import com.example.msvcprimefinder.util.ResultETag;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import reactor.core.publisher.Flux;
 
 @Validated
 @RestController
@@ -30,9 +49,84 @@ public class FindPrimesController implements FindPrimesAPI {
             @RequestParam @Min(2) long limit,
             @RequestParam(required = false, defaultValue = "SMART") PrimeAlgorithmNames algo,
             @RequestParam(required = false, defaultValue = "false") boolean useCache,
+            @RequestParam(required = false, defaultValue = "true") boolean withResult,
+            @RequestParam(required = false, defaultValue = "false") boolean withTimings,
+            @RequestParam(required = false) @Min(1) Long deadlineMs,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            WebRequest webRequest
+    ) {
+        // A deadline makes the result depend on timing, and timings are asked for to measure this very run
+        if (deadlineMs != null || withTimings) {
+            return ResponseEntity.ok(findPrimesService.findPrimes(limit, algo, useCache, withResult, withTimings, deadlineMs));
+        }
+        String eTag = ResultETag.of("find-primes", accept, limit, algo, useCache, withResult);
+        if (webRequest.checkNotModified(eTag)) {
+            return cacheable(ResponseEntity.status(HttpStatus.NOT_MODIFIED), eTag).build();
+        }
+        return cacheable(ResponseEntity.ok(), eTag).body(findPrimesService.findPrimes(limit, algo, useCache, withResult, false, null));
+    }
+
+    @PostMapping("/find-primes/batch")
+    public ResponseEntity<FindPrimesBatchResponse> findPrimesBatch(@Valid @RequestBody FindPrimesBatchRequest request) {
+        return ResponseEntity.ok(findPrimesService.findPrimesBatch(request.queries(), request.withResultOrDefault()));
+    }
+
+    @GetMapping("/nth-prime")
+    public ResponseEntity<NthPrimeResponse> findNthPrime(@RequestParam @Min(1) long n) {
+        return ResponseEntity.ok(findPrimesService.findNthPrime(n));
+    }
+
+    @GetMapping("/prime-analytics")
+    public ResponseEntity<PrimeAnalyticsResponse> analysePrimes(
+            @RequestParam @Min(2) long limit,
+            @RequestParam(required = false, defaultValue = "10") @Min(0) int listLimit
+    ) {
+        return ResponseEntity.ok(findPrimesService.analysePrimes(limit, listLimit));
+    }
+
+    @GetMapping("/sum-primes")
+    public ResponseEntity<SumPrimesResponse> sumPrimes(
+            @RequestParam @Min(2) long limit,
+            @RequestParam(required = false) Integer modulus
+    ) {
+        return ResponseEntity.ok(findPrimesService.sumPrimes(limit, modulus));
+    }
+
+    @GetMapping("/find-primes/page")
+    public ResponseEntity<PrimesPageResponse> findPrimesPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) @Min(0) Long index,
+            @RequestParam(required = false) @Min(2) Long from,
+            @RequestParam(required = false, defaultValue = "10000") @Min(1) @Max(100_000) int pageSize
+    ) {
+        return ResponseEntity.ok(findPrimesService.findPrimesPage(cursor, index, from, pageSize));
+    }
+
+    @GetMapping("/find-primes/progression")
+    public ResponseEntity<ProgressionPrimesResponse> findPrimesInProgression(
+            @RequestParam @Min(2) long limit,
+            @RequestParam @Min(1) long modulus,
+            @RequestParam @Min(0) long residue,
+            @RequestParam(required = false, defaultValue = "2") @Min(2) long from,
             @RequestParam(required = false, defaultValue = "true") boolean withResult
     ) {
-        return ResponseEntity.ok(findPrimesService.findPrimes(limit, algo, useCache, withResult));
+        return ResponseEntity.ok(findPrimesService.findPrimesInProgression(from, limit, modulus, residue, withResult));
+    }
+
+    @GetMapping(value = "/find-primes/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<long[]> streamPrimes(
+            @RequestParam @Min(2) long limit,
+            @RequestParam(required = false, defaultValue = "2") @Min(2) long from
+    ) {
+        return findPrimesService.streamPrimes(from, limit);
     }
-}
 
+    @GetMapping("/sieve-tuning")
+    public ResponseEntity<SieveTuningResponse> getSieveTuning() {
+        return ResponseEntity.ok(findPrimesService.getSieveTuning());
+    }
+
+    private static ResponseEntity.BodyBuilder cacheable(ResponseEntity.BodyBuilder builder, String eTag) {
+        return builder.eTag(eTag).cacheControl(ResultETag.CACHE_CONTROL).varyBy(HttpHeaders.ACCEPT);
+    }
+}
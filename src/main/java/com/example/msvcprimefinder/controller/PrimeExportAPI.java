@@ -0,0 +1,73 @@
+package com.example.msvcprimefinder.controller;
+
+import com.example.msvcprimefinder.model.enums.ExportFormat;
+import com.example.msvcprimefinder.response.PrimesExportResponse;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.enums.ParameterIn;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.constraints.Min;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+
+import java.io.IOException;
+
+@Validated
+public interface PrimeExportAPI {
+    @Operation(
+            summary = "Export all primes in a range to a file",
+            description = "Sieves [from, limit] segment by segment into a file on the server and returns its id and download URL. "
+                    + "BINARY is a 24-byte header followed by one byte per prime (half the gap to the previous one), TEXT is one prime per line. "
+                    + "An identical export that already exists is reused without sieving. The limit must be at most 100,000,000,000.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Export written or reused",
+                            content = {
+                                @Content(mediaType = "application/json", schema = @Schema(implementation = PrimesExportResponse.class)),
+                                @Content(mediaType = "application/xml", schema = @Schema(implementation = PrimesExportResponse.class))
+                            }
+                    ),
+                    @ApiResponse(responseCode = "400", description = "Invalid input, or not enough disk space"),
+                    @ApiResponse(responseCode = "500", description = "Server Error")
+            }
+    )
+    @PostMapping("/api/find-primes/export")
+    ResponseEntity<PrimesExportResponse> export(
+            @Parameter(description = "Upper bound (inclusive)", required = true, in = ParameterIn.QUERY)
+            @RequestParam @Min(2) long limit,
+            @Parameter(description = "Lower bound (inclusive)", in = ParameterIn.QUERY)
+            @RequestParam(required = false, defaultValue = "2") @Min(2) long from,
+            @Parameter(description = "File format", in = ParameterIn.QUERY)
+            @RequestParam(required = false, defaultValue = "BINARY") ExportFormat format
+    );
+
+    @Operation(
+            summary = "Download an export",
+            description = "Sends the export file with sendfile where the server supports it. A single-range Range header gets a 206 with that byte range.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "The whole file",
+                            content = {
+                                @Content(mediaType = "application/octet-stream"),
+                                @Content(mediaType = "text/plain")
+                            }
+                    ),
+                    @ApiResponse(responseCode = "206", description = "The requested byte range"),
+                    @ApiResponse(responseCode = "404", description = "No export with this id"),
+                    @ApiResponse(responseCode = "416", description = "Range not satisfiable")
+            }
+    )
+    @GetMapping("/api/find-primes/export/{id}")
+    void download(
+            @Parameter(description = "Export id returned by the export request", required = true, in = ParameterIn.PATH)
+            @PathVariable String id,
+            @Parameter(hidden = true) HttpServletRequest request,
+            @Parameter(hidden = true) HttpServletResponse response
+    ) throws IOException;
+}
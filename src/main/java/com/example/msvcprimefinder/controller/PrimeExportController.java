@@ -0,0 +1,52 @@
+package com.example.msvcprimefinder.controller;
+
+import com.example.msvcprimefinder.exception.ExportNotFoundException;
+import com.example.msvcprimefinder.model.enums.ExportFormat;
+import com.example.msvcprimefinder.response.PrimesExportResponse;
+import com.example.msvcprimefinder.serializer.FileRangeResponder;
+import com.example.msvcprimefinder.service.PrimeExportService;
+import com.example.msvcprimefinder.service.PrimeExportServiceImpl;
+import com.example.msvcprimefinder.util.type.ExportFile;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.constraints.Min;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+
+@Validated
+@RestController
+@RequestMapping("/api")
+public class PrimeExportController implements PrimeExportAPI {
+
+    private final PrimeExportService primeExportService;
+
+    @Autowired
+    public PrimeExportController(PrimeExportServiceImpl primeExportService) {
+        this.primeExportService = primeExportService;
+    }
+
+    @PostMapping("/find-primes/export")
+    public ResponseEntity<PrimesExportResponse> export(
+            @RequestParam @Min(2) long limit,
+            @RequestParam(required = false, defaultValue = "2") @Min(2) long from,
+            @RequestParam(required = false, defaultValue = "BINARY") ExportFormat format
+    ) {
+        return ResponseEntity.ok(primeExportService.export(from, limit, format));
+    }
+
+    @GetMapping("/find-primes/export/{id}")
+    public void download(@PathVariable String id, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        ExportFile file = primeExportService.findExport(id)
+                .orElseThrow(() -> new ExportNotFoundException("No export with id " + id + ", create it with POST /api/find-primes/export"));
+        FileRangeResponder.send(request, response, file);
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.msvcprimefinder.exception;
+
+public class ConcurrentFactorizationException extends RuntimeException {
+    public ConcurrentFactorizationException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.msvcprimefinder.exception;
+
+public class ExportNotFoundException extends RuntimeException {
+    public ExportNotFoundException(String message) {
+        super(message);
+    }
+}
@@ -6,12 +6,15 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
 
 import java.util.Arrays;
 import java.util.Objects;
+import java.util.stream.Collectors;
 
 @ControllerAdvice
 public class GlobalExceptionHandler {
@@ -19,7 +22,9 @@ public class GlobalExceptionHandler {
     private static final String GENERAL_EXCEPTION_ERROR_MESSAGE = "An unexpected Error has occurred";
     private static final String MAX_LONG_VALUE = "9223372036854775807 (max long value)";
     private static final String CONCURRENCY_ERROR = "Failed to compute prime numbers due to a processing error";
+    private static final String FACTORIZATION_ERROR = "Failed to factorize the values due to a processing error";
     private static final String OUT_OF_MEMORY_ERROR = "Out of memory. Please try a smaller limit.";
+    private static final String MALFORMED_BODY_ERROR = "Malformed request body";
 
     @ExceptionHandler(FindPrimesArgException.class)
     public ResponseEntity<FindPrimesErrorResponse> handleFindPrimesArgException(FindPrimesArgException ex) {
@@ -28,6 +33,12 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
     }
 
+    @ExceptionHandler(ExportNotFoundException.class)
+    public ResponseEntity<FindPrimesErrorResponse> handleExportNotFoundException(ExportNotFoundException ex) {
+        logger.warn("Export not found: " + ex.getMessage());
+        return new ResponseEntity<>(new FindPrimesErrorResponse(ex.getMessage(), HttpStatus.NOT_FOUND.value()), HttpStatus.NOT_FOUND);
+    }
+
     @ExceptionHandler(ConstraintViolationException.class)
     public ResponseEntity<FindPrimesErrorResponse> handleConstraintViolationException(ConstraintViolationException ex) {
         FindPrimesErrorResponse errorResponse = new FindPrimesErrorResponse(ex.getMessage(), HttpStatus.BAD_REQUEST.value());
@@ -35,6 +46,21 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
     }
 
+    @ExceptionHandler(MethodArgumentNotValidException.class)
+    public ResponseEntity<FindPrimesErrorResponse> handleMethodArgumentNotValidException(MethodArgumentNotValidException ex) {
+        String errorMessage = ex.getBindingResult().getFieldErrors().stream()
+                .map(error -> error.getField() + ": " + error.getDefaultMessage())
+                .collect(Collectors.joining(", "));
+        logger.warn("Request body validation failed: " + errorMessage);
+        return new ResponseEntity<>(new FindPrimesErrorResponse(errorMessage, HttpStatus.BAD_REQUEST.value()), HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(HttpMessageNotReadableException.class)
+    public ResponseEntity<FindPrimesErrorResponse> handleHttpMessageNotReadableException(HttpMessageNotReadableException ex) {
+        logger.warn("Unreadable request body: " + ex.getMessage());
+        return new ResponseEntity<>(new FindPrimesErrorResponse(MALFORMED_BODY_ERROR, HttpStatus.BAD_REQUEST.value()), HttpStatus.BAD_REQUEST);
+    }
+
     @ExceptionHandler(ConcurrentSieveException.class)
     public ResponseEntity<FindPrimesErrorResponse> handleConcurrentSieveException(ConcurrentSieveException ex) {
         FindPrimesErrorResponse errorResponse = new FindPrimesErrorResponse(CONCURRENCY_ERROR, HttpStatus.INTERNAL_SERVER_ERROR.value());
@@ -42,13 +68,22 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(errorResponse, HttpStatus.INTERNAL_SERVER_ERROR);
     }
 
+    @ExceptionHandler(ConcurrentFactorizationException.class)
+    public ResponseEntity<FindPrimesErrorResponse> handleConcurrentFactorizationException(ConcurrentFactorizationException ex) {
+        FindPrimesErrorResponse errorResponse = new FindPrimesErrorResponse(FACTORIZATION_ERROR, HttpStatus.INTERNAL_SERVER_ERROR.value());
+        logger.error("Error in concurrent factorization: " + ex.getMessage(), ex.getCause());
+        return new ResponseEntity<>(errorResponse, HttpStatus.INTERNAL_SERVER_ERROR);
+    }
+
     @ExceptionHandler(MethodArgumentTypeMismatchException.class)
     public ResponseEntity<FindPrimesErrorResponse> handleMethodArgumentTypeMismatch(MethodArgumentTypeMismatchException ex) {
         var type = Objects.requireNonNull(ex.getRequiredType(), "Required type should never be null here");
         String errorMessage;
         switch (ex.getName()) {
-            case "algo" -> errorMessage = "Invalid value for '" + ex.getName() + "'. Allowed values are: " + Arrays.toString(type.getEnumConstants());
+            case "algo", "format" -> errorMessage = "Invalid value for '" + ex.getName() + "'. Allowed values are: " + Arrays.toString(type.getEnumConstants());
             case "limit" -> errorMessage = "Invalid value '" + ex.getValue() + "' for parameter '" + ex.getName() + "'. Please provide a valid limit less than or equal to: " + MAX_LONG_VALUE;
+            case "listLimit", "modulus", "value" -> errorMessage = "Invalid value '" + ex.getValue() + "' for parameter '" + ex.getName() + "'. Please provide a valid whole number";
+            case "n" -> errorMessage = "Invalid value '" + ex.getValue() + "' for parameter '" + ex.getName() + "'. Please provide a valid index less than or equal to: " + MAX_LONG_VALUE;
             default -> errorMessage = "Invalid value for '" + ex.getName() + "'. Allowed values are: [true, false]";
         }
         logger.warn("Method argument mismatch: {}", ex.getMessage());
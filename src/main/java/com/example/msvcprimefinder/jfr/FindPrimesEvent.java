@@ -0,0 +1,32 @@
+package com.example.msvcprimefinder.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/** Spans one find-primes call in the service, from input checks to the response being built */
+@Name("com.example.msvcprimefinder.FindPrimes")
+@Label("Find Primes")
+@Category({"Prime Finder"})
+@Description("One find-primes calculation, cache hit or shared in-flight result")
+public class FindPrimesEvent extends Event {
+    @Label("Algorithm")
+    public String algorithm;
+
+    @Label("Limit")
+    public long limit;
+
+    @Label("Number Of Primes")
+    public long numberOfPrimes;
+
+    @Label("Cache Hit")
+    public boolean cacheHit;
+
+    @Label("Shared In-Flight Result")
+    public boolean shared;
+
+    @Label("Stopped By Deadline")
+    public boolean partial;
+}
@@ -0,0 +1,28 @@
+package com.example.msvcprimefinder.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/** Total time one calculation spent in a phase, summed over its segments and threads. Committed after the calculation */
+@Name("com.example.msvcprimefinder.PrimePhase")
+@Label("Prime Phase")
+@Category({"Prime Finder"})
+@Description("Time spent in one phase of a prime calculation, summed over segments")
+public class PrimePhaseEvent extends Event {
+    @Label("Algorithm")
+    public String algorithm;
+
+    @Label("Limit")
+    public long limit;
+
+    @Label("Phase")
+    public String phase;
+
+    @Label("Phase Time")
+    @Timespan(Timespan.NANOSECONDS)
+    public long phaseTime;
+}
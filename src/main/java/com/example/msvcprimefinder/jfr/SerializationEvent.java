@@ -0,0 +1,23 @@
+package com.example.msvcprimefinder.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Spans writing a prime sequence into a response body. Only available through JFR, as the response's
+ * own timings are fixed before it is written.
+ * */
+@Name("com.example.msvcprimefinder.Serialization")
+@Label("Prime Serialization")
+@Category({"Prime Finder"})
+@Description("Writing the primes of a response body")
+public class SerializationEvent extends Event {
+    @Label("Format")
+    public String format;
+
+    @Label("Number Of Primes")
+    public long numberOfPrimes;
+}
@@ -0,0 +1,29 @@
+package com.example.msvcprimefinder.model.enums;
+
+public enum ExportFormat {
+    BINARY("bin", "application/octet-stream"),
+    TEXT("txt", "text/plain");
+
+    private final String extension;
+    private final String contentType;
+
+    ExportFormat(String extension, String contentType) {
+        this.extension = extension;
+        this.contentType = contentType;
+    }
+
+    public String extension() {
+        return extension;
+    }
+
+    public String contentType() {
+        return contentType;
+    }
+
+    public static ExportFormat fromExtension(String extension) {
+        for (ExportFormat format : values()) {
+            if (format.extension.equals(extension)) return format;
+        }
+        throw new IllegalArgumentException("Unknown export extension: " + extension);
+    }
+}
@@ -9,5 +9,6 @@ public enum PrimeAlgorithmNames {
     SEGMENTED_SIEVE_BITSET,
     SEGMENTED_SIEVE_STREAMS,
     SEGMENTED_SIEVE_CONCURRENT,
+    SIEVE_ATKIN,
     SMART
 }
@@ -0,0 +1,10 @@
+package com.example.msvcprimefinder.model.enums;
+
+public enum PrimePhase {
+    BASE_PRIMES,
+    SEGMENT_MARKING,
+    EXTRACTION,
+    MERGE,
+    CACHE_LOOKUP,
+    CACHE_SAVE
+}
@@ -0,0 +1,139 @@
+package com.example.msvcprimefinder.model.primes;
+
+import com.example.msvcprimefinder.util.PrimeEstimator;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.LongConsumer;
+
+/**
+ * Append-only PrimeSequence stored as fixed-size long[] pages of PAGE_SIZE primes (8MB each) with a long index.
+ * No single contiguous allocation is ever larger than one page, so huge results neither hit the 2^31 array
+ * limit nor need one giant block of free heap. Only the last page grows, doubling until it is full.
+ * Not thread-safe while being appended to; safe to share for reading afterwards.
+ * */
+public class ChunkedPrimeSequence implements PrimeSequence {
+    public static final int PAGE_SHIFT = 20;
+    public static final int PAGE_SIZE = 1 << PAGE_SHIFT;
+    private static final int PAGE_MASK = PAGE_SIZE - 1;
+    private static final int MIN_PAGE_CAPACITY = 16;
+
+    private final List<long[]> pages = new ArrayList<>();
+    private long size = 0;
+
+    public static ChunkedPrimeSequence of(long[] primes) {
+        ChunkedPrimeSequence sequence = new ChunkedPrimeSequence();
+        sequence.addAll(primes, 0, primes.length);
+        return sequence;
+    }
+
+    public void add(long prime) {
+        int offset = (int) (size & PAGE_MASK);
+        writablePage(1)[offset] = prime;
+        size++;
+    }
+
+    public void addAll(long[] primes, int from, int length) {
+        while (length > 0) {
+            int offset = (int) (size & PAGE_MASK);
+            int count = Math.min(length, PAGE_SIZE - offset);
+            System.arraycopy(primes, from, writablePage(count), offset, count);
+            size += count;
+            from += count;
+            length -= count;
+        }
+    }
+
+    // Page that size falls into, with room for needed more primes (needed never crosses the page end)
+    private long[] writablePage(int needed) {
+        int pageIndex = (int) (size >>> PAGE_SHIFT);
+        int offset = (int) (size & PAGE_MASK);
+        if (pageIndex == pages.size()) {
+            pages.add(new long[Math.max(MIN_PAGE_CAPACITY, needed)]);
+        }
+        long[] page = pages.get(pageIndex);
+        if (offset + needed > page.length) {
+            long[] grown = new long[Math.min(PAGE_SIZE, Math.max(offset + needed, page.length * 2))];
+            System.arraycopy(page, 0, grown, 0, offset);
+            pages.set(pageIndex, grown);
+            page = grown;
+        }
+        return page;
+    }
+
+    @Override
+    public long size() {
+        return size;
+    }
+
+    @Override
+    public long get(long index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+        }
+        return pages.get((int) (index >>> PAGE_SHIFT))[(int) (index & PAGE_MASK)];
+    }
+
+    @Override
+    public void forEach(long fromIndex, long toIndex, LongConsumer action) {
+        if (fromIndex < 0 || toIndex > size || fromIndex > toIndex) {
+            throw new IndexOutOfBoundsException("Range [" + fromIndex + ", " + toIndex + ") out of bounds for size " + size);
+        }
+        for (long index = fromIndex; index < toIndex; ) {
+            long[] page = pages.get((int) (index >>> PAGE_SHIFT));
+            int offset = (int) (index & PAGE_MASK);
+            int end = (int) Math.min(toIndex - index + offset, PAGE_SIZE);
+            for (int i = offset; i < end; i++) {
+                action.accept(page[i]);
+            }
+            index += end - offset;
+        }
+    }
+
+    @Override
+    public int copyTo(long fromIndex, long[] destination) {
+        int count = (int) Math.max(0, Math.min(destination.length, size - fromIndex));
+        int written = 0;
+        for (long index = fromIndex; written < count; ) {
+            int offset = (int) (index & PAGE_MASK);
+            int length = Math.min(count - written, PAGE_SIZE - offset);
+            System.arraycopy(pages.get((int) (index >>> PAGE_SHIFT)), offset, destination, written, length);
+            written += length;
+            index += length;
+        }
+        return count;
+    }
+
+    // A read-only view rather than another ChunkedPrimeSequence, which could append into the pages it shares
+    @Override
+    public PrimeSequence head(long count) {
+        return slice(0, Math.min(count, size));
+    }
+
+    @Override
+    public long sizeInBytes() {
+        long bytes = 0;
+        for (long[] page : pages) bytes += page.length * 8L;
+        return bytes;
+    }
+
+    @Override
+    public long[] toLongArray(long fromIndex, long toIndex) {
+        if (fromIndex < 0 || toIndex > size || fromIndex > toIndex) {
+            throw new IndexOutOfBoundsException("Range [" + fromIndex + ", " + toIndex + ") out of bounds for size " + size);
+        }
+        if (toIndex - fromIndex > PrimeEstimator.MAX_ARRAY_LENGTH) {
+            throw new IllegalStateException((toIndex - fromIndex) + " primes do not fit in a single array");
+        }
+        long[] result = new long[(int) (toIndex - fromIndex)];
+        int written = 0;
+        for (long index = fromIndex; index < toIndex; ) {
+            int offset = (int) (index & PAGE_MASK);
+            int count = (int) Math.min(toIndex - index, PAGE_SIZE - offset);
+            System.arraycopy(pages.get((int) (index >>> PAGE_SHIFT)), offset, result, written, count);
+            written += count;
+            index += count;
+        }
+        return result;
+    }
+}
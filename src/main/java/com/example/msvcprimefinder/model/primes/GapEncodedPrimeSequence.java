@@ -0,0 +1,156 @@
+package com.example.msvcprimefinder.model.primes;
+
+import com.example.msvcprimefinder.util.PrimeEstimator;
+
+import java.util.function.LongConsumer;
+
+/**
+ * Compact cache form: each prime is stored as half the gap to the previous one in an unsigned byte,
+ * with every SAMPLE_SIZE-th prime kept in full so random access decodes at most SAMPLE_SIZE - 1 gaps.
+ * Costs ~1.13 bytes per prime against 8 for a long[]. Odd primes have even gaps, and the single odd
+ * gap 2 -> 3 is implied, so any run of primes whose gaps stay <= 510 can be encoded (true below ~3x10^11).
+ * Immutable, so head() views share the arrays.
+ * */
+public class GapEncodedPrimeSequence implements PrimeSequence {
+    private static final int SAMPLE_SHIFT = 6;
+    private static final int SAMPLE_SIZE = 1 << SAMPLE_SHIFT;
+    private static final int MAX_GAP = 2 * 255;
+
+    private final byte[] halfGaps;  // halfGaps[i] = (p_i - p_(i-1)) / 2, unused at samples and after 2
+    private final long[] samples;   // samples[k] = p_(k * SAMPLE_SIZE)
+    private final int size;
+
+    private GapEncodedPrimeSequence(byte[] halfGaps, long[] samples, int size) {
+        this.halfGaps = halfGaps;
+        this.samples = samples;
+        this.size = size;
+    }
+
+    public static long estimateBytes(long count) {
+        return count + ((count >>> SAMPLE_SHIFT) + 1) * 8;
+    }
+
+    /** Encodes primes, or returns null if a gap is too wide for a byte or there are too many primes for one array */
+    public static GapEncodedPrimeSequence tryEncode(PrimeSequence primes) {
+        if (primes.size() > PrimeEstimator.MAX_ARRAY_LENGTH) {
+            return null;
+        }
+        int size = (int) primes.size();
+        byte[] halfGaps = new byte[size];
+        long[] samples = new long[(size + SAMPLE_SIZE - 1) >>> SAMPLE_SHIFT];
+        long[] previous = {0};
+        int[] index = {0};
+        boolean[] encodable = {true};
+        primes.forEach(prime -> {
+            int i = index[0]++;
+            if ((i & (SAMPLE_SIZE - 1)) == 0) {
+                samples[i >>> SAMPLE_SHIFT] = prime;
+            } else if (previous[0] != 2) {
+                long gap = prime - previous[0];
+                if (gap > MAX_GAP || (gap & 1) != 0) encodable[0] = false;
+                halfGaps[i] = (byte) (gap >>> 1);
+            }
+            previous[0] = prime;
+        });
+        return encodable[0] ? new GapEncodedPrimeSequence(halfGaps, samples, size) : null;
+    }
+
+    private static long next(long prime, byte halfGap) {
+        return prime == 2 ? 3 : prime + 2L * (halfGap & 0xFF);
+    }
+
+    @Override
+    public long size() {
+        return size;
+    }
+
+    @Override
+    public long get(long index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+        }
+        int i = (int) index;
+        int sampleStart = i & ~(SAMPLE_SIZE - 1);
+        long prime = samples[i >>> SAMPLE_SHIFT];
+        for (int j = sampleStart + 1; j <= i; j++) {
+            prime = next(prime, halfGaps[j]);
+        }
+        return prime;
+    }
+
+    @Override
+    public void forEach(long fromIndex, long toIndex, LongConsumer action) {
+        if (fromIndex < 0 || toIndex > size || fromIndex > toIndex) {
+            throw new IndexOutOfBoundsException("Range [" + fromIndex + ", " + toIndex + ") out of bounds for size " + size);
+        }
+        if (fromIndex == toIndex) return;
+        long prime = get(fromIndex);
+        action.accept(prime);
+        for (int i = (int) fromIndex + 1; i < toIndex; i++) {
+            prime = (i & (SAMPLE_SIZE - 1)) == 0 ? samples[i >>> SAMPLE_SHIFT] : next(prime, halfGaps[i]);
+            action.accept(prime);
+        }
+    }
+
+    @Override
+    public long[] toLongArray(long fromIndex, long toIndex) {
+        if (fromIndex < 0 || toIndex > size || fromIndex > toIndex) {
+            throw new IndexOutOfBoundsException("Range [" + fromIndex + ", " + toIndex + ") out of bounds for size " + size);
+        }
+        long[] result = new long[(int) (toIndex - fromIndex)];
+        if (result.length == 0) return result;
+        long prime = get(fromIndex);
+        result[0] = prime;
+        for (int i = (int) fromIndex + 1; i < toIndex; i++) {
+            prime = (i & (SAMPLE_SIZE - 1)) == 0 ? samples[i >>> SAMPLE_SHIFT] : next(prime, halfGaps[i]);
+            result[i - (int) fromIndex] = prime;
+        }
+        return result;
+    }
+
+    @Override
+    public int copyTo(long fromIndex, long[] destination) {
+        int count = (int) Math.max(0, Math.min(destination.length, size - fromIndex));
+        if (count == 0) return 0;
+        long prime = get(fromIndex);
+        destination[0] = prime;
+        for (int i = (int) fromIndex + 1, j = 1; j < count; i++, j++) {
+            prime = (i & (SAMPLE_SIZE - 1)) == 0 ? samples[i >>> SAMPLE_SHIFT] : next(prime, halfGaps[i]);
+            destination[j] = prime;
+        }
+        return count;
+    }
+
+    @Override
+    public PrimeSequence head(long count) {
+        return new GapEncodedPrimeSequence(halfGaps, samples, (int) Math.min(count, size));
+    }
+
+    @Override
+    public long sizeInBytes() {
+        return halfGaps.length + samples.length * 8L;
+    }
+
+    /** Binary search over the samples, then decodes forward within one sample block */
+    @Override
+    public long countUpTo(long value) {
+        if (size == 0 || samples[0] > value) return 0;
+        int low = 0;
+        int high = (size - 1) >>> SAMPLE_SHIFT;   // last sample inside size
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (samples[mid] <= value) low = mid;
+            else high = mid - 1;
+        }
+        int i = low << SAMPLE_SHIFT;
+        long prime = samples[low];
+        int blockEnd = Math.min(size, i + SAMPLE_SIZE);
+        while (i + 1 < blockEnd) {
+            long following = next(prime, halfGaps[i + 1]);
+            if (following > value) break;
+            prime = following;
+            i++;
+        }
+        return i + 1;
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.msvcprimefinder.model.primes;
+
+import java.util.Arrays;
+import java.util.function.LongConsumer;
+
+/**
+ * Primes below 2^31 held as the first size entries of an int[], half the heap of a long[].
+ * The array may be longer than size (engines fill an estimate-sized buffer), and is never written after construction.
+ * */
+public class IntArrayPrimeSequence implements PrimeSequence {
+    static final IntArrayPrimeSequence EMPTY = new IntArrayPrimeSequence(new int[0], 0);
+
+    private final int[] primes;
+    private final int size;
+
+    public IntArrayPrimeSequence(int[] primes, int size) {
+        this.primes = primes;
+        this.size = size;
+    }
+
+    @Override
+    public long size() {
+        return size;
+    }
+
+    @Override
+    public long get(long index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+        }
+        return primes[(int) index];
+    }
+
+    @Override
+    public void forEach(long fromIndex, long toIndex, LongConsumer action) {
+        if (fromIndex < 0 || toIndex > size || fromIndex > toIndex) {
+            throw new IndexOutOfBoundsException("Range [" + fromIndex + ", " + toIndex + ") out of bounds for size " + size);
+        }
+        for (int i = (int) fromIndex; i < toIndex; i++) {
+            action.accept(primes[i]);
+        }
+    }
+
+    @Override
+    public long[] toLongArray(long fromIndex, long toIndex) {
+        if (fromIndex < 0 || toIndex > size || fromIndex > toIndex) {
+            throw new IndexOutOfBoundsException("Range [" + fromIndex + ", " + toIndex + ") out of bounds for size " + size);
+        }
+        long[] result = new long[(int) (toIndex - fromIndex)];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = primes[(int) fromIndex + i];
+        }
+        return result;
+    }
+
+    @Override
+    public int copyTo(long fromIndex, long[] destination) {
+        int count = (int) Math.max(0, Math.min(destination.length, size - fromIndex));
+        for (int i = 0; i < count; i++) {
+            destination[i] = primes[(int) fromIndex + i];
+        }
+        return count;
+    }
+
+    @Override
+    public PrimeSequence head(long count) {
+        return new IntArrayPrimeSequence(primes, (int) Math.min(count, size));
+    }
+
+    @Override
+    public long sizeInBytes() {
+        return primes.length * 4L;
+    }
+
+    @Override
+    public long countUpTo(long value) {
+        if (value >= Integer.MAX_VALUE) return size;
+        int index = Arrays.binarySearch(primes, 0, size, (int) value);
+        return index >= 0 ? index + 1 : -index - 1;
+    }
+}
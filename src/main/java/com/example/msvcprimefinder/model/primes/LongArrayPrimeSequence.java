@@ -0,0 +1,73 @@
+package com.example.msvcprimefinder.model.primes;
+
+import java.util.Arrays;
+import java.util.function.LongConsumer;
+
+/** Adapter for the engines that still return a long[], holding the first size entries without copying */
+public class LongArrayPrimeSequence implements PrimeSequence {
+    private final long[] primes;
+    private final int size;
+
+    public LongArrayPrimeSequence(long[] primes, int size) {
+        this.primes = primes;
+        this.size = size;
+    }
+
+    public static LongArrayPrimeSequence of(long[] primes) {
+        return new LongArrayPrimeSequence(primes, primes.length);
+    }
+
+    @Override
+    public long size() {
+        return size;
+    }
+
+    @Override
+    public long get(long index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+        }
+        return primes[(int) index];
+    }
+
+    @Override
+    public void forEach(long fromIndex, long toIndex, LongConsumer action) {
+        if (fromIndex < 0 || toIndex > size || fromIndex > toIndex) {
+            throw new IndexOutOfBoundsException("Range [" + fromIndex + ", " + toIndex + ") out of bounds for size " + size);
+        }
+        for (int i = (int) fromIndex; i < toIndex; i++) {
+            action.accept(primes[i]);
+        }
+    }
+
+    @Override
+    public long[] toLongArray(long fromIndex, long toIndex) {
+        if (fromIndex < 0 || toIndex > size || fromIndex > toIndex) {
+            throw new IndexOutOfBoundsException("Range [" + fromIndex + ", " + toIndex + ") out of bounds for size " + size);
+        }
+        return Arrays.copyOfRange(primes, (int) fromIndex, (int) toIndex);
+    }
+
+    @Override
+    public int copyTo(long fromIndex, long[] destination) {
+        int count = (int) Math.max(0, Math.min(destination.length, size - fromIndex));
+        System.arraycopy(primes, (int) fromIndex, destination, 0, count);
+        return count;
+    }
+
+    @Override
+    public PrimeSequence head(long count) {
+        return new LongArrayPrimeSequence(primes, (int) Math.min(count, size));
+    }
+
+    @Override
+    public long sizeInBytes() {
+        return primes.length * 8L;
+    }
+
+    @Override
+    public long countUpTo(long value) {
+        int index = Arrays.binarySearch(primes, 0, size, value);
+        return index >= 0 ? index + 1 : -index - 1;
+    }
+}
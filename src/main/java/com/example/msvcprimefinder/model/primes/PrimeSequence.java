@@ -0,0 +1,66 @@
+package com.example.msvcprimefinder.model.primes;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import java.util.function.LongConsumer;
+
+/**
+ * Read-only, increasing sequence of primes indexed by long, so it can hold more than 2^31 primes.
+ * Implementations store primitives only, never boxed Longs, in the narrowest form that fits:
+ * int[] below 2^31, long[] pages above, and byte gaps for the in-memory cache.
+ * Serialized as a plain array of numbers whatever the representation.
+ * */
+@JsonSerialize(using = PrimeSequenceSerializer.class)
+public interface PrimeSequence {
+    long size();
+
+    long get(long index);
+
+    /** Calls action for the primes at [fromIndex, toIndex) in order, decoding straight from the storage */
+    void forEach(long fromIndex, long toIndex, LongConsumer action);
+
+    /** Copies [fromIndex, toIndex) into a new array, which must fit within PrimeEstimator.MAX_ARRAY_LENGTH */
+    long[] toLongArray(long fromIndex, long toIndex);
+
+    /** Copies primes from fromIndex into destination until it is full or the sequence ends, returning the number copied */
+    int copyTo(long fromIndex, long[] destination);
+
+    /** The first count primes, sharing storage with this sequence where the representation allows */
+    PrimeSequence head(long count);
+
+    /** Read-only view of the primes at [fromIndex, toIndex), sharing storage with this sequence */
+    default PrimeSequence slice(long fromIndex, long toIndex) {
+        return PrimeSequenceSlice.of(this, fromIndex, toIndex);
+    }
+
+    /** Heap used by the primitive storage, for memory budgeting */
+    long sizeInBytes();
+
+    static PrimeSequence empty() {
+        return IntArrayPrimeSequence.EMPTY;
+    }
+
+    default void forEach(LongConsumer action) {
+        forEach(0, size(), action);
+    }
+
+    default long[] toLongArray() {
+        return toLongArray(0, size());
+    }
+
+    default boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /** Number of primes <= value, found by binary search since the sequence is increasing */
+    default long countUpTo(long value) {
+        long low = 0;
+        long high = size();
+        while (low < high) {
+            long mid = (low + high) >>> 1;
+            if (get(mid) <= value) low = mid + 1;
+            else high = mid;
+        }
+        return low;
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.msvcprimefinder.model.primes;
+
+import com.example.msvcprimefinder.util.PrimeEstimator;
+
+/**
+ * Collects primes in increasing order into the narrowest PrimeSequence for the limit:
+ * an estimate-sized int[] below 2^31, ChunkedPrimeSequence pages above.
+ * */
+public class PrimeSequenceBuilder {
+    private final int[] ints;   // null when the limit needs longs
+    private int intCount = 0;
+    private final ChunkedPrimeSequence longs;
+
+    private PrimeSequenceBuilder(long limit) {
+        if (limit <= Integer.MAX_VALUE) {
+            this.ints = new int[PrimeEstimator.estimatePrimesArrayLength(limit)];
+            this.longs = null;
+        } else {
+            this.ints = null;
+            this.longs = new ChunkedPrimeSequence();
+        }
+    }
+
+    public static PrimeSequenceBuilder forLimit(long limit) {
+        return new PrimeSequenceBuilder(limit);
+    }
+
+    public void add(long prime) {
+        if (ints != null) {
+            ints[intCount++] = (int) prime;
+        } else {
+            longs.add(prime);
+        }
+    }
+
+    public PrimeSequence build() {
+        return ints != null ? new IntArrayPrimeSequence(ints, intCount) : longs;
+    }
+}
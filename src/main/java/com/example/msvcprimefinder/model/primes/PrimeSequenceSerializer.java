@@ -0,0 +1,50 @@
+package com.example.msvcprimefinder.model.primes;
+
+import com.example.msvcprimefinder.jfr.SerializationEvent;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.fasterxml.jackson.dataformat.xml.ser.ToXmlGenerator;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Writes a PrimeSequence straight from its primitive storage, without widening to a long[] first.
+ * JSON gets a plain array; XML gets the same shape as a wrapped long[]: <result><prime>2</prime>...</result>.
+ * */
+public class PrimeSequenceSerializer extends StdSerializer<PrimeSequence> {
+    private static final String XML_ELEMENT_NAME = "prime";
+
+    public PrimeSequenceSerializer() {
+        super(PrimeSequence.class);
+    }
+
+    @Override
+    public void serialize(PrimeSequence primes, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        boolean xml = gen instanceof ToXmlGenerator;
+        SerializationEvent event = new SerializationEvent();
+        event.begin();
+        if (xml) gen.writeStartObject();
+        else gen.writeStartArray(primes, (int) Math.min(primes.size(), Integer.MAX_VALUE));
+        try {
+            primes.forEach(prime -> {
+                try {
+                    if (xml) gen.writeFieldName(XML_ELEMENT_NAME);
+                    gen.writeNumber(prime);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        if (xml) gen.writeEndObject();
+        else gen.writeEndArray();
+        if (event.shouldCommit()) {
+            event.format = xml ? "JACKSON_XML" : "JACKSON_JSON";
+            event.numberOfPrimes = primes.size();
+            event.commit();
+        }
+    }
+}
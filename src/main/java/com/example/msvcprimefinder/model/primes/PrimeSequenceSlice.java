@@ -0,0 +1,90 @@
+package com.example.msvcprimefinder.model.primes;
+
+import java.util.function.LongConsumer;
+
+/**
+ * Read-only window of size primes starting at offset in another sequence, without copying anything.
+ * Every call maps to the same call on the base with shifted indexes, so a slice of the gap-encoded cache decodes straight
+ * from the cached bytes and is serialized like any other PrimeSequence. Slices of slices collapse to one slice of the base.
+ * The base must no longer be appended to.
+ * */
+public final class PrimeSequenceSlice implements PrimeSequence {
+    private final PrimeSequence base;
+    private final long offset;
+    private final long size;
+
+    private PrimeSequenceSlice(PrimeSequence base, long offset, long size) {
+        this.base = base;
+        this.offset = offset;
+        this.size = size;
+    }
+
+    static PrimeSequence of(PrimeSequence base, long fromIndex, long toIndex) {
+        if (fromIndex < 0 || toIndex > base.size() || fromIndex > toIndex) {
+            throw new IndexOutOfBoundsException("Range [" + fromIndex + ", " + toIndex + ") out of bounds for size " + base.size());
+        }
+        if (base instanceof PrimeSequenceSlice slice) {
+            return new PrimeSequenceSlice(slice.base, slice.offset + fromIndex, toIndex - fromIndex);
+        }
+        return new PrimeSequenceSlice(base, fromIndex, toIndex - fromIndex);
+    }
+
+    @Override
+    public long size() {
+        return size;
+    }
+
+    @Override
+    public long get(long index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+        }
+        return base.get(offset + index);
+    }
+
+    @Override
+    public void forEach(long fromIndex, long toIndex, LongConsumer action) {
+        checkRange(fromIndex, toIndex);
+        base.forEach(offset + fromIndex, offset + toIndex, action);
+    }
+
+    @Override
+    public long[] toLongArray(long fromIndex, long toIndex) {
+        checkRange(fromIndex, toIndex);
+        return base.toLongArray(offset + fromIndex, offset + toIndex);
+    }
+
+    @Override
+    public int copyTo(long fromIndex, long[] destination) {
+        long count = Math.max(0, Math.min(destination.length, size - fromIndex));
+        if (count == destination.length) {
+            return base.copyTo(offset + fromIndex, destination);
+        }
+        // The base would carry on past the end of the slice
+        int[] written = {0};
+        base.forEach(offset + fromIndex, offset + fromIndex + count, prime -> destination[written[0]++] = prime);
+        return (int) count;
+    }
+
+    @Override
+    public PrimeSequence head(long count) {
+        return slice(0, Math.min(count, size));
+    }
+
+    /** The base's storage, which this view keeps reachable */
+    @Override
+    public long sizeInBytes() {
+        return base.sizeInBytes();
+    }
+
+    @Override
+    public long countUpTo(long value) {
+        return Math.max(0, Math.min(size, base.countUpTo(value) - offset));
+    }
+
+    private void checkRange(long fromIndex, long toIndex) {
+        if (fromIndex < 0 || toIndex > size || fromIndex > toIndex) {
+            throw new IndexOutOfBoundsException("Range [" + fromIndex + ", " + toIndex + ") out of bounds for size " + size);
+        }
+    }
+}
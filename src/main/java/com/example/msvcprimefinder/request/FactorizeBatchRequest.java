@@ -0,0 +1,8 @@
+package com.example.msvcprimefinder.request;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+public record FactorizeBatchRequest(
+        @NotNull @Size(min = 1, max = 100_000) long[] values
+) {}
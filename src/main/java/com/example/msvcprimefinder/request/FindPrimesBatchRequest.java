@@ -0,0 +1,24 @@
+package com.example.msvcprimefinder.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public record FindPrimesBatchRequest(
+        @NotNull @Size(min = 1, max = 1_000) List<@NotNull @Valid PrimeQuery> queries,
+        Boolean withResult
+) {
+    public boolean withResultOrDefault() {
+        return withResult == null || withResult;
+    }
+
+    /** Either a limit, meaning the range [2, limit], or an explicit inclusive range [from, to] */
+    public record PrimeQuery(
+            @Min(2) Long limit,
+            @Min(0) Long from,
+            @Min(2) Long to
+    ) {}
+}
@@ -0,0 +1,34 @@
+package com.example.msvcprimefinder.response;
+
+import com.fasterxml.jackson.dataformat.xml.annotation.JacksonXmlElementWrapper;
+import com.fasterxml.jackson.dataformat.xml.annotation.JacksonXmlProperty;
+import com.fasterxml.jackson.dataformat.xml.annotation.JacksonXmlRootElement;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@JacksonXmlRootElement(localName = "FactorizeResponse")
+public record FactorizeResponse(
+        @JacksonXmlElementWrapper(localName = "factorizations")
+        @JacksonXmlProperty(localName = "factorization") List<Factorization> factorizations,
+        @JacksonXmlProperty(localName = "executionTimeMs") long executionTimeMs,
+        @JacksonXmlProperty(localName = "executionTimeNs") long executionTimeNs,
+        @JacksonXmlProperty(localName = "timestamp") LocalDateTime timestamp
+) {
+    public FactorizeResponse(List<Factorization> factorizations, long executionTimeMs, long executionTimeNs) {
+        this(factorizations, executionTimeMs, executionTimeNs, LocalDateTime.now());
+    }
+
+    /** factors are in increasing order of prime, value = product of prime^exponent (empty for 1) */
+    public record Factorization(
+            @JacksonXmlProperty(localName = "value") long value,
+            @JacksonXmlProperty(localName = "prime") boolean prime,
+            @JacksonXmlElementWrapper(localName = "factors")
+            @JacksonXmlProperty(localName = "factor") List<PrimePower> factors
+    ) {}
+
+    public record PrimePower(
+            @JacksonXmlProperty(localName = "prime") long prime,
+            @JacksonXmlProperty(localName = "exponent") int exponent
+    ) {}
+}
@@ -0,0 +1,32 @@
+package com.example.msvcprimefinder.response;
+
+import com.example.msvcprimefinder.model.primes.PrimeSequence;
+import com.fasterxml.jackson.dataformat.xml.annotation.JacksonXmlElementWrapper;
+import com.fasterxml.jackson.dataformat.xml.annotation.JacksonXmlProperty;
+import com.fasterxml.jackson.dataformat.xml.annotation.JacksonXmlRootElement;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@JacksonXmlRootElement(localName = "FindPrimesBatchResponse")
+public record FindPrimesBatchResponse(
+        @JacksonXmlProperty(localName = "sievedUpTo") long sievedUpTo,
+        @JacksonXmlElementWrapper(localName = "parts")
+        @JacksonXmlProperty(localName = "part") List<Part> parts,
+        @JacksonXmlProperty(localName = "executionTimeMs") long executionTimeMs,
+        @JacksonXmlProperty(localName = "executionTimeNs") long executionTimeNs,
+        @JacksonXmlProperty(localName = "timestamp") LocalDateTime timestamp
+) {
+    public FindPrimesBatchResponse(long sievedUpTo, List<Part> parts, long executionTimeMs, long executionTimeNs) {
+        this(sievedUpTo, parts, executionTimeMs, executionTimeNs, LocalDateTime.now());
+    }
+
+    /** Answer to one query of the batch, in request order, covering the inclusive range [from, to] */
+    public record Part(
+            @JacksonXmlProperty(localName = "from") long from,
+            @JacksonXmlProperty(localName = "to") long to,
+            @JacksonXmlProperty(localName = "numberOfPrimes") long numberOfPrimes,
+            // A view over the cache or the sieved bitmap's primes, serialized as <result><prime>2</prime>...</result>
+            @JacksonXmlProperty(localName = "result") PrimeSequence result
+    ) {}
+}
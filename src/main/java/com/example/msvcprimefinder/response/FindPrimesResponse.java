@@ -1,23 +1,46 @@
 package com.example.msvcprimefinder.response;
 
-import com.fasterxml.jackson.dataformat.xml.annotation.JacksonXmlElementWrapper;
+import com.example.msvcprimefinder.model.primes.PrimeSequence;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.dataformat.xml.annotation.JacksonXmlProperty;
 import com.fasterxml.jackson.dataformat.xml.annotation.JacksonXmlRootElement;
 
 import java.time.LocalDateTime;
+import java.util.Map;
 
 @JacksonXmlRootElement(localName = "FindPrimesResponse")
 public record FindPrimesResponse(
-        @JacksonXmlElementWrapper(localName = "result")
-        @JacksonXmlProperty(localName = "prime") long[] result,
+        // Serialized by PrimeSequenceSerializer as <result><prime>2</prime>...</result>
+        @JacksonXmlProperty(localName = "result") PrimeSequence result,
         @JacksonXmlProperty(localName = "numberOfPrimes") long numberOfPrimes,
         @JacksonXmlProperty(localName = "executionTimeMs") long executionTimeMs,
         @JacksonXmlProperty(localName = "executionTimeNs") long executionTimeNs,
         @JacksonXmlProperty(localName = "algorithmName") String algorithmName,
         @JacksonXmlProperty(localName = "useCache") boolean useCache,
-        @JacksonXmlProperty(localName = "timestamp") LocalDateTime timestamp
+        @JacksonXmlProperty(localName = "timestamp") LocalDateTime timestamp,
+        // Nanoseconds per PrimePhase, only present when requested with withTimings=true
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        @JacksonXmlProperty(localName = "timings") Map<String, Long> timings,
+        // Only present when a deadlineMs was given. partial means the deadline cut the calculation short,
+        // and result then holds every prime <= sievedUpTo
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        @JacksonXmlProperty(localName = "partial") Boolean partial,
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        @JacksonXmlProperty(localName = "sievedUpTo") Long sievedUpTo
 ) {
-    public FindPrimesResponse(long[] result, long numberOfPrimes, long executionTimeMs, long executionTimeNs, String algorithmName, boolean useCache) {
-        this(result, numberOfPrimes, executionTimeMs, executionTimeNs, algorithmName, useCache, LocalDateTime.now());
+    public FindPrimesResponse(PrimeSequence result, long numberOfPrimes, long executionTimeMs, long executionTimeNs, String algorithmName, boolean useCache) {
+        this(result, numberOfPrimes, executionTimeMs, executionTimeNs, algorithmName, useCache, LocalDateTime.now(), null, null, null);
+    }
+
+    public FindPrimesResponse(PrimeSequence result, long numberOfPrimes, long executionTimeMs, long executionTimeNs, String algorithmName, boolean useCache, LocalDateTime timestamp) {
+        this(result, numberOfPrimes, executionTimeMs, executionTimeNs, algorithmName, useCache, timestamp, null, null, null);
+    }
+
+    public FindPrimesResponse withTimings(Map<String, Long> timings) {
+        return new FindPrimesResponse(result, numberOfPrimes, executionTimeMs, executionTimeNs, algorithmName, useCache, timestamp, timings, partial, sievedUpTo);
+    }
+
+    public FindPrimesResponse withDeadlineOutcome(boolean partial, long sievedUpTo) {
+        return new FindPrimesResponse(result, numberOfPrimes, executionTimeMs, executionTimeNs, algorithmName, useCache, timestamp, timings, partial, sievedUpTo);
     }
 }
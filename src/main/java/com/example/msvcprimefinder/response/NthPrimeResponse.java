@@ -0,0 +1,21 @@
+package com.example.msvcprimefinder.response;
+
+import com.fasterxml.jackson.dataformat.xml.annotation.JacksonXmlProperty;
+import com.fasterxml.jackson.dataformat.xml.annotation.JacksonXmlRootElement;
+
+import java.time.LocalDateTime;
+
+@JacksonXmlRootElement(localName = "NthPrimeResponse")
+public record NthPrimeResponse(
+        @JacksonXmlProperty(localName = "n") long n,
+        @JacksonXmlProperty(localName = "prime") long prime,
+        @JacksonXmlProperty(localName = "windowLow") long windowLow,
+        @JacksonXmlProperty(localName = "windowHigh") long windowHigh,
+        @JacksonXmlProperty(localName = "executionTimeMs") long executionTimeMs,
+        @JacksonXmlProperty(localName = "executionTimeNs") long executionTimeNs,
+        @JacksonXmlProperty(localName = "timestamp") LocalDateTime timestamp
+) {
+    public NthPrimeResponse(long n, long prime, long windowLow, long windowHigh, long executionTimeMs, long executionTimeNs) {
+        this(n, prime, windowLow, windowHigh, executionTimeMs, executionTimeNs, LocalDateTime.now());
+    }
+}
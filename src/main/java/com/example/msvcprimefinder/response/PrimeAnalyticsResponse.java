@@ -0,0 +1,50 @@
+package com.example.msvcprimefinder.response;
+
+import com.fasterxml.jackson.dataformat.xml.annotation.JacksonXmlElementWrapper;
+import com.fasterxml.jackson.dataformat.xml.annotation.JacksonXmlProperty;
+import com.fasterxml.jackson.dataformat.xml.annotation.JacksonXmlRootElement;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@JacksonXmlRootElement(localName = "PrimeAnalyticsResponse")
+public record PrimeAnalyticsResponse(
+        @JacksonXmlProperty(localName = "limit") long limit,
+        @JacksonXmlProperty(localName = "numberOfPrimes") long numberOfPrimes,
+        @JacksonXmlProperty(localName = "twinPrimes") PatternSummary twinPrimes,
+        @JacksonXmlProperty(localName = "primeTriplets") PatternSummary primeTriplets,
+        @JacksonXmlProperty(localName = "primeQuadruplets") PatternSummary primeQuadruplets,
+        @JacksonXmlProperty(localName = "maxGap") Gap maxGap,
+        @JacksonXmlElementWrapper(localName = "maximalGaps")
+        @JacksonXmlProperty(localName = "gap") List<Gap> maximalGaps,
+        @JacksonXmlElementWrapper(localName = "gapHistogram")
+        @JacksonXmlProperty(localName = "bucket") List<GapCount> gapHistogram,
+        @JacksonXmlProperty(localName = "executionTimeMs") long executionTimeMs,
+        @JacksonXmlProperty(localName = "executionTimeNs") long executionTimeNs,
+        @JacksonXmlProperty(localName = "timestamp") LocalDateTime timestamp
+) {
+    public PrimeAnalyticsResponse(long limit, long numberOfPrimes, PatternSummary twinPrimes, PatternSummary primeTriplets,
+                                  PatternSummary primeQuadruplets, Gap maxGap, List<Gap> maximalGaps, List<GapCount> gapHistogram,
+                                  long executionTimeMs, long executionTimeNs) {
+        this(limit, numberOfPrimes, twinPrimes, primeTriplets, primeQuadruplets, maxGap, maximalGaps, gapHistogram,
+                executionTimeMs, executionTimeNs, LocalDateTime.now());
+    }
+
+    /** count is exact, occurrences only holds the first listLimit matches in increasing order */
+    public record PatternSummary(
+            @JacksonXmlProperty(localName = "count") long count,
+            @JacksonXmlElementWrapper(localName = "occurrences")
+            @JacksonXmlProperty(localName = "tuple") List<long[]> occurrences
+    ) {}
+
+    /** A gap of size gap between start and the next prime, start + gap */
+    public record Gap(
+            @JacksonXmlProperty(localName = "gap") long gap,
+            @JacksonXmlProperty(localName = "start") long start
+    ) {}
+
+    public record GapCount(
+            @JacksonXmlProperty(localName = "gap") int gap,
+            @JacksonXmlProperty(localName = "count") long count
+    ) {}
+}
@@ -0,0 +1,28 @@
+package com.example.msvcprimefinder.response;
+
+import com.example.msvcprimefinder.model.enums.ExportFormat;
+import com.fasterxml.jackson.dataformat.xml.annotation.JacksonXmlProperty;
+import com.fasterxml.jackson.dataformat.xml.annotation.JacksonXmlRootElement;
+
+import java.time.LocalDateTime;
+
+@JacksonXmlRootElement(localName = "PrimesExportResponse")
+public record PrimesExportResponse(
+        @JacksonXmlProperty(localName = "id") String id,
+        @JacksonXmlProperty(localName = "format") ExportFormat format,
+        @JacksonXmlProperty(localName = "from") long from,
+        @JacksonXmlProperty(localName = "limit") long limit,
+        @JacksonXmlProperty(localName = "numberOfPrimes") long numberOfPrimes,
+        @JacksonXmlProperty(localName = "sizeBytes") long sizeBytes,
+        // true when an identical export already existed on disk or was being written by another request
+        @JacksonXmlProperty(localName = "reused") boolean reused,
+        @JacksonXmlProperty(localName = "downloadUrl") String downloadUrl,
+        @JacksonXmlProperty(localName = "executionTimeMs") long executionTimeMs,
+        @JacksonXmlProperty(localName = "executionTimeNs") long executionTimeNs,
+        @JacksonXmlProperty(localName = "timestamp") LocalDateTime timestamp
+) {
+    public PrimesExportResponse(String id, ExportFormat format, long from, long limit, long numberOfPrimes, long sizeBytes,
+                                boolean reused, String downloadUrl, long executionTimeMs, long executionTimeNs) {
+        this(id, format, from, limit, numberOfPrimes, sizeBytes, reused, downloadUrl, executionTimeMs, executionTimeNs, LocalDateTime.now());
+    }
+}
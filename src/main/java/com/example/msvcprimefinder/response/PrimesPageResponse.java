@@ -0,0 +1,24 @@
+package com.example.msvcprimefinder.response;
+
+import com.fasterxml.jackson.dataformat.xml.annotation.JacksonXmlElementWrapper;
+import com.fasterxml.jackson.dataformat.xml.annotation.JacksonXmlProperty;
+import com.fasterxml.jackson.dataformat.xml.annotation.JacksonXmlRootElement;
+
+import java.time.LocalDateTime;
+
+@JacksonXmlRootElement(localName = "PrimesPageResponse")
+public record PrimesPageResponse(
+        @JacksonXmlElementWrapper(localName = "result")
+        @JacksonXmlProperty(localName = "prime") long[] result,
+        @JacksonXmlProperty(localName = "firstIndex") long firstIndex,
+        @JacksonXmlProperty(localName = "numberOfPrimes") int numberOfPrimes,
+        @JacksonXmlProperty(localName = "primesFromCache") int primesFromCache,
+        @JacksonXmlProperty(localName = "nextCursor") String nextCursor,
+        @JacksonXmlProperty(localName = "executionTimeMs") long executionTimeMs,
+        @JacksonXmlProperty(localName = "executionTimeNs") long executionTimeNs,
+        @JacksonXmlProperty(localName = "timestamp") LocalDateTime timestamp
+) {
+    public PrimesPageResponse(long[] result, long firstIndex, int primesFromCache, String nextCursor, long executionTimeMs, long executionTimeNs) {
+        this(result, firstIndex, result.length, primesFromCache, nextCursor, executionTimeMs, executionTimeNs, LocalDateTime.now());
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.msvcprimefinder.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.dataformat.xml.annotation.JacksonXmlElementWrapper;
+import com.fasterxml.jackson.dataformat.xml.annotation.JacksonXmlProperty;
+import com.fasterxml.jackson.dataformat.xml.annotation.JacksonXmlRootElement;
+
+import java.time.LocalDateTime;
+
+@JacksonXmlRootElement(localName = "ProgressionPrimesResponse")
+public record ProgressionPrimesResponse(
+        // Only present with withResult=true
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        @JacksonXmlElementWrapper(localName = "result")
+        @JacksonXmlProperty(localName = "prime") long[] result,
+        @JacksonXmlProperty(localName = "from") long from,
+        @JacksonXmlProperty(localName = "limit") long limit,
+        @JacksonXmlProperty(localName = "modulus") long modulus,
+        @JacksonXmlProperty(localName = "residue") long residue,
+        @JacksonXmlProperty(localName = "numberOfPrimes") long numberOfPrimes,
+        @JacksonXmlProperty(localName = "executionTimeMs") long executionTimeMs,
+        @JacksonXmlProperty(localName = "executionTimeNs") long executionTimeNs,
+        @JacksonXmlProperty(localName = "timestamp") LocalDateTime timestamp
+) {
+    public ProgressionPrimesResponse(long[] result, long from, long limit, long modulus, long residue, long numberOfPrimes,
+                                     long executionTimeMs, long executionTimeNs) {
+        this(result, from, limit, modulus, residue, numberOfPrimes, executionTimeMs, executionTimeNs, LocalDateTime.now());
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.msvcprimefinder.response;
+
+import com.example.msvcprimefinder.util.type.CacheTopology;
+import com.fasterxml.jackson.dataformat.xml.annotation.JacksonXmlElementWrapper;
+import com.fasterxml.jackson.dataformat.xml.annotation.JacksonXmlProperty;
+import com.fasterxml.jackson.dataformat.xml.annotation.JacksonXmlRootElement;
+
+import java.util.List;
+
+@JacksonXmlRootElement(localName = "SieveTuningResponse")
+public record SieveTuningResponse(
+        @JacksonXmlProperty(localName = "cacheTopology") CacheTopology cacheTopology,
+        @JacksonXmlProperty(localName = "threads") int threads,
+        @JacksonXmlProperty(localName = "perThreadL2Bytes") long perThreadL2Bytes,
+        @JacksonXmlProperty(localName = "segmentBytes") long segmentBytes,
+        @JacksonXmlProperty(localName = "minTasksPerThread") int minTasksPerThread,
+        @JacksonXmlProperty(localName = "maxSegmentsInFlight") int maxSegmentsInFlight,
+        @JacksonXmlProperty(localName = "calibrated") boolean calibrated,
+        @JacksonXmlElementWrapper(localName = "calibrationRuns")
+        @JacksonXmlProperty(localName = "calibrationRun") List<CalibrationRun> calibrationRuns,
+        @JacksonXmlElementWrapper(localName = "engines")
+        @JacksonXmlProperty(localName = "engine") List<EngineSizing> engines
+) {
+    /** bestNs is the fastest of the calibration rounds sieving the same window with this segment size */
+    public record CalibrationRun(
+            @JacksonXmlProperty(localName = "segmentBytes") long segmentBytes,
+            @JacksonXmlProperty(localName = "bestNs") long bestNs
+    ) {}
+
+    /** segmentNumbers is how many integers one segment (one task for the concurrent engines) covers */
+    public record EngineSizing(
+            @JacksonXmlProperty(localName = "name") String name,
+            @JacksonXmlProperty(localName = "segmentNumbers") long segmentNumbers,
+            @JacksonXmlProperty(localName = "segmentBytes") long segmentBytes
+    ) {}
+}
@@ -0,0 +1,37 @@
+package com.example.msvcprimefinder.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.dataformat.xml.annotation.JacksonXmlElementWrapper;
+import com.fasterxml.jackson.dataformat.xml.annotation.JacksonXmlProperty;
+import com.fasterxml.jackson.dataformat.xml.annotation.JacksonXmlRootElement;
+
+import java.math.BigInteger;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@JacksonXmlRootElement(localName = "SumPrimesResponse")
+public record SumPrimesResponse(
+        @JacksonXmlProperty(localName = "limit") long limit,
+        @JacksonXmlProperty(localName = "numberOfPrimes") long numberOfPrimes,
+        @JacksonXmlProperty(localName = "sumOfPrimes") BigInteger sumOfPrimes,
+        @JacksonXmlProperty(localName = "sumOfPrimeSquares") BigInteger sumOfPrimeSquares,
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        @JacksonXmlProperty(localName = "modulus") Integer modulus,
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        @JacksonXmlElementWrapper(localName = "residueCounts")
+        @JacksonXmlProperty(localName = "residueCount") List<ResidueCount> residueCounts,
+        @JacksonXmlProperty(localName = "executionTimeMs") long executionTimeMs,
+        @JacksonXmlProperty(localName = "executionTimeNs") long executionTimeNs,
+        @JacksonXmlProperty(localName = "timestamp") LocalDateTime timestamp
+) {
+    public SumPrimesResponse(long limit, long numberOfPrimes, BigInteger sumOfPrimes, BigInteger sumOfPrimeSquares,
+                             Integer modulus, List<ResidueCount> residueCounts, long executionTimeMs, long executionTimeNs) {
+        this(limit, numberOfPrimes, sumOfPrimes, sumOfPrimeSquares, modulus, residueCounts, executionTimeMs, executionTimeNs, LocalDateTime.now());
+    }
+
+    /** Number of primes p <= limit with p = residue (mod modulus) */
+    public record ResidueCount(
+            @JacksonXmlProperty(localName = "residue") int residue,
+            @JacksonXmlProperty(localName = "count") long count
+    ) {}
+}
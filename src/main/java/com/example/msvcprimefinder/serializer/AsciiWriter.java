@@ -0,0 +1,148 @@
+package com.example.msvcprimefinder.serializer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Writes ASCII text and longs straight into a pooled byte[] and flushes it to the stream when full.
+ * Longs are converted three digits at a time from a lookup table, written backwards from the known digit count,
+ * so there is no String, char[] or boxing per number. close() flushes and returns the buffer to the pool,
+ * but never closes the underlying stream.
+ * */
+public final class AsciiWriter implements Closeable {
+    // Longest long is "-9223372036854775808", 20 bytes
+    private static final int MAX_LONG_LENGTH = 20;
+    // DIGIT_TRIPLETS[3i..3i+2] = i as three ASCII digits, zero padded
+    private static final byte[] DIGIT_TRIPLETS = new byte[3000];
+    private static final byte[] MIN_LONG = Long.toString(Long.MIN_VALUE).getBytes();
+    private static final long[] POWERS_OF_TEN = new long[19];
+
+    static {
+        for (int i = 0; i < 1000; i++) {
+            DIGIT_TRIPLETS[3 * i] = (byte) ('0' + i / 100);
+            DIGIT_TRIPLETS[3 * i + 1] = (byte) ('0' + i / 10 % 10);
+            DIGIT_TRIPLETS[3 * i + 2] = (byte) ('0' + i % 10);
+        }
+        POWERS_OF_TEN[0] = 1;
+        for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+        }
+    }
+
+    private final OutputStream out;
+    private final ByteBufferPool pool;
+    private final byte[] buffer;
+    private int position = 0;
+
+    public AsciiWriter(OutputStream out, ByteBufferPool pool) {
+        this.out = out;
+        this.pool = pool;
+        this.buffer = pool.acquire();
+    }
+
+    public void writeLong(long value) throws IOException {
+        ensureCapacity(MAX_LONG_LENGTH);
+        putLong(value);
+    }
+
+    /** prefix, value, suffix with a single capacity check, for <prime>..</prime> */
+    public void writeLong(byte[] prefix, long value, byte[] suffix) throws IOException {
+        ensureCapacity(prefix.length + MAX_LONG_LENGTH + suffix.length);
+        System.arraycopy(prefix, 0, buffer, position, prefix.length);
+        position += prefix.length;
+        putLong(value);
+        System.arraycopy(suffix, 0, buffer, position, suffix.length);
+        position += suffix.length;
+    }
+
+    // Caller has ensured MAX_LONG_LENGTH bytes of room
+    private void putLong(long value) {
+        if (value < 0) {
+            if (value == Long.MIN_VALUE) {
+                System.arraycopy(MIN_LONG, 0, buffer, position, MIN_LONG.length);
+                position += MIN_LONG.length;
+                return;
+            }
+            buffer[position++] = '-';
+            value = -value;
+        }
+        int end = position + digitCount(value);
+        int index = end;
+        while (value > Integer.MAX_VALUE) {
+            long quotient = value / 1000;
+            index -= 3;
+            System.arraycopy(DIGIT_TRIPLETS, 3 * (int) (value - quotient * 1000), buffer, index, 3);
+            value = quotient;
+        }
+        // Primes below 2^31 take only this int loop, which is markedly cheaper than long division
+        int intValue = (int) value;
+        while (intValue >= 1000) {
+            int quotient = intValue / 1000;
+            int triplet = 3 * (intValue - quotient * 1000);
+            buffer[--index] = DIGIT_TRIPLETS[triplet + 2];
+            buffer[--index] = DIGIT_TRIPLETS[triplet + 1];
+            buffer[--index] = DIGIT_TRIPLETS[triplet];
+            intValue = quotient;
+        }
+        // 1 to 3 leading digits, taken from the end of their triplet
+        int triplet = 3 * intValue;
+        int leading = intValue >= 100 ? 3 : intValue >= 10 ? 2 : 1;
+        for (int i = 0; i < leading; i++) {
+            buffer[--index] = DIGIT_TRIPLETS[triplet + 2 - i];
+        }
+        position = end;
+    }
+
+    public void writeBytes(byte[] bytes) throws IOException {
+        if (bytes.length > buffer.length - position) {
+            flush();
+            if (bytes.length > buffer.length) {
+                out.write(bytes);
+                return;
+            }
+        }
+        System.arraycopy(bytes, 0, buffer, position, bytes.length);
+        position += bytes.length;
+    }
+
+    /** Only for ASCII text such as field names, enum names and ISO timestamps */
+    public void writeAscii(String text) throws IOException {
+        int length = text.length();
+        for (int offset = 0; offset < length; ) {
+            if (position == buffer.length) flush();
+            int count = Math.min(length - offset, buffer.length - position);
+            for (int i = 0; i < count; i++) {
+                buffer[position++] = (byte) text.charAt(offset + i);
+            }
+            offset += count;
+        }
+    }
+
+    public void flush() throws IOException {
+        if (position > 0) {
+            out.write(buffer, 0, position);
+            position = 0;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            pool.release(buffer);
+        }
+    }
+
+    private void ensureCapacity(int bytes) throws IOException {
+        if (buffer.length - position < bytes) flush();
+    }
+
+    // value >= 0. log10 from the bit length (1233 / 4096 ~ log10(2)), then one table comparison to correct it
+    private static int digitCount(long value) {
+        int estimate = ((64 - Long.numberOfLeadingZeros(value | 1)) * 1233) >>> 12;
+        // value | 1 so that 0 counts as one digit, like 1
+        return estimate + ((value | 1) >= POWERS_OF_TEN[estimate] ? 1 : 0);
+    }
+}
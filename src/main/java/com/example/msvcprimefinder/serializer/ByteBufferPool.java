@@ -0,0 +1,30 @@
+package com.example.msvcprimefinder.serializer;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Small bounded pool of fixed-size write buffers, so serializing a large response does not allocate
+ * (and later collect) a fresh buffer per request. When the pool is empty a new buffer is allocated,
+ * and buffers returned to a full pool are simply dropped.
+ * */
+public class ByteBufferPool {
+    private final int bufferSize;
+    private final BlockingQueue<byte[]> buffers;
+
+    public ByteBufferPool(int bufferSize, int maxPooled) {
+        this.bufferSize = bufferSize;
+        this.buffers = new ArrayBlockingQueue<>(maxPooled);
+    }
+
+    public byte[] acquire() {
+        byte[] buffer = buffers.poll();
+        return buffer != null ? buffer : new byte[bufferSize];
+    }
+
+    public void release(byte[] buffer) {
+        if (buffer.length == bufferSize) {
+            buffers.offer(buffer);
+        }
+    }
+}
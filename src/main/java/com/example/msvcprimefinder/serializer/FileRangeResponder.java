@@ -0,0 +1,83 @@
+package com.example.msvcprimefinder.serializer;
+
+import com.example.msvcprimefinder.util.type.ExportFile;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Sends an export file, or the single byte range asked for in a Range header, without reading it into the heap.
+ * On Tomcat's NIO connector the file is handed over through the sendfile request attributes, and Tomcat writes it
+ * with FileChannel.transferTo straight to the socket once the handler returns, which is the same path its DefaultServlet uses
+ * for static files. Elsewhere the file is sent with FileChannel.transferTo to the response stream.
+ * A malformed Range header, or one with several ranges, is ignored and the whole file sent, as RFC 9110 allows.
+ * */
+public final class FileRangeResponder {
+    // org.apache.catalina.Globals, as strings so this does not tie the code to Tomcat
+    private static final String SENDFILE_SUPPORTED_ATTR = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME_ATTR = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_FILE_START_ATTR = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_FILE_END_ATTR = "org.apache.tomcat.sendfile.end";
+    private static final String BYTES = "bytes";
+
+    private FileRangeResponder() {}
+
+    public static void send(HttpServletRequest request, HttpServletResponse response, ExportFile file) throws IOException {
+        long size = file.size();
+        long start = 0;
+        long end = size - 1;
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, BYTES);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(file.id()).build().toString());
+
+        List<HttpRange> ranges = parseRanges(request.getHeader(HttpHeaders.RANGE));
+        if (ranges.size() == 1) {
+            start = ranges.get(0).getRangeStart(size);
+            end = ranges.get(0).getRangeEnd(size);
+            // A range starting at or past the end, which includes any range of an empty file
+            if (start >= size) {
+                response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                response.setHeader(HttpHeaders.CONTENT_RANGE, BYTES + " */" + size);
+                return;
+            }
+            response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+            response.setHeader(HttpHeaders.CONTENT_RANGE, BYTES + " " + start + "-" + end + "/" + size);
+        }
+        response.setContentType(file.format().contentType());
+        long length = end - start + 1;
+        response.setContentLengthLong(length);
+        if (length == 0) {
+            return;
+        }
+
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED_ATTR))) {
+            request.setAttribute(SENDFILE_FILENAME_ATTR, file.path().toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_FILE_START_ATTR, start);
+            // Exclusive
+            request.setAttribute(SENDFILE_FILE_END_ATTR, end + 1);
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(file.path(), StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            for (long position = start; position <= end; ) {
+                position += channel.transferTo(position, end + 1 - position, out);
+            }
+        }
+    }
+
+    private static List<HttpRange> parseRanges(String header) {
+        try {
+            return HttpRange.parseRanges(header);
+        } catch (IllegalArgumentException e) {
+            return List.of();
+        }
+    }
+}
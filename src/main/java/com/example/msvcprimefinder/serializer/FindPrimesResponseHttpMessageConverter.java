@@ -0,0 +1,126 @@
+package com.example.msvcprimefinder.serializer;
+
+import com.example.msvcprimefinder.jfr.SerializationEvent;
+import com.example.msvcprimefinder.model.primes.PrimeSequence;
+import com.example.msvcprimefinder.response.FindPrimesResponse;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.format.DateTimeFormatter;
+import java.util.Map;
+
+/**
+ * Writes FindPrimesResponse as XML without going through Jackson's XML bean serializers.
+ * The document is structurally identical to the Jackson output (same field order, same <result><prime>..</prime></result>
+ * shape), but the prime payload, which is almost all of the bytes, is written digit by digit into pooled buffers by AsciiWriter.
+ * JSON is left to Jackson: its generator already writes numbers about as fast as AsciiWriter does (see README Findings),
+ * whereas the XML generator pays for a start and end element per prime.
+ * Registered ahead of the Jackson converters in WebConfig; every other response type still uses Jackson.
+ * */
+public class FindPrimesResponseHttpMessageConverter extends AbstractHttpMessageConverter<FindPrimesResponse> {
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int MAX_POOLED_BUFFERS = 2 * Runtime.getRuntime().availableProcessors();
+    private static final int BLOCK_SIZE = 4096;
+
+    private static final byte[] XML_PRIME_START = bytes("<prime>");
+    private static final byte[] XML_PRIME_END = bytes("</prime>");
+
+    private final ByteBufferPool bufferPool = new ByteBufferPool(BUFFER_SIZE, MAX_POOLED_BUFFERS);
+
+    public FindPrimesResponseHttpMessageConverter() {
+        super(MediaType.APPLICATION_XML, MediaType.TEXT_XML);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return FindPrimesResponse.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    protected boolean canRead(MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected FindPrimesResponse readInternal(Class<? extends FindPrimesResponse> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("FindPrimesResponse is write only", inputMessage);
+    }
+
+    @Override
+    protected void writeInternal(FindPrimesResponse response, HttpOutputMessage outputMessage) throws IOException, HttpMessageNotWritableException {
+        SerializationEvent event = new SerializationEvent();
+        event.begin();
+        try (AsciiWriter writer = new AsciiWriter(outputMessage.getBody(), bufferPool)) {
+            writeXml(response, writer);
+        }
+        if (event.shouldCommit()) {
+            event.format = "XML";
+            event.numberOfPrimes = response.result().size();
+            event.commit();
+        }
+    }
+
+    public void writeXml(FindPrimesResponse response, AsciiWriter writer) throws IOException {
+        writer.writeAscii("<FindPrimesResponse><result>");
+        forEachPrime(response.result(), prime -> writer.writeLong(XML_PRIME_START, prime, XML_PRIME_END));
+        writer.writeAscii("</result><numberOfPrimes>");
+        writer.writeLong(response.numberOfPrimes());
+        writer.writeAscii("</numberOfPrimes><executionTimeMs>");
+        writer.writeLong(response.executionTimeMs());
+        writer.writeAscii("</executionTimeMs><executionTimeNs>");
+        writer.writeLong(response.executionTimeNs());
+        writer.writeAscii("</executionTimeNs><algorithmName>");
+        writer.writeAscii(response.algorithmName());
+        writer.writeAscii("</algorithmName><useCache>");
+        writer.writeAscii(Boolean.toString(response.useCache()));
+        writer.writeAscii("</useCache><timestamp>");
+        writer.writeAscii(DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(response.timestamp()));
+        writer.writeAscii("</timestamp>");
+        if (response.timings() != null) {
+            // Keys are PrimePhase names, which are valid element names as they are
+            writer.writeAscii("<timings>");
+            for (Map.Entry<String, Long> timing : response.timings().entrySet()) {
+                writer.writeAscii("<" + timing.getKey() + ">");
+                writer.writeLong(timing.getValue());
+                writer.writeAscii("</" + timing.getKey() + ">");
+            }
+            writer.writeAscii("</timings>");
+        }
+        if (response.partial() != null) {
+            writer.writeAscii("<partial>");
+            writer.writeAscii(Boolean.toString(response.partial()));
+            writer.writeAscii("</partial><sievedUpTo>");
+            writer.writeLong(response.sievedUpTo());
+            writer.writeAscii("</sievedUpTo>");
+        }
+        writer.writeAscii("</FindPrimesResponse>");
+    }
+
+    // Primes are copied out of the sequence in blocks, so the inner loop is a plain array walk whatever the representation
+    private static void forEachPrime(PrimeSequence primes, PrimeWriter action) throws IOException {
+        long[] block = new long[BLOCK_SIZE];
+        for (long index = 0; ; ) {
+            int count = primes.copyTo(index, block);
+            if (count == 0) return;
+            for (int i = 0; i < count; i++) {
+                action.write(block[i]);
+            }
+            index += count;
+        }
+    }
+
+    private static byte[] bytes(String text) {
+        return text.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    @FunctionalInterface
+    private interface PrimeWriter {
+        void write(long prime) throws IOException;
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.msvcprimefinder.serializer;
+
+import com.example.msvcprimefinder.model.enums.ExportFormat;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.util.function.LongConsumer;
+
+/**
+ * Writes primes in increasing order to a FileChannel through one direct buffer, which the channel hands to the OS
+ * as is, where a heap buffer is first copied into a temporary direct one on every write.
+ * BINARY is a HEADER_SIZE byte little endian header ("PGAP", version, first prime, count) and then one unsigned byte
+ * per further prime holding half the gap to the previous one, with 0 for the single odd gap 2 -> 3, the same encoding
+ * as GapEncodedPrimeSequence without the samples. TEXT is one prime per line in decimal.
+ * Being a LongConsumer it plugs straight into SegmentedSieve.forEachPrimeInSegment, so I/O errors surface as UncheckedIOException.
+ * The caller owns the channel.
+ * */
+public final class PrimeFileWriter implements LongConsumer {
+    public static final int HEADER_SIZE = 24;
+    public static final int MAGIC = 0x50474150; // "PGAP" read as a little endian int
+    public static final int VERSION = 1;
+    private static final int BUFFER_SIZE = 1 << 20;
+    private static final long MAX_GAP = 2 * 255;
+
+    private final FileChannel channel;
+    private final ExportFormat format;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+    private final byte[] digits = new byte[20];
+    private long firstPrime;
+    private long previous;
+    private long count;
+
+    public PrimeFileWriter(FileChannel channel, ExportFormat format) throws IOException {
+        this.channel = channel;
+        this.format = format;
+        if (format == ExportFormat.BINARY) {
+            // Placeholder, the first prime and the count are only known at the end
+            buffer.put(new byte[HEADER_SIZE]);
+        }
+    }
+
+    @Override
+    public void accept(long prime) {
+        if (buffer.remaining() < digits.length + 1) {
+            flush();
+        }
+        if (format == ExportFormat.TEXT) {
+            putDecimal(prime);
+            buffer.put((byte) '\n');
+        } else if (count == 0) {
+            firstPrime = prime;
+        } else {
+            long gap = prime - previous;
+            if (gap > MAX_GAP) {
+                throw new IllegalArgumentException("Gap " + gap + " after " + previous + " does not fit the binary format");
+            }
+            buffer.put(previous == 2 ? 0 : (byte) (gap >>> 1));
+        }
+        previous = prime;
+        count++;
+    }
+
+    public long count() {
+        return count;
+    }
+
+    /** Flushes the buffer, fills in the BINARY header and forces the content to disk */
+    public void finish() throws IOException {
+        flush();
+        if (format == ExportFormat.BINARY) {
+            buffer.putInt(MAGIC).putInt(VERSION).putLong(firstPrime).putLong(count).flip();
+            long position = 0;
+            while (buffer.hasRemaining()) {
+                position += channel.write(buffer, position);
+            }
+            buffer.clear();
+        }
+        channel.force(false);
+    }
+
+    private void flush() {
+        buffer.flip();
+        try {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        buffer.clear();
+    }
+
+    // Digits are produced backwards into a scratch array and copied in one put, primes are never negative
+    private void putDecimal(long value) {
+        int start = digits.length;
+        do {
+            digits[--start] = (byte) ('0' + value % 10);
+            value /= 10;
+        } while (value != 0);
+        buffer.put(digits, start, digits.length - start);
+    }
+}
@@ -1,39 +1,59 @@
 package com.example.msvcprimefinder.service;
 
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import com.example.msvcprimefinder.util.LaneScheduler;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-
+/**
+ * Worker threads for the concurrent engines, shared by all requests through a LaneScheduler.
+ * A request's cost is the count of numbers it sieves, requests above primefinder.scheduler.interactive-max-cost
+ * run in the bulk lane, where each one may use at most primefinder.scheduler.bulk-threads workers.
+ * */
 @Component
 public class ExecutorServiceProvider {
-    private static final Logger logger = LoggerFactory.getLogger(ExecutorServiceProvider.class);
-    private final ExecutorService executor;
+    private final LaneScheduler scheduler;
+    private final SegmentSizeTuner segmentSizeTuner;
+
+    @Autowired
+    public ExecutorServiceProvider(SegmentSizeTuner segmentSizeTuner,
+                                   @Value("${primefinder.scheduler.interactive-max-cost:100000000}") long interactiveMaxCost,
+                                   @Value("${primefinder.scheduler.bulk-threads:0}") int bulkThreads) {
+        int threads = Runtime.getRuntime().availableProcessors();
+        // 0 leaves half of the workers free for interactive requests
+        this.scheduler = new LaneScheduler(threads, interactiveMaxCost, bulkThreads > 0 ? bulkThreads : Math.max(1, threads / 2));
+        this.segmentSizeTuner = segmentSizeTuner;
+    }
+
+    /** Executor for one request, in the lane its cost puts it */
+    public LaneScheduler.RequestExecutor getExecutor(long cost) {
+        return scheduler.newRequest(cost);
+    }
 
-    public ExecutorServiceProvider() {
-        this.executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+    /** Executor for one request in the bulk lane whatever its cost, for long-running work such as export writes */
+    public LaneScheduler.RequestExecutor getBulkExecutor() {
+        return getExecutor(Long.MAX_VALUE);
     }
 
-    public ExecutorService getExecutor() {
-        return executor;
+    /** Bound up to which a request of this cost may share an in-flight result, see LaneScheduler.maxSharedCost */
+    public long getMaxSharedBound(long cost) {
+        return scheduler.maxSharedCost(cost);
     }
 
+    public SegmentSizeTuner getSegmentSizeTuner() {
+        return segmentSizeTuner;
+    }
+
+    /** Numbers per concurrent sieve task, sized from the CPU caches rather than free heap */
     public long getDynamicSegmentSize(long limit) {
-        int availableProcessors = Runtime.getRuntime().availableProcessors();
-        long freeMemory = Runtime.getRuntime().freeMemory();
-        int scalingFactor = switch((int) Math.log10(limit)) {
-            case 0, 1, 2, 3, 4, 5, 6, 7     -> 1;   // up to 10^7 (10_000_000)        10M
-            case 8, 9                       -> 2;   // up to 10^9 (1_000_000_000)     1B
-            default                         -> 4;   // beyond 10^10 (10_000_000_000)  10B+ (bad idea...)
-        };
-        logger.info("[Concurrent Sieve]:[Dynamic Segment Size] SegmentSize scaling factor: " + scalingFactor);
-        long maxMemPerThread = freeMemory / availableProcessors / scalingFactor;
-        return Math.min(maxMemPerThread, (long) Math.sqrt(limit));
+        return segmentSizeTuner.concurrentSegmentSize(limit);
+    }
+
+    public int getMaxSegmentsInFlight() {
+        return segmentSizeTuner.maxSegmentsInFlight();
     }
 
     public void shutdown() {
-        executor.shutdown();
+        scheduler.shutdown();
     }
 }
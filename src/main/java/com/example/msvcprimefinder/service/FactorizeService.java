@@ -0,0 +1,7 @@
+package com.example.msvcprimefinder.service;
+
+import com.example.msvcprimefinder.response.FactorizeResponse;
+
+public interface FactorizeService {
+    FactorizeResponse factorize(long[] values);
+}
@@ -0,0 +1,123 @@
+package com.example.msvcprimefinder.service;
+
+import com.example.msvcprimefinder.algo.Factorizer;
+import com.example.msvcprimefinder.algo.SegmentedSieve;
+import com.example.msvcprimefinder.exception.ConcurrentFactorizationException;
+import com.example.msvcprimefinder.exception.FindPrimesArgException;
+import com.example.msvcprimefinder.response.FactorizeResponse;
+import com.example.msvcprimefinder.util.PrimesTimer;
+import com.example.msvcprimefinder.util.type.PrimesTimerResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+@Service
+public class FactorizeServiceImpl implements FactorizeService {
+    private static final Logger logger = LoggerFactory.getLogger(FactorizeServiceImpl.class);
+    // 2^22 ints is a 16MB table, values above it go through trial division and Pollard-Brent rho
+    private static final int SPF_LIMIT = 1 << 22;
+    private static final int TRIAL_DIVISION_LIMIT = 1 << 12;
+    private static final int PARALLEL_CHUNK_SIZE = 4096;
+    // Scheduler cost of one value in sieved numbers: a table lookup is about one, trial division plus
+    // Pollard-Brent takes ~0.1ms, about as long as sieving 100k numbers
+    private static final long TABLE_VALUE_COST = 1;
+    private static final long LARGE_VALUE_COST = 100_000;
+    private static final String FACTORIZE_MESSAGE = "FACTORIZE";
+
+    private final ExecutorServiceProvider executorServiceProvider;
+    private final PrimeCacheService primeCacheService;
+    private volatile Factorizer factorizer;
+
+    @Autowired
+    public FactorizeServiceImpl(ExecutorServiceProvider executorServiceProvider, PrimeCacheService primeCacheService) {
+        this.executorServiceProvider = executorServiceProvider;
+        this.primeCacheService = primeCacheService;
+    }
+
+    public FactorizeResponse factorize(long[] values) {
+        for (long value : values) {
+            if (value < 1) {
+                logger.warn("[factorize]: non-positive value {}", value);
+                throw new FindPrimesArgException("Only positive values can be factorized: " + value);
+            }
+        }
+        Factorizer activeFactorizer = getFactorizer();
+        PrimesTimerResult<List<FactorizeResponse.Factorization>> timerResult = PrimesTimer.measureExecutionTime(() ->
+                values.length <= PARALLEL_CHUNK_SIZE
+                        ? factorizeRange(activeFactorizer, values, 0, values.length)
+                        : factorizeConcurrently(activeFactorizer, values)
+        );
+        logger.info("Execution Time for {}: {} ms ({} values)", FACTORIZE_MESSAGE, timerResult.durationMs(), values.length);
+        return new FactorizeResponse(timerResult.result(), timerResult.durationMs(), timerResult.durationNs());
+    }
+
+    private List<FactorizeResponse.Factorization> factorizeConcurrently(Factorizer activeFactorizer, long[] values) {
+        List<CompletableFuture<List<FactorizeResponse.Factorization>>> futures = new ArrayList<>();
+        // One request for the whole batch, so its chunks share one concurrency cap and a large batch goes to the bulk lane
+        Executor executor = executorServiceProvider.getExecutor(estimateCost(values));
+        for (int from = 0; from < values.length; from += PARALLEL_CHUNK_SIZE) {
+            final int chunkFrom = from;
+            final int chunkTo = Math.min(from + PARALLEL_CHUNK_SIZE, values.length);
+            futures.add(CompletableFuture.supplyAsync(() -> factorizeRange(activeFactorizer, values, chunkFrom, chunkTo), executor));
+        }
+        List<FactorizeResponse.Factorization> factorizations = new ArrayList<>(values.length);
+        try {
+            futures.forEach(future -> factorizations.addAll(future.join()));
+        } catch (RuntimeException e) {
+            // join wraps a failed chunk in a CompletionException, anything else (e.g. a cancellation) is kept as is
+            Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+            throw new ConcurrentFactorizationException("Failed to factorize a chunk of values: " + cause.getMessage(), cause);
+        }
+        return factorizations;
+    }
+
+    private static long estimateCost(long[] values) {
+        long cost = 0;
+        for (long value : values) {
+            cost += value <= SPF_LIMIT ? TABLE_VALUE_COST : LARGE_VALUE_COST;
+        }
+        return cost;
+    }
+
+    private List<FactorizeResponse.Factorization> factorizeRange(Factorizer activeFactorizer, long[] values, int from, int to) {
+        List<FactorizeResponse.Factorization> factorizations = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            Map<Long, Integer> factors = activeFactorizer.factorize(values[i]);
+            List<FactorizeResponse.PrimePower> primePowers = new ArrayList<>(factors.size());
+            factors.forEach((prime, exponent) -> primePowers.add(new FactorizeResponse.PrimePower(prime, exponent)));
+            boolean prime = primePowers.size() == 1 && primePowers.get(0).exponent() == 1;
+            factorizations.add(new FactorizeResponse.Factorization(values[i], prime, primePowers));
+        }
+        return factorizations;
+    }
+
+    /**
+     * Builds the SPF table on first use (~100ms). Trial division primes come from the prime cache when it
+     * already covers TRIAL_DIVISION_LIMIT, otherwise from a small sieve.
+     * */
+    private Factorizer getFactorizer() {
+        Factorizer current = factorizer;
+        if (current == null) {
+            synchronized (this) {
+                current = factorizer;
+                if (current == null) {
+                    long[] trialPrimes = primeCacheService.isCached(TRIAL_DIVISION_LIMIT)
+                            ? primeCacheService.getPrimesFromCacheToLimit(TRIAL_DIVISION_LIMIT).toLongArray()
+                            : Arrays.stream(SegmentedSieve.basePrimesUpTo(TRIAL_DIVISION_LIMIT)).asLongStream().toArray();
+                    current = new Factorizer(SPF_LIMIT, trialPrimes);
+                    factorizer = current;
+                }
+            }
+        }
+        return current;
+    }
+}
@@ -1,10 +1,34 @@
 package com.example.msvcprimefinder.service;
 
 import com.example.msvcprimefinder.model.enums.PrimeAlgorithmNames;
+import com.example.msvcprimefinder.request.FindPrimesBatchRequest;
+import com.example.msvcprimefinder.response.FindPrimesBatchResponse;
 import com.example.msvcprimefinder.response.FindPrimesResponse;
+import com.example.msvcprimefinder.response.NthPrimeResponse;
+import com.example.msvcprimefinder.response.PrimeAnalyticsResponse;
+import com.example.msvcprimefinder.response.PrimesPageResponse;
+import com.example.msvcprimefinder.response.ProgressionPrimesResponse;
+import com.example.msvcprimefinder.response.SieveTuningResponse;
+import com.example.msvcprimefinder.response.SumPrimesResponse;
+import reactor.core.publisher.Flux;
 
+import java.util.List;
 import java.util.concurrent.ExecutionException;
 
 public interface FindPrimesService {
-    FindPrimesResponse findPrimes(long limit, PrimeAlgorithmNames selectedAlgorithm, boolean withCache, boolean withResult);
+    FindPrimesResponse findPrimes(long limit, PrimeAlgorithmNames selectedAlgorithm, boolean withCache, boolean withResult, boolean withTimings, Long deadlineMs);
+    default FindPrimesResponse findPrimes(long limit, PrimeAlgorithmNames selectedAlgorithm, boolean withCache, boolean withResult, boolean withTimings) {
+        return findPrimes(limit, selectedAlgorithm, withCache, withResult, withTimings, null);
+    }
+    default FindPrimesResponse findPrimes(long limit, PrimeAlgorithmNames selectedAlgorithm, boolean withCache, boolean withResult) {
+        return findPrimes(limit, selectedAlgorithm, withCache, withResult, false);
+    }
+    NthPrimeResponse findNthPrime(long n);
+    PrimeAnalyticsResponse analysePrimes(long limit, int listLimit);
+    SumPrimesResponse sumPrimes(long limit, Integer modulus);
+    FindPrimesBatchResponse findPrimesBatch(List<FindPrimesBatchRequest.PrimeQuery> queries, boolean withResult);
+    Flux<long[]> streamPrimes(long from, long limit);
+    PrimesPageResponse findPrimesPage(String cursor, Long index, Long from, int pageSize);
+    ProgressionPrimesResponse findPrimesInProgression(long from, long limit, long modulus, long residue, boolean withResult);
+    SieveTuningResponse getSieveTuning();
 }
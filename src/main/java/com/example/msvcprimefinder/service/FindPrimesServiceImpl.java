@@ -1,18 +1,46 @@
 package com.example.msvcprimefinder.service;
 
 import com.example.msvcprimefinder.exception.FindPrimesArgException;
+import com.example.msvcprimefinder.jfr.FindPrimesEvent;
 import com.example.msvcprimefinder.model.enums.PrimeAlgorithmNames;
+import com.example.msvcprimefinder.model.enums.PrimePhase;
+import com.example.msvcprimefinder.model.primes.LongArrayPrimeSequence;
+import com.example.msvcprimefinder.model.primes.PrimeSequence;
+import com.example.msvcprimefinder.algo.PrimeBitmap;
+import com.example.msvcprimefinder.algo.PrimeCounter;
+import com.example.msvcprimefinder.algo.PrimePatternAnalyzer;
+import com.example.msvcprimefinder.algo.ProgressionSieve;
+import com.example.msvcprimefinder.algo.SegmentedSieve;
+import com.example.msvcprimefinder.request.FindPrimesBatchRequest;
+import com.example.msvcprimefinder.response.FindPrimesBatchResponse;
 import com.example.msvcprimefinder.response.FindPrimesResponse;
+import com.example.msvcprimefinder.response.NthPrimeResponse;
+import com.example.msvcprimefinder.response.PrimeAnalyticsResponse;
+import com.example.msvcprimefinder.response.PrimesPageResponse;
+import com.example.msvcprimefinder.response.ProgressionPrimesResponse;
+import com.example.msvcprimefinder.response.SieveTuningResponse;
+import com.example.msvcprimefinder.response.SumPrimesResponse;
+import com.example.msvcprimefinder.util.Deadline;
+import com.example.msvcprimefinder.util.PhaseTimings;
 import com.example.msvcprimefinder.util.PrimeEstimator;
 import com.example.msvcprimefinder.util.PrimesTimer;
+import com.example.msvcprimefinder.util.SingleFlight;
+import com.example.msvcprimefinder.util.type.NthPrimeResult;
+import com.example.msvcprimefinder.util.type.PrimeSums;
+import com.example.msvcprimefinder.util.type.PrimesPageCursor;
 import com.example.msvcprimefinder.util.type.PrimesTimerResult;
+import com.example.msvcprimefinder.util.type.SingleFlightResult;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.EnumSet;
-import java.util.concurrent.ExecutorService;
+import java.util.List;
+import java.util.concurrent.Executor;
 import java.util.function.Supplier;
 
 import static com.example.msvcprimefinder.algo.PrimeFinder.*;
@@ -25,15 +53,53 @@ public class FindPrimesServiceImpl implements FindPrimesService {
             PrimeAlgorithmNames.SEGMENTED_SIEVE_BITSET,
             PrimeAlgorithmNames.SEGMENTED_SIEVE_STREAMS,
             PrimeAlgorithmNames.SEGMENTED_SIEVE_CONCURRENT,
+            PrimeAlgorithmNames.SIEVE_ATKIN,
+            PrimeAlgorithmNames.SMART
+    );
+    // Engines that check a deadline between segments
+    private static final EnumSet<PrimeAlgorithmNames> DEADLINE_ALGORITHMS = EnumSet.of(
+            PrimeAlgorithmNames.SEGMENTED_SIEVE,
+            PrimeAlgorithmNames.SEGMENTED_SIEVE_CONCURRENT,
+            PrimeAlgorithmNames.SIEVE_ATKIN,
             PrimeAlgorithmNames.SMART
     );
     private static final String CACHE_HIT_MESSAGE = "CACHE_HIT";
     private static final String CACHE_SAVE_MESSAGE = "SAVE_TO_CACHE";
     private static final int SMART_LIMIT_SWITCH = 5_000_000;
-    private static final long[] EMPTY_PRIMES = new long[0];
+    // Single threaded Atkin measured ~4-5x faster than a single concurrent-sieve worker, so concurrency only wins with more cores
+    public static final int SMART_CONCURRENT_MIN_PROCESSORS = 6;
+    private static final long MAX_NTH_PRIME_INDEX = 100_000_000_000L;
+    private static final String NTH_PRIME_MESSAGE = "NTH_PRIME";
+    private static final long MAX_ANALYTICS_LIMIT = 1_000_000_000_000L;
+    private static final int MAX_ANALYTICS_LIST_LIMIT = 10_000;
+    private static final String ANALYTICS_MESSAGE = "PRIME_ANALYTICS";
+    // Sums of squares stay exact in 128 bits up to here
+    private static final long MAX_SUM_PRIMES_LIMIT = 1_000_000_000_000L;
+    private static final int MAX_RESIDUE_MODULUS = 64;
+    // Residue tables take modulus * sqrt(limit) * 16 bytes, ~320 MB at modulus 64 here
+    private static final long MAX_RESIDUE_LIMIT = 100_000_000_000L;
+    private static final String SUM_PRIMES_MESSAGE = "SUM_PRIMES";
+    private static final long MAX_BATCH_LIMIT = 100_000_000_000L;
+    private static final String BATCH_MESSAGE = "FIND_PRIMES_BATCH";
+    // Streaming holds one segment at a time, so only the base primes up to sqrt(limit) bound memory
+    private static final long MAX_STREAM_LIMIT = 100_000_000_000_000L;
+    private static final String STREAM_MESSAGE = "FIND_PRIMES_STREAM";
+    // Starting a page by value past the cache needs pi(value), so stay where countPrimes takes a few seconds at most
+    private static final long MAX_PAGE_VALUE = 1_000_000_000_000L;
+    // pi(MAX_PAGE_VALUE), the 0-based index of the first prime past the last page
+    private static final long MAX_PAGE_INDEX = 37_607_912_018L;
+    private static final String PAGE_MESSAGE = "FIND_PRIMES_PAGE";
+    // A single residue class of 10^12 takes seconds for small moduli, larger ones are proportionally faster
+    private static final long MAX_PROGRESSION_LIMIT = 1_000_000_000_000L;
+    private static final String PROGRESSION_MESSAGE = "FIND_PRIMES_PROGRESSION";
+
+    private static final String SINGLE_FLIGHT_MESSAGE = "SINGLE_FLIGHT_SHARED";
 
     private final ExecutorServiceProvider executorServiceProvider;
     private final PrimeCacheService primeCacheService;
+    // Concurrent requests for the same algorithm (or the same batch sieve) share one in-flight computation
+    private final SingleFlight<PrimeAlgorithmNames, PrimeSequence> primesInFlight = new SingleFlight<>();
+    private final SingleFlight<String, PrimeBitmap> bitmapsInFlight = new SingleFlight<>();
 
     @Autowired
     public FindPrimesServiceImpl(ExecutorServiceProvider executorServiceProvider, PrimeCacheService primeCacheService) {
@@ -41,36 +107,87 @@ public class FindPrimesServiceImpl implements FindPrimesService {
         this.primeCacheService = primeCacheService;
     }
 
-    public FindPrimesResponse findPrimes(long limit, PrimeAlgorithmNames selectedAlgorithm, boolean useCache, boolean withResult) {
+    /**
+     * Every call records a FindPrimesEvent and per-phase PrimePhaseEvents for JDK Flight Recorder, which cost next to
+     * nothing unless a recording has them enabled. withTimings also returns the phase breakdown in the response.
+     * With a deadlineMs the segmented engines stop between segments once it has passed, and the response holds the
+     * primes up to sievedUpTo with partial = true. Deadline requests never share an in-flight result, as theirs may be cut short.
+     * */
+    public FindPrimesResponse findPrimes(long limit, PrimeAlgorithmNames selectedAlgorithm, boolean useCache, boolean withResult, boolean withTimings, Long deadlineMs) {
+        Deadline deadline = deadlineMs == null ? Deadline.NONE : Deadline.afterMillis(deadlineMs);
         throwInputErrors(limit, selectedAlgorithm);
+        if (deadlineMs != null && !DEADLINE_ALGORITHMS.contains(selectedAlgorithm)) {
+            throw new FindPrimesArgException("deadlineMs is only supported by the algorithms: " + DEADLINE_ALGORITHMS);
+        }
+        FindPrimesEvent event = new FindPrimesEvent();
+        event.begin();
+        PhaseTimings timings = new PhaseTimings();
+
+        FindPrimesResponse response = calculatePrimes(limit, selectedAlgorithm, useCache, withResult, timings, event, deadline);
+        if (deadlineMs != null) {
+            event.partial = deadline.isStopped();
+            response = response.withDeadlineOutcome(deadline.isStopped(), deadline.isStopped() ? deadline.getSievedUpTo() : limit);
+        }
+
+        timings.commitEvents(response.algorithmName(), limit);
+        if (event.shouldCommit()) {
+            event.algorithm = response.algorithmName();
+            event.limit = limit;
+            event.numberOfPrimes = response.numberOfPrimes();
+            event.commit();
+        }
+        return withTimings ? response.withTimings(timings.toMap()) : response;
+    }
+
+    private FindPrimesResponse calculatePrimes(long limit, PrimeAlgorithmNames selectedAlgorithm, boolean useCache, boolean withResult, PhaseTimings timings, FindPrimesEvent event, Deadline deadline) {
         long saveToCacheDurationMs = 0;
         long saveToCacheDurationNs = 0;
 
         if (useCache) {
             logger.warn("Cached primes max limit: {}", primeCacheService.getCachedLimit());
             if (primeCacheService.isCached(limit)) {
-                return handleCacheHit(limit, withResult);
+                event.cacheHit = true;
+                return handleCacheHit(limit, withResult, timings);
             }
         }
 
         // Adjust SMART mode algorithm
         if (selectedAlgorithm == PrimeAlgorithmNames.SMART) {
-            selectedAlgorithm = limit <= SMART_LIMIT_SWITCH
-                    ? PrimeAlgorithmNames.SIEVE
-                    : PrimeAlgorithmNames.SEGMENTED_SIEVE_CONCURRENT;
+            selectedAlgorithm = chooseSmartAlgorithm(limit);
+            // The plain sieve cannot stop part way, Atkin is the fastest segmented engine on few cores
+            if (deadline != Deadline.NONE && selectedAlgorithm == PrimeAlgorithmNames.SIEVE) {
+                selectedAlgorithm = PrimeAlgorithmNames.SIEVE_ATKIN;
+            }
         }
 
-        // Generate result
-        PrimesTimerResult<long[]> timerResult = PrimesTimer.measureExecutionTime(getPrimesFn(limit, selectedAlgorithm));
-        logExecutionTime(selectedAlgorithm.name(), timerResult.durationMs());
+        // Generate result, or share the result of an identical or larger in-flight request in the same lane
+        final PrimeAlgorithmNames algorithm = selectedAlgorithm;
+        PrimesTimerResult<PrimeSequence> timerResult;
+        if (deadline != Deadline.NONE) {
+            timerResult = PrimesTimer.measureExecutionTime(getDeadlinePrimesFn(limit, algorithm, timings, deadline));
+            logExecutionTime(selectedAlgorithm.name(), timerResult.durationMs());
+        } else {
+            Supplier<PrimeSequence> primesFn = getPrimesFn(limit, algorithm, timings);
+            PrimesTimerResult<SingleFlightResult<PrimeSequence>> flightResult = PrimesTimer.measureExecutionTime(() -> primesInFlight.execute(algorithm, limit,
+                    executorServiceProvider.getMaxSharedBound(limit), primesFn));
+            PrimeSequence primes = flightResult.result().bound() > limit
+                    ? flightResult.result().result().head(flightResult.result().result().countUpTo(limit))
+                    : flightResult.result().result();
+            timerResult = new PrimesTimerResult<>(primes, flightResult.durationMs(), flightResult.durationNs());
+            event.shared = flightResult.result().shared();
+            logExecutionTime(flightResult.result().shared() ? SINGLE_FLIGHT_MESSAGE : selectedAlgorithm.name(), timerResult.durationMs());
+        }
 
-        if (useCache) {
-            // Drop cache + save result
-            PrimesTimerResult<Boolean> saveToCacheResult = PrimesTimer.measureExecutionTime(() -> primeCacheService.addPrimesToCache(timerResult.result()));
-            if (saveToCacheResult.result()) {
-                primeCacheService.setCachedLimit(limit);
-            } else {
-                logger.warn("Skipped caching - result size: {} (bytes), too large for cache max size: {} (bytes)", timerResult.result().length * 8L, primeCacheService.getMaxSafeCacheSize());
+        // A partial result still seeds the cache up to the value it fully sieved, if that is more than is cached now
+        long sievedUpTo = deadline.isStopped() ? deadline.getSievedUpTo() : limit;
+        // A request that shared a larger result must not replace the cache the leader just saved
+        if (useCache && !primeCacheService.isCached(sievedUpTo)) {
+            // Save result, which only replaces the cache if nothing larger was saved meanwhile
+            long phaseStart = timings.start();
+            PrimesTimerResult<Boolean> saveToCacheResult = PrimesTimer.measureExecutionTime(() -> primeCacheService.addPrimesToCache(timerResult.result(), sievedUpTo));
+            timings.end(PrimePhase.CACHE_SAVE, phaseStart);
+            if (!saveToCacheResult.result()) {
+                logger.warn("Skipped caching - result size: {} (bytes), too large for cache max size: {} (bytes)", timerResult.result().sizeInBytes(), primeCacheService.getMaxSafeCacheSize());
             }
             saveToCacheDurationMs = saveToCacheResult.durationMs();
             saveToCacheDurationNs = saveToCacheResult.durationNs();
@@ -78,8 +195,8 @@ public class FindPrimesServiceImpl implements FindPrimesService {
         }
 
         return new FindPrimesResponse(
-                withResult ? timerResult.result() : EMPTY_PRIMES,
-                timerResult.result().length,
+                withResult ? timerResult.result() : PrimeSequence.empty(),
+                timerResult.result().size(),
                 timerResult.durationMs() + saveToCacheDurationMs,
                 timerResult.durationNs() + saveToCacheDurationNs,
                 selectedAlgorithm.name(),
@@ -87,12 +204,342 @@ public class FindPrimesServiceImpl implements FindPrimesService {
         );
     }
 
-    private FindPrimesResponse handleCacheHit(long limit, boolean withResult) {
-        PrimesTimerResult<long[]> result = PrimesTimer.measureExecutionTime(() -> primeCacheService.getPrimesFromCacheToLimit(limit));
+    public NthPrimeResponse findNthPrime(long n) {
+        if (n > MAX_NTH_PRIME_INDEX) {
+            logger.warn("[findNthPrime]: n > {}", MAX_NTH_PRIME_INDEX);
+            throw new FindPrimesArgException("n is too large, please provide n less than or equal to: " + MAX_NTH_PRIME_INDEX);
+        }
+        PrimesTimerResult<NthPrimeResult> timerResult = PrimesTimer.measureExecutionTime(() -> PrimeCounter.nthPrime(n));
+        logExecutionTime(NTH_PRIME_MESSAGE, timerResult.durationMs());
+        NthPrimeResult result = timerResult.result();
+        return new NthPrimeResponse(
+                result.n(),
+                result.prime(),
+                result.windowLow(),
+                result.windowHigh(),
+                timerResult.durationMs(),
+                timerResult.durationNs()
+        );
+    }
+
+    public PrimeAnalyticsResponse analysePrimes(long limit, int listLimit) {
+        if (limit > MAX_ANALYTICS_LIMIT) {
+            logger.warn("[analysePrimes]: limit > {}", MAX_ANALYTICS_LIMIT);
+            throw new FindPrimesArgException("Limit is too large for analytics, please provide a limit less than or equal to: " + MAX_ANALYTICS_LIMIT);
+        }
+        if (listLimit > MAX_ANALYTICS_LIST_LIMIT) {
+            throw new FindPrimesArgException("listLimit is too large, please provide a listLimit less than or equal to: " + MAX_ANALYTICS_LIST_LIMIT);
+        }
+        PrimesTimerResult<PrimePatternAnalyzer> timerResult = PrimesTimer.measureExecutionTime(() -> {
+            PrimePatternAnalyzer analyzer = new PrimePatternAnalyzer(listLimit);
+            SegmentedSieve sieve = new SegmentedSieve(2, limit, executorServiceProvider.getSegmentSizeTuner().segmentedSieveSize());
+            while (sieve.nextSegment()) {
+                sieve.forEachPrimeInSegment(analyzer);
+            }
+            return analyzer;
+        });
+        logExecutionTime(ANALYTICS_MESSAGE, timerResult.durationMs());
+        PrimePatternAnalyzer analyzer = timerResult.result();
+        return new PrimeAnalyticsResponse(
+                limit,
+                analyzer.getPrimeCount(),
+                new PrimeAnalyticsResponse.PatternSummary(analyzer.getTwinCount(), analyzer.getTwins()),
+                new PrimeAnalyticsResponse.PatternSummary(analyzer.getTripletCount(), analyzer.getTriplets()),
+                new PrimeAnalyticsResponse.PatternSummary(analyzer.getQuadrupletCount(), analyzer.getQuadruplets()),
+                new PrimeAnalyticsResponse.Gap(analyzer.getMaxGap(), analyzer.getMaxGapStart()),
+                analyzer.getMaximalGaps().stream().map(gap -> new PrimeAnalyticsResponse.Gap(gap[0], gap[1])).toList(),
+                analyzer.getGapHistogram().entrySet().stream().map(entry -> new PrimeAnalyticsResponse.GapCount(entry.getKey(), entry.getValue())).toList(),
+                timerResult.durationMs(),
+                timerResult.durationNs()
+        );
+    }
+
+    public SumPrimesResponse sumPrimes(long limit, Integer modulus) {
+        if (limit > MAX_SUM_PRIMES_LIMIT) {
+            logger.warn("[sumPrimes]: limit > {}", MAX_SUM_PRIMES_LIMIT);
+            throw new FindPrimesArgException("Limit is too large for prime sums, please provide a limit less than or equal to: " + MAX_SUM_PRIMES_LIMIT);
+        }
+        if (modulus != null && (modulus < 1 || modulus > MAX_RESIDUE_MODULUS)) {
+            throw new FindPrimesArgException("Modulus must be between 1 and " + MAX_RESIDUE_MODULUS);
+        }
+        if (modulus != null && limit > MAX_RESIDUE_LIMIT) {
+            logger.warn("[sumPrimes]: limit > {} with a modulus", MAX_RESIDUE_LIMIT);
+            throw new FindPrimesArgException("Limit is too large for residue counts, please provide a limit less than or equal to: " + MAX_RESIDUE_LIMIT);
+        }
+        if (modulus != null && PrimeEstimator.checkResidueTablesAgainstMemory(limit, modulus)) {
+            logger.warn("Not enough memory to count residues mod {} up to limit: {}", modulus, limit);
+            throw new FindPrimesArgException("Not enough memory to count residues mod " + modulus + " up to limit: " + limit);
+        }
+
+        long startNs = System.nanoTime();
+        PrimeSums sums = modulus == null ? PrimeCounter.primeSums(limit) : PrimeCounter.primeSums(limit, modulus);
+        List<SumPrimesResponse.ResidueCount> residueCounts = null;
+        if (modulus != null) {
+            residueCounts = new ArrayList<>(modulus);
+            for (int residue = 0; residue < modulus; residue++) {
+                residueCounts.add(new SumPrimesResponse.ResidueCount(residue, sums.residueCounts()[residue]));
+            }
+        }
+        long durationNs = System.nanoTime() - startNs;
+        logExecutionTime(SUM_PRIMES_MESSAGE, durationNs / 1_000_000);
+
+        return new SumPrimesResponse(
+                limit,
+                sums.count(),
+                sums.sum(),
+                sums.sumOfSquares(),
+                modulus,
+                residueCounts,
+                durationNs / 1_000_000,
+                durationNs
+        );
+    }
+
+    /**
+     * Answers every query from a single sieve up to the largest bound in the batch:
+     * counts come from the bitmap's prefix popcounts and lists are sliced out of the same bitmap.
+     * */
+    public FindPrimesBatchResponse findPrimesBatch(List<FindPrimesBatchRequest.PrimeQuery> queries, boolean withResult) {
+        long[][] ranges = new long[queries.size()][];
+        long maxBound = 2;
+        for (int i = 0; i < queries.size(); i++) {
+            ranges[i] = toRange(i, queries.get(i));
+            maxBound = Math.max(maxBound, ranges[i][1]);
+        }
+        if (maxBound > MAX_BATCH_LIMIT) {
+            logger.warn("[findPrimesBatch]: limit > {}", MAX_BATCH_LIMIT);
+            throw new FindPrimesArgException("Limit is too large for a batch, please keep every query less than or equal to: " + MAX_BATCH_LIMIT);
+        }
+        long startNs = System.nanoTime();
+        long cachedLimit = primeCacheService.getCachedLimit();
+        if (cachedLimit >= maxBound) {
+            return findPrimesBatchFromCache(ranges, withResult, cachedLimit, startNs);
+        }
+        if (PrimeEstimator.checkBitmapAgainstMemory(maxBound)) {
+            logger.warn("Not enough memory to process limit: " + maxBound);
+            throw new FindPrimesArgException("Not enough memory to process limit: " + maxBound);
+        }
+
+        final long sieveLimit = maxBound;
+        PrimesTimerResult<SingleFlightResult<PrimeBitmap>> sieveResult = PrimesTimer.measureExecutionTime(() ->
+                bitmapsInFlight.execute(BATCH_MESSAGE, sieveLimit, executorServiceProvider.getMaxSharedBound(sieveLimit), () -> PrimeBitmap.sieve(sieveLimit, executorServiceProvider.getExecutor(sieveLimit),
+                        executorServiceProvider.getSegmentSizeTuner().bitmapWordsPerTask())));
+        PrimeBitmap bitmap = sieveResult.result().result();
+
+        long[] counts = new long[ranges.length];
+        long listedPrimes = 0;
+        for (int i = 0; i < ranges.length; i++) {
+            counts[i] = bitmap.countInRange(ranges[i][0], ranges[i][1]);
+            listedPrimes += counts[i];
+        }
+        if (withResult && listedPrimes * 8 >= Runtime.getRuntime().maxMemory() * 0.3) {
+            logger.warn("Not enough memory to list {} primes for batch", listedPrimes);
+            throw new FindPrimesArgException("Not enough memory to list " + listedPrimes + " primes, please request counts only with withResult=false");
+        }
+
+        List<FindPrimesBatchResponse.Part> parts = new ArrayList<>(ranges.length);
+        for (int i = 0; i < ranges.length; i++) {
+            PrimeSequence primes = withResult ? LongArrayPrimeSequence.of(bitmap.primesInRange(ranges[i][0], ranges[i][1])) : PrimeSequence.empty();
+            parts.add(new FindPrimesBatchResponse.Part(ranges[i][0], ranges[i][1], counts[i], primes));
+        }
+        long durationNs = System.nanoTime() - startNs;
+        logExecutionTime(BATCH_MESSAGE, durationNs / 1_000_000);
+        logger.info("[findPrimesBatch]: {} queries, sieve to {} took {} ms (shared: {})", ranges.length, bitmap.getLimit(), sieveResult.durationMs(), sieveResult.result().shared());
+
+        return new FindPrimesBatchResponse(bitmap.getLimit(), parts, durationNs / 1_000_000, durationNs);
+    }
+
+    // Every part is a view over the cache found by two binary searches, so nothing is sieved, counted or copied
+    private FindPrimesBatchResponse findPrimesBatchFromCache(long[][] ranges, boolean withResult, long cachedLimit, long startNs) {
+        List<FindPrimesBatchResponse.Part> parts = new ArrayList<>(ranges.length);
+        for (long[] range : ranges) {
+            PrimeSequence primes = primeCacheService.getPrimesFromCache(range[0], range[1]);
+            parts.add(new FindPrimesBatchResponse.Part(range[0], range[1], primes.size(), withResult ? primes : PrimeSequence.empty()));
+        }
+        long durationNs = System.nanoTime() - startNs;
+        logExecutionTime(BATCH_MESSAGE, durationNs / 1_000_000);
+        logger.info("[findPrimesBatch]: {} queries answered from the cache up to {}", ranges.length, cachedLimit);
+        return new FindPrimesBatchResponse(cachedLimit, parts, durationNs / 1_000_000, durationNs);
+    }
+
+    private long[] toRange(int index, FindPrimesBatchRequest.PrimeQuery query) {
+        boolean hasLimit = query.limit() != null;
+        boolean hasRange = query.from() != null || query.to() != null;
+        if (hasLimit == hasRange) {
+            throw new FindPrimesArgException("Query " + index + " must have either a limit or a from/to range");
+        }
+        if (hasLimit) {
+            return new long[]{2, query.limit()};
+        }
+        if (query.from() == null || query.to() == null) {
+            throw new FindPrimesArgException("Query " + index + " must have both from and to");
+        }
+        if (query.from() > query.to()) {
+            throw new FindPrimesArgException("Query " + index + " has from greater than to");
+        }
+        return new long[]{query.from(), query.to()};
+    }
+
+    /**
+     * Streams the primes in [from, limit] as one long[] per sieve segment. Flux.generate only sieves the next segment
+     * when the subscriber requests it, so a slow client throttles the sieve instead of the whole result being buffered.
+     * Arguments are checked eagerly so a bad request fails before the response is committed.
+     * */
+    public Flux<long[]> streamPrimes(long from, long limit) {
+        if (limit > MAX_STREAM_LIMIT) {
+            logger.warn("[streamPrimes]: limit > {}", MAX_STREAM_LIMIT);
+            throw new FindPrimesArgException("Limit is too large for streaming, please provide a limit less than or equal to: " + MAX_STREAM_LIMIT);
+        }
+        if (from > limit) {
+            throw new FindPrimesArgException("from must be less than or equal to limit");
+        }
+        long startNs = System.nanoTime();
+        return Flux.<long[], SegmentedSieve>generate(() -> new SegmentedSieve(from, limit, executorServiceProvider.getSegmentSizeTuner().segmentedSieveSize()), (sieve, sink) -> {
+                    if (sieve.nextSegment()) sink.next(sieve.primesInSegment());
+                    else sink.complete();
+                    return sieve;
+                })
+                .doOnComplete(() -> logExecutionTime(STREAM_MESSAGE, (System.nanoTime() - startNs) / 1_000_000));
+    }
+
+    /**
+     * Returns pageSize primes starting at a cursor, a 0-based prime index, or a value (at most one of them, or none for the start).
+     * Primes are copied from the cache by index while it lasts, and the rest are sieved in a window just wide enough
+     * for the page, so a page costs O(pageSize) whatever its position. Only locating a start index or value outside
+     * the cache costs more, once, through PrimeCounter.
+     * */
+    public PrimesPageResponse findPrimesPage(String cursor, Long index, Long from, int pageSize) {
+        if ((cursor != null ? 1 : 0) + (index != null ? 1 : 0) + (from != null ? 1 : 0) > 1) {
+            throw new FindPrimesArgException("Please provide only one of cursor, index or from");
+        }
+        PrimesTimerResult<PrimesPage> timerResult = PrimesTimer.measureExecutionTime(() -> {
+            PrimeSequence cached = primeCacheService.getCachedPrimes();
+            PrimesPageCursor start = cursor != null ? PrimesPageCursor.decode(cursor)
+                    : index != null ? locateIndex(index, cached)
+                    : from != null ? locateValue(from, cached)
+                    : new PrimesPageCursor(0, 2);
+
+            long[] primes = new long[pageSize];
+            int primesFromCache = cached != null && start.index() < cached.size() ? cached.copyTo(start.index(), primes) : 0;
+            long sieveFrom = primesFromCache > 0 ? primes[primesFromCache - 1] + 1 : start.value();
+            int filled = fillFromSieve(primes, primesFromCache, sieveFrom);
+            return new PrimesPage(start, filled == pageSize ? primes : Arrays.copyOf(primes, filled), primesFromCache);
+        });
+        logExecutionTime(PAGE_MESSAGE, timerResult.durationMs());
+        PrimesPage page = timerResult.result();
+        long[] primes = page.primes();
+        String nextCursor = primes.length < pageSize ? null
+                : new PrimesPageCursor(page.start().index() + primes.length, primes[primes.length - 1] + 1).encode();
+        return new PrimesPageResponse(
+                primes,
+                page.start().index(),
+                page.primesFromCache(),
+                nextCursor,
+                timerResult.durationMs(),
+                timerResult.durationNs()
+        );
+    }
+
+    private record PrimesPage(PrimesPageCursor start, long[] primes, int primesFromCache) {}
+
+    private PrimesPageCursor locateIndex(long index, PrimeSequence cached) {
+        if (cached != null && index < cached.size()) {
+            return new PrimesPageCursor(index, cached.get(index));
+        }
+        if (index >= MAX_PAGE_INDEX) {
+            logger.warn("[findPrimesPage]: index >= {}", MAX_PAGE_INDEX);
+            throw new FindPrimesArgException("index is too large, please provide an index less than: " + MAX_PAGE_INDEX);
+        }
+        return new PrimesPageCursor(index, PrimeCounter.nthPrime(index + 1).prime());
+    }
+
+    private PrimesPageCursor locateValue(long from, PrimeSequence cached) {
+        if (from > MAX_PAGE_VALUE) {
+            logger.warn("[findPrimesPage]: from > {}", MAX_PAGE_VALUE);
+            throw new FindPrimesArgException("from is too large, please provide from less than or equal to: " + MAX_PAGE_VALUE);
+        }
+        boolean inCache = cached != null && !cached.isEmpty() && from <= cached.get(cached.size() - 1);
+        return new PrimesPageCursor(inCache ? cached.countUpTo(from - 1) : PrimeCounter.countPrimes(from - 1), from);
+    }
+
+    /**
+     * Sieves primes from value onwards into primes[filled..] until the array is full or MAX_PAGE_VALUE is passed.
+     * Each window is sized from the prime density near value (~ln(value) numbers per prime) with 10% slack,
+     * so one window almost always fills the page.
+     * */
+    private static int fillFromSieve(long[] primes, int filled, long value) {
+        while (filled < primes.length && value <= MAX_PAGE_VALUE) {
+            long width = Math.max(1024, (long) ((primes.length - filled) * Math.log(Math.max(value, 3)) * 1.1));
+            long to = Math.min(value + width, MAX_PAGE_VALUE);
+            SegmentedSieve sieve = new SegmentedSieve(value, to);
+            while (filled < primes.length && sieve.nextSegment()) {
+                for (long candidate = sieve.segmentLow(); candidate <= sieve.segmentHigh() && filled < primes.length; candidate++) {
+                    if (sieve.isPrime(candidate)) primes[filled++] = candidate;
+                }
+            }
+            value = to + 1;
+        }
+        return filled;
+    }
+
+    /**
+     * Lists or counts the primes p in [from, limit] with p = residue (mod modulus), sieving only that residue class
+     * rather than every integer and filtering.
+     * */
+    public ProgressionPrimesResponse findPrimesInProgression(long from, long limit, long modulus, long residue, boolean withResult) {
+        if (limit > MAX_PROGRESSION_LIMIT) {
+            logger.warn("[findPrimesInProgression]: limit > {}", MAX_PROGRESSION_LIMIT);
+            throw new FindPrimesArgException("Limit is too large for a progression, please provide a limit less than or equal to: " + MAX_PROGRESSION_LIMIT);
+        }
+        if (from > limit) {
+            throw new FindPrimesArgException("from must be less than or equal to limit");
+        }
+        if (residue < 0 || residue >= modulus) {
+            throw new FindPrimesArgException("residue must be in [0, modulus)");
+        }
+        if (withResult && PrimeEstimator.checkProgressionAgainstMemory(limit, ProgressionSieve.eulerPhi(modulus))) {
+            logger.warn("Not enough memory to list primes {} mod {} up to limit: {}", residue, modulus, limit);
+            throw new FindPrimesArgException("Not enough memory to list primes " + residue + " mod " + modulus + " up to limit: " + limit + ", please use withResult=false");
+        }
+        int segmentSize = executorServiceProvider.getSegmentSizeTuner().segmentedSieveSize();
+        PrimesTimerResult<long[]> timerResult = PrimesTimer.measureExecutionTime(() -> withResult
+                ? ProgressionSieve.list(from, limit, modulus, residue, segmentSize)
+                : new long[]{ProgressionSieve.count(from, limit, modulus, residue, segmentSize)});
+        logExecutionTime(PROGRESSION_MESSAGE, timerResult.durationMs());
+        long[] primes = timerResult.result();
+        return new ProgressionPrimesResponse(
+                withResult ? primes : null,
+                from,
+                limit,
+                modulus,
+                residue,
+                withResult ? primes.length : primes[0],
+                timerResult.durationMs(),
+                timerResult.durationNs()
+        );
+    }
+
+    public SieveTuningResponse getSieveTuning() {
+        return executorServiceProvider.getSegmentSizeTuner().describe();
+    }
+
+    public static PrimeAlgorithmNames chooseSmartAlgorithm(long limit) {
+        if (limit <= SMART_LIMIT_SWITCH) {
+            return PrimeAlgorithmNames.SIEVE;
+        }
+        return Runtime.getRuntime().availableProcessors() >= SMART_CONCURRENT_MIN_PROCESSORS
+                ? PrimeAlgorithmNames.SEGMENTED_SIEVE_CONCURRENT
+                : PrimeAlgorithmNames.SIEVE_ATKIN;
+    }
+
+    private FindPrimesResponse handleCacheHit(long limit, boolean withResult, PhaseTimings timings) {
+        long phaseStart = timings.start();
+        PrimesTimerResult<PrimeSequence> result = PrimesTimer.measureExecutionTime(() -> primeCacheService.getPrimesFromCacheToLimit(limit));
+        timings.end(PrimePhase.CACHE_LOOKUP, phaseStart);
         logExecutionTime(CACHE_HIT_MESSAGE, result.durationMs());
         return new FindPrimesResponse(
-                withResult ? result.result() : EMPTY_PRIMES,
-                result.result().length,
+                withResult ? result.result() : PrimeSequence.empty(),
+                result.result().size(),
                 result.durationMs(),
                 result.durationNs(),
                 CACHE_HIT_MESSAGE,
@@ -100,27 +547,43 @@ public class FindPrimesServiceImpl implements FindPrimesService {
         );
     }
 
-    private Supplier<long[]> getPrimesFn(long limit, PrimeAlgorithmNames selectedAlgorithm) {
+    // SIEVE and SIEVE_ATKIN build the narrowest representation directly, the other engines are wrapped as they are.
+    // Only the engines SMART can choose, plus the plain segmented sieve, report phase timings
+    private Supplier<PrimeSequence> getPrimesFn(long limit, PrimeAlgorithmNames selectedAlgorithm, PhaseTimings timings) {
         return switch(selectedAlgorithm) {
-            case NAIVE:                         yield () -> findPrimesNaive(limit);
-            case SIEVE:                         yield () -> findPrimesWithSieve(limit);
-            case SIEVE_BITSET:                  yield () -> findPrimesWithSieve_BitSet(limit);
-            case SIEVE_STREAMS:                 yield () -> findPrimesWithSieve_StreamsAPI(limit);
-            case SEGMENTED_SIEVE:               yield () -> findPrimesWithSegmentedSieve(limit);
-            case SEGMENTED_SIEVE_BITSET:        yield () -> findPrimesWithSegmentedSieve_BitSet(limit);
-            case SEGMENTED_SIEVE_STREAMS:       yield () -> findPrimesWithSegmentedSieve_StreamsAPI(limit);
-            case SEGMENTED_SIEVE_CONCURRENT:    yield handleConcurrentSieve(limit);
+            case NAIVE:                         yield () -> LongArrayPrimeSequence.of(findPrimesNaive(limit));
+            case SIEVE:                         yield () -> findPrimeSequenceWithSieve(limit, timings);
+            case SIEVE_BITSET:                  yield () -> LongArrayPrimeSequence.of(findPrimesWithSieve_BitSet(limit));
+            case SIEVE_STREAMS:                 yield () -> LongArrayPrimeSequence.of(findPrimesWithSieve_StreamsAPI(limit));
+            case SEGMENTED_SIEVE:               yield () -> LongArrayPrimeSequence.of(findPrimesWithSegmentedSieve(limit, timings));
+            case SEGMENTED_SIEVE_BITSET:        yield () -> LongArrayPrimeSequence.of(findPrimesWithSegmentedSieve_BitSet(limit));
+            case SEGMENTED_SIEVE_STREAMS:       yield () -> LongArrayPrimeSequence.of(findPrimesWithSegmentedSieve_StreamsAPI(limit));
+            case SEGMENTED_SIEVE_CONCURRENT:    yield handleConcurrentSieve(limit, timings);
+            case SIEVE_ATKIN:                   yield () -> findPrimeSequenceWithSieveOfAtkin(limit, timings);
             case SMART:                         throw new FindPrimesArgException("Failed to choose algorithm in SMART mode");
         };
     }
 
+    private Supplier<PrimeSequence> getDeadlinePrimesFn(long limit, PrimeAlgorithmNames selectedAlgorithm, PhaseTimings timings, Deadline deadline) {
+        return switch(selectedAlgorithm) {
+            case SEGMENTED_SIEVE:               yield () -> LongArrayPrimeSequence.of(findPrimesWithSegmentedSieve(limit, timings, deadline));
+            case SEGMENTED_SIEVE_CONCURRENT:    yield () -> LongArrayPrimeSequence.of(findPrimesWithSegmentedSieve_Concurrent(limit,
+                    executorServiceProvider.getDynamicSegmentSize(limit), executorServiceProvider.getExecutor(limit),
+                    executorServiceProvider.getMaxSegmentsInFlight(), timings, deadline));
+            case SIEVE_ATKIN:                   yield () -> findPrimeSequenceWithSieveOfAtkin(limit, timings, deadline);
+            default:                            throw new FindPrimesArgException("deadlineMs is only supported by the algorithms: " + DEADLINE_ALGORITHMS);
+        };
+    }
+
     private void logExecutionTime(String algorithmName, long timeInMs) {
         logger.info("Execution Time for {}: {} ms", algorithmName, timeInMs);
     }
 
-    private Supplier<long[]> handleConcurrentSieve(long limit) {
-        ExecutorService executor = executorServiceProvider.getExecutor();
-        return () -> findPrimesWithSegmentedSieve_Concurrent(limit, executorServiceProvider.getDynamicSegmentSize(limit), executor);
+    private Supplier<PrimeSequence> handleConcurrentSieve(long limit, PhaseTimings timings) {
+        // Cost is the count of numbers sieved, which decides the lane the segments are scheduled in
+        Executor executor = executorServiceProvider.getExecutor(limit);
+        return () -> LongArrayPrimeSequence.of(findPrimesWithSegmentedSieve_Concurrent(limit,
+                executorServiceProvider.getDynamicSegmentSize(limit), executor, executorServiceProvider.getMaxSegmentsInFlight(), timings));
     }
 
     private void throwInputErrors(long limit, PrimeAlgorithmNames selectedAlgorithm) {
@@ -1,18 +1,20 @@
 package com.example.msvcprimefinder.service;
 
-import com.example.msvcprimefinder.util.PrimeEstimator;
+import com.example.msvcprimefinder.model.primes.GapEncodedPrimeSequence;
+import com.example.msvcprimefinder.model.primes.PrimeSequence;
+import com.example.msvcprimefinder.util.type.CachedPrimes;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
-import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReference;
 
 @Service
 public class PrimeCacheService {
     private static final Logger logger = LoggerFactory.getLogger(PrimeCacheService.class);
     private static final double MAX_CACHE_PERCENTAGE = 0.2;
-    private long cachedPrimesLimit = 0;
-    private long[] cachedPrimes;
+    // Only ever replaced by a snapshot with a larger limit, so a limit that was seen cached stays cached
+    private final AtomicReference<CachedPrimes> cache = new AtomicReference<>(CachedPrimes.EMPTY);
 
     public long getMaxSafeCacheSize() {
         long maxHeapSize = Runtime.getRuntime().maxMemory();
@@ -21,36 +23,58 @@ public class PrimeCacheService {
         return maxSafeCacheSize;
     }
 
-    public Boolean addPrimesToCache(long[] primes) {
-        if (primes.length * 8L > getMaxSafeCacheSize()) {
+    /**
+     * Stores primes gap-encoded (~1.13 bytes per prime) when every gap fits in a byte, which holds for any limit
+     * a long[] cache could ever have held, and falls back to the sequence as given otherwise.
+     * Requests for different bounds can finish at the same time, so the primes and their limit are published
+     * together and only replace a cache with a smaller limit; returns false only when the primes are too large.
+     * */
+    public Boolean addPrimesToCache(PrimeSequence primes, long limit) {
+        if (GapEncodedPrimeSequence.estimateBytes(primes.size()) > getMaxSafeCacheSize()) {
             return false;
         }
-        cachedPrimes = new long[primes.length];
-        System.arraycopy(primes, 0, cachedPrimes, 0, primes.length);
+        PrimeSequence encoded = GapEncodedPrimeSequence.tryEncode(primes);
+        if (encoded == null && primes.sizeInBytes() > getMaxSafeCacheSize()) {
+            return false;
+        }
+        CachedPrimes next = new CachedPrimes(encoded != null ? encoded : primes, limit);
+        CachedPrimes current = cache.get();
+        while (current.limit() < limit && !cache.compareAndSet(current, next)) {
+            current = cache.get();
+        }
         return true;
     }
 
-    public long[] getPrimesFromCacheToLimit(long limit) {
-        long[] primesToLimit = new long[PrimeEstimator.estimatePrimesArrayLength(limit)];
-        int count = 0;
-        for (long prime : cachedPrimes) {
-            if (prime <= limit) {
-                primesToLimit[count++] = prime;
-            }
-            else break;
-        }
-        return Arrays.copyOf(primesToLimit, count);
+    /** A view of the cached primes up to limit, no copy is made */
+    public PrimeSequence getPrimesFromCacheToLimit(long limit) {
+        PrimeSequence primes = cache.get().primes();
+        return primes.head(primes.countUpTo(limit));
+    }
+
+    /**
+     * A view of the cached primes in [from, limit], both ends found by binary search over the cache,
+     * so a hit costs O(log n) whatever its size and nothing is copied until the view is serialized
+     * */
+    public PrimeSequence getPrimesFromCache(long from, long limit) {
+        PrimeSequence primes = cache.get().primes();
+        long toIndex = primes.countUpTo(limit);
+        return primes.slice(Math.min(primes.countUpTo(from - 1), toIndex), toIndex);
+    }
+
+    public PrimeSequence getCachedPrimes() {
+        return cache.get().primes();
     }
 
     public boolean isCached(long limit) {
-        return cachedPrimesLimit >= limit;
+        return cache.get().limit() >= limit;
     }
 
     public long getCachedLimit() {
-        return cachedPrimesLimit;
+        return cache.get().limit();
     }
 
-    public void setCachedLimit(long limit) {
-        cachedPrimesLimit = limit;
+    /** Drops the cache, the next save of any size replaces it */
+    public void clear() {
+        cache.set(CachedPrimes.EMPTY);
     }
 }
@@ -0,0 +1,13 @@
+package com.example.msvcprimefinder.service;
+
+import com.example.msvcprimefinder.model.enums.ExportFormat;
+import com.example.msvcprimefinder.response.PrimesExportResponse;
+import com.example.msvcprimefinder.util.type.ExportFile;
+
+import java.util.Optional;
+
+public interface PrimeExportService {
+    PrimesExportResponse export(long from, long limit, ExportFormat format);
+
+    Optional<ExportFile> findExport(String id);
+}
@@ -0,0 +1,273 @@
+package com.example.msvcprimefinder.service;
+
+import com.example.msvcprimefinder.algo.PrimeCounter;
+import com.example.msvcprimefinder.algo.SegmentedSieve;
+import com.example.msvcprimefinder.exception.ConcurrentSieveException;
+import com.example.msvcprimefinder.exception.FindPrimesArgException;
+import com.example.msvcprimefinder.model.enums.ExportFormat;
+import com.example.msvcprimefinder.response.PrimesExportResponse;
+import com.example.msvcprimefinder.serializer.PrimeFileWriter;
+import com.example.msvcprimefinder.util.LaneScheduler;
+import com.example.msvcprimefinder.util.PrimeEstimator;
+import com.example.msvcprimefinder.util.PrimesTimer;
+import com.example.msvcprimefinder.util.SingleFlight;
+import com.example.msvcprimefinder.util.type.ExportFile;
+import com.example.msvcprimefinder.util.type.PrimesTimerResult;
+import com.example.msvcprimefinder.util.type.SingleFlightResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Semaphore;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Writes all primes in [from, limit] to a file in the export directory, one sieve segment at a time, so an export
+ * needs one segment and one direct buffer of memory whatever its size.
+ * The file name is derived from the request alone, so an identical request finds the file already there and returns
+ * at once, and concurrent identical requests share one write through SingleFlight. A file only gets its final name
+ * by an atomic move once complete, so a name that exists is always a whole export.
+ * Writes run segment by segment as tasks in the bulk lane of the LaneScheduler, so interactive requests get the workers
+ * between segments, and at most primefinder.export.max-concurrent writes run at once while the others wait their turn.
+ * The directory is bounded: exports older than primefinder.export.ttl-ms are deleted, and the oldest ones go first
+ * whenever a new export would take the directory past primefinder.export.max-total-bytes.
+ * */
+@Service
+public class PrimeExportServiceImpl implements PrimeExportService {
+    private static final Logger logger = LoggerFactory.getLogger(PrimeExportServiceImpl.class);
+    // Half gaps of the binary format fit a byte below ~3x10^11, and a text export up to here is already ~50GB
+    public static final long MAX_EXPORT_LIMIT = 100_000_000_000L;
+    private static final Pattern EXPORT_ID = Pattern.compile("primes-(\\d+)-(\\d+)\\.(bin|txt)");
+    private static final String PARTIAL_SUFFIX = ".part";
+    private static final String DOWNLOAD_PATH = "/api/find-primes/export/";
+    private static final String EXPORT_MESSAGE = "EXPORT";
+
+    private final ExecutorServiceProvider executorServiceProvider;
+    private final Path directory;
+    private final long ttlMs;
+    private final long maxTotalBytes;
+    private final Semaphore writeSlots;
+    private final SingleFlight<String, ExportFile> singleFlight = new SingleFlight<>();
+
+    @Autowired
+    public PrimeExportServiceImpl(ExecutorServiceProvider executorServiceProvider,
+                                  @Value("${primefinder.export.dir:${java.io.tmpdir}/primefinder-exports}") Path directory,
+                                  @Value("${primefinder.export.ttl-ms:86400000}") long ttlMs,
+                                  @Value("${primefinder.export.max-total-bytes:10737418240}") long maxTotalBytes,
+                                  @Value("${primefinder.export.max-concurrent:1}") int maxConcurrent) throws IOException {
+        this.executorServiceProvider = executorServiceProvider;
+        this.directory = Files.createDirectories(directory);
+        this.ttlMs = ttlMs;
+        this.maxTotalBytes = maxTotalBytes;
+        this.writeSlots = new Semaphore(Math.max(1, maxConcurrent), true);
+        deletePartialFiles();
+        enforceRetention(0);
+    }
+
+    public PrimesExportResponse export(long from, long limit, ExportFormat format) {
+        if (limit > MAX_EXPORT_LIMIT) {
+            logger.warn("[export]: limit > {}", MAX_EXPORT_LIMIT);
+            throw new FindPrimesArgException("Limit is too large for an export, please provide a limit less than or equal to: " + MAX_EXPORT_LIMIT);
+        }
+        if (from > limit) {
+            throw new FindPrimesArgException("from must be less than or equal to limit");
+        }
+        String id = "primes-" + from + "-" + limit + "." + format.extension();
+        PrimesTimerResult<SingleFlightResult<ExportFile>> timerResult = PrimesTimer.measureExecutionTime(() ->
+                singleFlight.execute(id, 0, () -> findExport(id).orElseGet(() -> write(id, from, limit, format))));
+        logExecutionTime(timerResult.durationMs());
+        SingleFlightResult<ExportFile> flight = timerResult.result();
+        ExportFile file = flight.result();
+        boolean reused = flight.shared() || file.count() < 0;
+        long count = file.count() >= 0 ? file.count() : countPrimes(from, limit);
+        return new PrimesExportResponse(id, format, from, limit, count, file.size(), reused, DOWNLOAD_PATH + id,
+                timerResult.durationMs(), timerResult.durationNs());
+    }
+
+    /**
+     * The finished export with this id, empty for an unknown id or one that does not name an export.
+     * A file found on disk carries no count, so count is -1 and export() recomputes it with PrimeCounter instead of sieving.
+     * */
+    public Optional<ExportFile> findExport(String id) {
+        Matcher matcher = EXPORT_ID.matcher(id);
+        if (!matcher.matches()) {
+            return Optional.empty();
+        }
+        Path path = directory.resolve(id);
+        try {
+            if (isExpired(Files.getLastModifiedTime(path))) {
+                deleteQuietly(path);
+                return Optional.empty();
+            }
+            return Optional.of(new ExportFile(id, path, ExportFormat.fromExtension(matcher.group(3)), Files.size(path), -1));
+        } catch (IOException e) {
+            return Optional.empty();
+        }
+    }
+
+    private ExportFile write(String id, long from, long limit, ExportFormat format) {
+        try {
+            writeSlots.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ConcurrentSieveException("Interrupted while waiting for a free export slot", e);
+        }
+        try {
+            long estimate = checkDiskSpace(from, limit, format);
+            enforceRetention(estimate);
+            return writeFile(id, from, limit, format);
+        } finally {
+            writeSlots.release();
+        }
+    }
+
+    private ExportFile writeFile(String id, long from, long limit, ExportFormat format) {
+        Path target = directory.resolve(id);
+        Path partial = null;
+        try {
+            partial = Files.createTempFile(directory, id, PARTIAL_SUFFIX);
+            long count;
+            try (FileChannel channel = FileChannel.open(partial, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                PrimeFileWriter writer = new PrimeFileWriter(channel, format);
+                SegmentedSieve sieve = new SegmentedSieve(from, limit, executorServiceProvider.getSegmentSizeTuner().segmentedSieveSize());
+                // One task per segment, joining each before the next keeps the file in order and frees the worker in between
+                LaneScheduler.RequestExecutor executor = executorServiceProvider.getBulkExecutor();
+                boolean more = true;
+                while (more) {
+                    more = join(CompletableFuture.supplyAsync(() -> writeSegment(sieve, writer), executor));
+                }
+                writer.finish();
+                count = writer.count();
+            }
+            Files.move(partial, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            logger.info("[export]: wrote {} primes to {}", count, target);
+            return new ExportFile(id, target, format, Files.size(target), count);
+        } catch (IOException e) {
+            deleteQuietly(partial);
+            logger.error("[export]: failed to write {}: {}", id, e.getMessage());
+            throw new UncheckedIOException(e);
+        } catch (RuntimeException e) {
+            // Includes the UncheckedIOException of a failed write from inside the sieve loop
+            deleteQuietly(partial);
+            logger.error("[export]: failed to write {}: {}", id, e.getMessage());
+            throw e;
+        }
+    }
+
+    private static boolean writeSegment(SegmentedSieve sieve, PrimeFileWriter writer) {
+        if (!sieve.nextSegment()) return false;
+        sieve.forEachPrimeInSegment(writer);
+        return true;
+    }
+
+    // The segment's own exception rather than the CompletionException wrapping it
+    private static boolean join(CompletableFuture<Boolean> segment) {
+        try {
+            return segment.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            throw e;
+        }
+    }
+
+    // Refuses an export that would obviously not fit, rather than filling the disk and failing halfway, and returns its estimated size
+    private long checkDiskSpace(long from, long limit, ExportFormat format) {
+        long primes = PrimeEstimator.estimatePrimeCount(limit) - (from > 2 ? PrimeEstimator.estimatePrimeCount(from - 1) : 0);
+        long bytesPerPrime = format == ExportFormat.BINARY ? 1 : Long.toString(limit).length() + 1;
+        long estimate = Math.max(0, primes) * bytesPerPrime + PrimeFileWriter.HEADER_SIZE;
+        if (estimate > maxTotalBytes) {
+            throw new FindPrimesArgException("This export needs about " + estimate + " bytes, more than the " + maxTotalBytes + " bytes kept for exports");
+        }
+        try {
+            long usable = Files.getFileStore(directory).getUsableSpace();
+            if (estimate > usable) {
+                throw new FindPrimesArgException("Not enough disk space for this export, it needs about " + estimate + " bytes and " + usable + " are free");
+            }
+        } catch (IOException e) {
+            logger.warn("[export]: could not read the free space of {}: {}", directory, e.getMessage());
+        }
+        return estimate;
+    }
+
+    /**
+     * Deletes the exports older than the TTL, then the oldest ones until reservedBytes more fit under maxTotalBytes.
+     * A download already streaming a deleted file keeps reading it, the file is only gone for new requests.
+     * */
+    private synchronized void enforceRetention(long reservedBytes) {
+        List<StoredExport> exports = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, path -> EXPORT_ID.matcher(path.getFileName().toString()).matches())) {
+            for (Path file : files) {
+                try {
+                    BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+                    exports.add(new StoredExport(file, attributes.size(), attributes.lastModifiedTime()));
+                } catch (IOException e) {
+                    logger.debug("[export]: {} is gone: {}", file, e.getMessage());
+                }
+            }
+        } catch (IOException e) {
+            logger.warn("[export]: could not list {}: {}", directory, e.getMessage());
+            return;
+        }
+        exports.sort(Comparator.comparing(StoredExport::lastModified));
+
+        long totalBytes = exports.stream().mapToLong(StoredExport::size).sum();
+        for (StoredExport export : exports) {
+            boolean expired = isExpired(export.lastModified());
+            if (!expired && totalBytes + reservedBytes <= maxTotalBytes) break;
+            deleteQuietly(export.path());
+            totalBytes -= export.size();
+            logger.info("[export]: deleted {} ({})", export.path().getFileName(), expired ? "expired" : "over the size limit");
+        }
+    }
+
+    private record StoredExport(Path path, long size, FileTime lastModified) {}
+
+    private boolean isExpired(FileTime lastModified) {
+        return System.currentTimeMillis() - lastModified.toMillis() > ttlMs;
+    }
+
+    private static long countPrimes(long from, long limit) {
+        return PrimeCounter.countPrimes(limit) - (from > 2 ? PrimeCounter.countPrimes(from - 1) : 0);
+    }
+
+    // Leftovers of writes interrupted by a crash or a restart
+    private void deletePartialFiles() throws IOException {
+        try (DirectoryStream<Path> partials = Files.newDirectoryStream(directory, "*" + PARTIAL_SUFFIX)) {
+            for (Path partial : partials) {
+                deleteQuietly(partial);
+            }
+        }
+    }
+
+    private static void deleteQuietly(Path path) {
+        if (path == null) return;
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            logger.warn("[export]: could not delete {}: {}", path, e.getMessage());
+        }
+    }
+
+    private void logExecutionTime(long timeInMs) {
+        logger.info("Execution Time for {}: {} ms", EXPORT_MESSAGE, timeInMs);
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.msvcprimefinder.service;
+
+import com.example.msvcprimefinder.algo.SegmentedSieve;
+import com.example.msvcprimefinder.response.SieveTuningResponse;
+import com.example.msvcprimefinder.util.CacheTopologyReader;
+import com.example.msvcprimefinder.util.type.CacheTopology;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * Picks segment and task sizes for the sieve engines from the cache sizes, instead of from free heap.
+ * A segment is sized to half of the L2 one worker thread gets (the rest is for the base primes it walks), never below L1d.
+ * The concurrent sieve also caps a task at limit / (threads * MIN_TASKS_PER_THREAD) so small limits still spread over every thread,
+ * and keeps at most SEGMENTS_IN_FLIGHT_PER_THREAD segment buffers per thread.
+ * With primefinder.tuner.calibrate=true a short single-threaded sweep at startup replaces the cache-derived segment size
+ * with the fastest of a few candidates around it.
+ * */
+@Component
+public class SegmentSizeTuner {
+    private static final Logger logger = LoggerFactory.getLogger(SegmentSizeTuner.class);
+    public static final int MIN_TASKS_PER_THREAD = 4;
+    // One segment being sieved and one queued behind it per thread keeps every worker busy
+    public static final int SEGMENTS_IN_FLIGHT_PER_THREAD = 2;
+    // Sieve [10^9, 10^9 + 2^24) per candidate: base primes up to ~31623 behave like a mid-sized request
+    private static final long CALIBRATION_FROM = 1_000_000_000L;
+    private static final int CALIBRATION_WIDTH = 1 << 24;
+    private static final int CALIBRATION_ROUNDS = 3;
+
+    private final CacheTopology topology;
+    private final int threads;
+    private final long perThreadL2Bytes;
+    private final long segmentBytes;
+    private final List<SieveTuningResponse.CalibrationRun> calibrationRuns;
+
+    @Autowired
+    public SegmentSizeTuner(@Value("${primefinder.tuner.calibrate:false}") boolean calibrate) {
+        this(CacheTopologyReader.read(), Runtime.getRuntime().availableProcessors(), calibrate);
+    }
+
+    public SegmentSizeTuner(CacheTopology topology, int threads, boolean calibrate) {
+        this.topology = topology;
+        this.threads = threads;
+        // Cores that share an L2 (e.g. efficiency core clusters) split it between the threads running on them
+        this.perThreadL2Bytes = topology.l2Bytes() / Math.max(1, Math.min(threads, topology.l2SharedCpus()));
+        long cacheSegmentBytes = Math.max(topology.l1dBytes(), perThreadL2Bytes / 2);
+        this.calibrationRuns = calibrate ? calibrate(cacheSegmentBytes) : List.of();
+        this.segmentBytes = calibrationRuns.isEmpty() ? cacheSegmentBytes : fastest(calibrationRuns);
+        logger.info("[Segment Size Tuner] {} threads, L1d {}B, L2 {}B per thread, segment {}B{}",
+                threads, topology.l1dBytes(), perThreadL2Bytes, segmentBytes, calibrate ? " (calibrated)" : "");
+    }
+
+    /** Numbers per task for findPrimesWithSegmentedSieve_Concurrent, one boolean per number */
+    public long concurrentSegmentSize(long limit) {
+        long perTask = (limit + (long) threads * MIN_TASKS_PER_THREAD - 1) / ((long) threads * MIN_TASKS_PER_THREAD);
+        return Math.max(1, Math.min(segmentBytes, Math.max(topology.l1dBytes(), perTask)));
+    }
+
+    /** Segment buffers the concurrent sieve may have allocated at once, so its sieve memory is this times the segment size */
+    public int maxSegmentsInFlight() {
+        return threads * SEGMENTS_IN_FLIGHT_PER_THREAD;
+    }
+
+    /**
+     * Numbers per segment for the single-threaded SegmentedSieve windows (analytics, streams, progressions and exports),
+     * one boolean per number. The SEGMENTED_SIEVE engine keeps its sqrt(limit) segments.
+     * */
+    public int segmentedSieveSize() {
+        return (int) segmentBytes;
+    }
+
+    /** Bitmap words per PrimeBitmap task, each 64-bit word covers 128 numbers */
+    public int bitmapWordsPerTask() {
+        return (int) Math.max(1, segmentBytes / Long.BYTES);
+    }
+
+    public SieveTuningResponse describe() {
+        long bitmapWords = bitmapWordsPerTask();
+        return new SieveTuningResponse(topology, threads, perThreadL2Bytes, segmentBytes, MIN_TASKS_PER_THREAD, maxSegmentsInFlight(),
+                !calibrationRuns.isEmpty(), calibrationRuns, List.of(
+                new SieveTuningResponse.EngineSizing("SEGMENTED_SIEVE_CONCURRENT", segmentBytes, segmentBytes),
+                new SieveTuningResponse.EngineSizing("SEGMENTED_SIEVE_WINDOW", segmentedSieveSize(), segmentedSieveSize()),
+                new SieveTuningResponse.EngineSizing("PRIME_BITMAP", bitmapWords * 128, bitmapWords * Long.BYTES)
+        ));
+    }
+
+    private List<SieveTuningResponse.CalibrationRun> calibrate(long cacheSegmentBytes) {
+        TreeSet<Long> candidates = new TreeSet<>(List.of(
+                topology.l1dBytes(), cacheSegmentBytes / 2, cacheSegmentBytes, perThreadL2Bytes,
+                Math.min(perThreadL2Bytes * 2, topology.l3Bytes() / Math.max(1, Math.min(threads, topology.l3SharedCpus())))
+        ));
+        candidates.removeIf(candidate -> candidate < topology.l1dBytes() || candidate > Integer.MAX_VALUE);
+        List<SieveTuningResponse.CalibrationRun> runs = new ArrayList<>();
+        for (long candidate : candidates) {
+            long bestNs = Long.MAX_VALUE;
+            for (int round = 0; round < CALIBRATION_ROUNDS; round++) {
+                long start = System.nanoTime();
+                sweep((int) candidate);
+                bestNs = Math.min(bestNs, System.nanoTime() - start);
+            }
+            runs.add(new SieveTuningResponse.CalibrationRun(candidate, bestNs));
+        }
+        return runs;
+    }
+
+    private static long sweep(int segmentSize) {
+        SegmentedSieve sieve = new SegmentedSieve(CALIBRATION_FROM, CALIBRATION_FROM + CALIBRATION_WIDTH - 1, segmentSize);
+        long count = 0;
+        while (sieve.nextSegment()) {
+            count += sieve.countPrimesInSegment();
+        }
+        return count;
+    }
+
+    private static long fastest(List<SieveTuningResponse.CalibrationRun> runs) {
+        SieveTuningResponse.CalibrationRun best = runs.get(0);
+        for (SieveTuningResponse.CalibrationRun run : runs) {
+            if (run.bestNs() < best.bestNs()) best = run;
+        }
+        return best.segmentBytes();
+    }
+}
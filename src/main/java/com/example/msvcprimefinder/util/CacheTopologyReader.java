@@ -0,0 +1,87 @@
+package com.example.msvcprimefinder.util;
+
+import com.example.msvcprimefinder.util.type.CacheTopology;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+/**
+ * Reads the data cache sizes of cpu0 from Linux sysfs (/sys/devices/system/cpu/cpu0/cache/index*),
+ * falling back to typical server sizes when sysfs is missing (macOS, Windows, some containers).
+ * */
+public class CacheTopologyReader {
+    private static final Logger logger = LoggerFactory.getLogger(CacheTopologyReader.class);
+    public static final Path SYSFS_CACHE_DIR = Path.of("/sys/devices/system/cpu/cpu0/cache");
+    public static final CacheTopology FALLBACK = new CacheTopology(32 * 1024, 1024 * 1024, 1, 8 * 1024 * 1024, 8, "fallback");
+
+    public static CacheTopology read() {
+        return read(SYSFS_CACHE_DIR);
+    }
+
+    public static CacheTopology read(Path cacheDir) {
+        long l1d = 0;
+        long l2 = 0;
+        long l3 = 0;
+        int l2SharedCpus = 1;
+        int l3SharedCpus = 1;
+        try (Stream<Path> indexes = Files.list(cacheDir)) {
+            for (Path index : indexes.filter(p -> p.getFileName().toString().startsWith("index")).toList()) {
+                String type = readValue(index.resolve("type"));
+                if (type.equals("Instruction")) continue;
+                int level = Integer.parseInt(readValue(index.resolve("level")));
+                long size = parseSize(readValue(index.resolve("size")));
+                switch (level) {
+                    case 1 -> l1d = size;
+                    case 2 -> {
+                        l2 = size;
+                        l2SharedCpus = countCpus(readValue(index.resolve("shared_cpu_list")));
+                    }
+                    case 3 -> {
+                        l3 = size;
+                        l3SharedCpus = countCpus(readValue(index.resolve("shared_cpu_list")));
+                    }
+                    default -> { }  // L4 / eDRAM is too slow to size segments for
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            logger.info("[Cache Topology] Could not read {}, using fallback sizes: {}", cacheDir, e.toString());
+            return FALLBACK;
+        }
+        if (l1d == 0 || l2 == 0) {
+            logger.info("[Cache Topology] No L1d/L2 found under {}, using fallback sizes", cacheDir);
+            return FALLBACK;
+        }
+        // Without an L3 the L2 is the last level
+        return new CacheTopology(l1d, l2, l2SharedCpus, l3 == 0 ? l2 : l3, l3 == 0 ? l2SharedCpus : l3SharedCpus, cacheDir.toString());
+    }
+
+    /** Parses sysfs sizes such as 48K, 2048K or 32M */
+    static long parseSize(String size) {
+        char unit = Character.toUpperCase(size.charAt(size.length() - 1));
+        return switch (unit) {
+            case 'K' -> Long.parseLong(size.substring(0, size.length() - 1)) * 1024;
+            case 'M' -> Long.parseLong(size.substring(0, size.length() - 1)) * 1024 * 1024;
+            case 'G' -> Long.parseLong(size.substring(0, size.length() - 1)) * 1024 * 1024 * 1024;
+            default -> Long.parseLong(size);
+        };
+    }
+
+    /** Counts CPUs in a sysfs cpu list such as 0-7,16-23 */
+    static int countCpus(String cpuList) {
+        int count = 0;
+        for (String range : cpuList.split(",")) {
+            if (range.isBlank()) continue;
+            int dash = range.indexOf('-');
+            count += dash < 0 ? 1 : Integer.parseInt(range.substring(dash + 1).trim()) - Integer.parseInt(range.substring(0, dash).trim()) + 1;
+        }
+        return Math.max(count, 1);
+    }
+
+    private static String readValue(Path file) throws IOException {
+        return Files.readString(file).trim();
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.msvcprimefinder.util;
+
+/**
+ * Time budget for one calculation. Segmented algorithms check isExpired() between segments (never before the first,
+ * so a result is never empty) and call stop() with the highest value they fully sieved before returning early.
+ * Like PhaseTimings it is passed down into the algorithms, and NONE costs nothing for callers without a budget.
+ * */
+public final class Deadline {
+    /** Never expires */
+    public static final Deadline NONE = new Deadline(0, Long.MAX_VALUE);
+
+    private final long startNs;
+    private final long budgetNs;
+    private volatile long sievedUpTo = -1;
+
+    private Deadline(long startNs, long budgetNs) {
+        this.startNs = startNs;
+        this.budgetNs = budgetNs;
+    }
+
+    /** Budgets too large to hold in nanoseconds saturate, and then never expire */
+    public static Deadline afterMillis(long millis) {
+        long budgetNs;
+        try {
+            budgetNs = Math.multiplyExact(millis, 1_000_000L);
+        } catch (ArithmeticException e) {
+            budgetNs = millis > 0 ? Long.MAX_VALUE : Long.MIN_VALUE;
+        }
+        return new Deadline(System.nanoTime(), budgetNs);
+    }
+
+    // Compares elapsed time with the budget, so a huge budget cannot wrap around like nanoTime() + budget would
+    public boolean isExpired() {
+        return this != NONE && System.nanoTime() - startNs >= budgetNs;
+    }
+
+    /** Records that the algorithm stopped early, with every value up to and including sievedUpTo fully sieved */
+    public void stop(long sievedUpTo) {
+        this.sievedUpTo = sievedUpTo;
+    }
+
+    public boolean isStopped() {
+        return sievedUpTo >= 0;
+    }
+
+    public long getSievedUpTo() {
+        return sievedUpTo;
+    }
+}
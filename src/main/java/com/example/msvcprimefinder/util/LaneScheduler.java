@@ -0,0 +1,179 @@
+package com.example.msvcprimefinder.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Runs the tasks of many requests on one set of worker threads without letting a huge request starve small ones.
+ * Each request gets its own task queue (a RequestExecutor) in one of two lanes, chosen from its estimated cost.
+ * Workers always take from the INTERACTIVE lane first, except that every BULK_TURN_EVERY-th pick goes to BULK while
+ * it has work, so bulk requests still make progress under a steady stream of small ones.
+ * Within a lane, requests take turns one task at a time, and a request never has more than its cap of tasks running.
+ * A request that is already past its cap, or out of tasks, leaves the rotation until a task of its own finishes.
+ * shutdown() rejects new tasks, but the workers still run every queued one before exiting, so no caller is left
+ * waiting on a future that would never complete.
+ * */
+public class LaneScheduler {
+    public enum Lane { INTERACTIVE, BULK }
+
+    private static final Logger logger = LoggerFactory.getLogger(LaneScheduler.class);
+    private static final int BULK_TURN_EVERY = 8;
+
+    private final Object lock = new Object();
+    private final ArrayDeque<RequestExecutor> interactive = new ArrayDeque<>();
+    private final ArrayDeque<RequestExecutor> bulk = new ArrayDeque<>();
+    // Guarded by the lock
+    private final List<Thread> workers = new ArrayList<>();
+    private final long interactiveMaxCost;
+    private final int interactiveCap;
+    private final int bulkCap;
+    private int interactivePicks;
+    private int workersStarted;
+    private boolean shutdown;
+
+    /**
+     * @param interactiveMaxCost largest cost that still goes to the INTERACTIVE lane
+     * @param bulkCap tasks one BULK request may have running at once, INTERACTIVE requests may use every thread
+     * */
+    public LaneScheduler(int threads, long interactiveMaxCost, int bulkCap) {
+        this.interactiveMaxCost = interactiveMaxCost;
+        this.interactiveCap = threads;
+        this.bulkCap = Math.max(1, Math.min(bulkCap, threads));
+        synchronized (lock) {
+            for (int i = 0; i < threads; i++) {
+                startWorker();
+            }
+        }
+    }
+
+    public Lane classify(long cost) {
+        return cost <= interactiveMaxCost ? Lane.INTERACTIVE : Lane.BULK;
+    }
+
+    /** Largest cost of another request's work that a request of this cost may wait on, so an interactive one never waits on bulk */
+    public long maxSharedCost(long cost) {
+        return classify(cost) == Lane.INTERACTIVE ? interactiveMaxCost : Long.MAX_VALUE;
+    }
+
+    /** An executor for the tasks of one request, it needs no closing once its tasks are done */
+    public RequestExecutor newRequest(long cost) {
+        Lane lane = classify(cost);
+        return new RequestExecutor(lane, lane == Lane.INTERACTIVE ? interactiveCap : bulkCap);
+    }
+
+    /** Rejects new tasks, the tasks already queued still run */
+    public void shutdown() {
+        synchronized (lock) {
+            shutdown = true;
+            lock.notifyAll();
+        }
+    }
+
+    // Called with the lock held
+    private void startWorker() {
+        Thread worker = new Thread(this::work, "lane-worker-" + workersStarted++);
+        worker.setDaemon(true);
+        workers.add(worker);
+        worker.start();
+    }
+
+    private void work() {
+        while (true) {
+            RequestExecutor request;
+            Runnable task;
+            synchronized (lock) {
+                while (!shutdown && interactive.isEmpty() && bulk.isEmpty()) {
+                    try {
+                        lock.wait();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+                // After shutdown keep draining, a worker that finishes a task re-queues its request's remaining ones
+                if (interactive.isEmpty() && bulk.isEmpty()) return;
+                request = nextRequest();
+                task = request.tasks.poll();
+                request.running++;
+                // Back of the line, so the other requests of the lane get the next turns
+                request.queued = !request.tasks.isEmpty() && request.running < request.cap;
+                if (request.queued) laneOf(request).addLast(request);
+            }
+            Error error = null;
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                // CompletableFuture tasks report their own failures, anything else must not take down the worker
+                logger.error("[Lane Scheduler] Task of a {} request failed", request.lane, e);
+            } catch (Error e) {
+                logger.error("[Lane Scheduler] Task of a {} request failed, replacing the worker", request.lane, e);
+                error = e;
+            } finally {
+                synchronized (lock) {
+                    request.running--;
+                    if (!request.queued && !request.tasks.isEmpty()) {
+                        request.queued = true;
+                        laneOf(request).addLast(request);
+                        lock.notify();
+                    }
+                    if (error != null) {
+                        workers.remove(Thread.currentThread());
+                        startWorker();
+                    }
+                }
+            }
+            if (error != null) throw error;
+        }
+    }
+
+    // Called with the lock held and at least one lane non-empty
+    private RequestExecutor nextRequest() {
+        boolean bulkTurn = interactive.isEmpty() || (!bulk.isEmpty() && interactivePicks >= BULK_TURN_EVERY - 1);
+        if (bulkTurn) {
+            interactivePicks = 0;
+            return bulk.poll();
+        }
+        interactivePicks++;
+        return interactive.poll();
+    }
+
+    private ArrayDeque<RequestExecutor> laneOf(RequestExecutor request) {
+        return request.lane == Lane.INTERACTIVE ? interactive : bulk;
+    }
+
+    public final class RequestExecutor implements Executor {
+        private final Lane lane;
+        private final int cap;
+        private final ArrayDeque<Runnable> tasks = new ArrayDeque<>();
+        // Guarded by the scheduler lock
+        private int running;
+        private boolean queued;
+
+        private RequestExecutor(Lane lane, int cap) {
+            this.lane = lane;
+            this.cap = cap;
+        }
+
+        public Lane getLane() {
+            return lane;
+        }
+
+        @Override
+        public void execute(Runnable task) {
+            synchronized (lock) {
+                if (shutdown) throw new RejectedExecutionException("Scheduler is shut down");
+                tasks.add(task);
+                if (!queued && running < cap) {
+                    queued = true;
+                    laneOf(this).addLast(this);
+                }
+                lock.notify();
+            }
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.msvcprimefinder.util;
+
+import com.example.msvcprimefinder.jfr.PrimePhaseEvent;
+import com.example.msvcprimefinder.model.enums.PrimePhase;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Nanoseconds spent per PrimePhase during one calculation. Algorithms bracket each phase of each segment with
+ * start()/end(), so a phase that repeats per segment is summed. LongAdder keeps end() cheap when segment tasks
+ * of the concurrent sieve report from many threads at once.
+ * The cost is two nanoTime calls per phase per segment, small enough to leave on for every request.
+ * */
+public final class PhaseTimings {
+    /** Accepts and discards everything, for callers that do not need timings */
+    public static final PhaseTimings NONE = new PhaseTimings(false);
+
+    private final boolean enabled;
+    private final LongAdder[] totals = new LongAdder[PrimePhase.values().length];
+
+    public PhaseTimings() {
+        this(true);
+    }
+
+    private PhaseTimings(boolean enabled) {
+        this.enabled = enabled;
+        for (int i = 0; i < totals.length; i++) {
+            totals[i] = new LongAdder();
+        }
+    }
+
+    public long start() {
+        return enabled ? System.nanoTime() : 0;
+    }
+
+    public void end(PrimePhase phase, long startNs) {
+        if (enabled) totals[phase.ordinal()].add(System.nanoTime() - startNs);
+    }
+
+    public long totalNs(PrimePhase phase) {
+        return totals[phase.ordinal()].sum();
+    }
+
+    /** Phases that were recorded, in PrimePhase order, as name to nanoseconds */
+    public Map<String, Long> toMap() {
+        Map<String, Long> timings = new LinkedHashMap<>();
+        for (PrimePhase phase : PrimePhase.values()) {
+            long ns = totalNs(phase);
+            if (ns > 0) timings.put(phase.name(), ns);
+        }
+        return timings;
+    }
+
+    /** Commits one PrimePhaseEvent per recorded phase, only when a recording has the event enabled */
+    public void commitEvents(String algorithmName, long limit) {
+        PrimePhaseEvent probe = new PrimePhaseEvent();
+        if (!probe.isEnabled()) return;
+        for (PrimePhase phase : PrimePhase.values()) {
+            long ns = totalNs(phase);
+            if (ns == 0) continue;
+            PrimePhaseEvent event = new PrimePhaseEvent();
+            event.algorithm = algorithmName;
+            event.limit = limit;
+            event.phase = phase.name();
+            event.phaseTime = ns;
+            event.commit();
+        }
+    }
+}
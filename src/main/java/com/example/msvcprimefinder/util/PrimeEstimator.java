@@ -1,6 +1,9 @@
 package com.example.msvcprimefinder.util;
 
 public class PrimeEstimator {
+    // Largest array length the JVM reliably allocates
+    public static final int MAX_ARRAY_LENGTH = Integer.MAX_VALUE - 8;
+
     /**
      * uses Prime Number Theorem to estimate the rough size of an array required to hold all
      * our primes.
@@ -8,13 +11,66 @@ public class PrimeEstimator {
      * For small limits PNT is inaccurate and tends to underestimate, so we add an extra 2000
      * length for these cases to ensure we don't go out of bounds when calculating primes.
      * */
-    public static int estimatePrimesArrayLength(long limit) {
+    public static long estimatePrimeCount(long limit) {
         double safeBufferAdjuster = 1.2;
-        double estimatedArrLength = (int) (limit / Math.log(limit)) * safeBufferAdjuster;
-        return limit < 10000 ? (int) estimatedArrLength + 2000 : (int) estimatedArrLength;
+        double estimatedCount = (long) (limit / Math.log(limit)) * safeBufferAdjuster;
+        return limit < 10000 ? (long) estimatedCount + 2000 : (long) estimatedCount;
+    }
+
+    /**
+     * estimatePrimeCount as an array length. Past ~4x10^10 the padded estimate no longer fits in one array,
+     * so this throws rather than handing back a truncated length; use a ChunkedPrimeSequence instead.
+     * */
+    public static int estimatePrimesArrayLength(long limit) {
+        long estimatedCount = estimatePrimeCount(limit);
+        if (estimatedCount > MAX_ARRAY_LENGTH) {
+            throw new IllegalStateException("Estimated " + estimatedCount + " primes up to " + limit + " do not fit in a single array");
+        }
+        return (int) estimatedCount;
     }
 
     public static boolean checkLimitAgainstMemory(long limit) {
-        return PrimeEstimator.estimatePrimesArrayLength(limit) * 8L >= Runtime.getRuntime().maxMemory() * 0.3;
+        return PrimeEstimator.estimatePrimeCount(limit) * 8L >= Runtime.getRuntime().maxMemory() * 0.3;
+    }
+
+    // The odd-only bitmap takes one bit per two numbers, i.e. limit / 16 bytes
+    public static boolean checkBitmapAgainstMemory(long limit) {
+        return limit / 16 >= Runtime.getRuntime().maxMemory() * 0.3;
+    }
+
+    // A residue class coprime to the modulus holds about 1 / phi(modulus) of the primes
+    public static boolean checkProgressionAgainstMemory(long limit, long phi) {
+        return PrimeEstimator.estimatePrimeCount(limit) / phi * 8L >= Runtime.getRuntime().maxMemory() * 0.3;
+    }
+
+    // Counting by residue holds two tables of sqrt(limit) longs per residue class
+    public static boolean checkResidueTablesAgainstMemory(long limit, int modulus) {
+        return ((long) Math.sqrt(limit) + 1) * modulus * 16L >= Runtime.getRuntime().maxMemory() * 0.3;
+    }
+
+    /**
+     * Dusart (2010) lower bound, valid for n >= 3: p_n >= n (ln n + ln ln n - 1 + (ln ln n - 2.1) / ln n).
+     * One is taken off after flooring so floating point error can never push the bound above p_n.
+     * */
+    public static long nthPrimeLowerBound(long n) {
+        if (n < 3) return 2;
+        double ln = Math.log(n);
+        double lnln = Math.log(ln);
+        return Math.max(2, (long) (n * (ln + lnln - 1 + (lnln - 2.1) / ln)) - 1);
+    }
+
+    /**
+     * Dusart (2010) upper bounds: p_n <= n (ln n + ln ln n - 1 + (ln ln n - 2) / ln n) for n >= 688383,
+     * and the looser p_n <= n (ln n + ln ln n) for n >= 6. The window between the two bounds is
+     * roughly n / (10 ln n) wide for large n.
+     * */
+    public static long nthPrimeUpperBound(long n) {
+        if (n < 6) return 13;
+        double ln = Math.log(n);
+        double lnln = Math.log(ln);
+        double bound = n >= 688383
+                ? n * (ln + lnln - 1 + (lnln - 2) / ln)
+                : n * (ln + lnln);
+        return (long) Math.ceil(bound) + 1;
     }
 }
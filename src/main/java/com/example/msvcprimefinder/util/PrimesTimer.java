@@ -2,16 +2,15 @@ package com.example.msvcprimefinder.util;
 
 import com.example.msvcprimefinder.util.type.PrimesTimerResult;
 
-import java.util.List;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Supplier;
 
 public class PrimesTimer {
+    // Milliseconds are derived from the same nanoTime pair, currentTimeMillis is wall clock and can jump
     public static <T>PrimesTimerResult<T> measureExecutionTime(Supplier<T> fn) {
-        long startTimeMs = System.currentTimeMillis();
         long startTimeNs = System.nanoTime();
         T result = fn.get();
         long durationNs = System.nanoTime() - startTimeNs;
-        long durationMs = System.currentTimeMillis() - startTimeMs;
-        return new PrimesTimerResult<>(result, durationMs, durationNs);
+        return new PrimesTimerResult<>(result, TimeUnit.NANOSECONDS.toMillis(durationNs), durationNs);
     }
 }
@@ -0,0 +1,32 @@
+package com.example.msvcprimefinder.util;
+
+import org.springframework.http.CacheControl;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Weak ETags for responses that are fully determined by their request, computed from the endpoint, its parameters
+ * and the Accept header instead of the response bytes, so a matching If-None-Match can be answered with a 304
+ * before anything is computed. Two such responses carry the same primes but not the same bytes (the timestamp, the
+ * timings, and for SMART an algorithmName that depends on the host's cores), so the tag must be weak: a strong one
+ * would let caches combine byte ranges of different bodies.
+ * */
+public final class ResultETag {
+    // Bump when the response format changes, so clients and proxies stop matching the old representations
+    private static final String VERSION = "v1";
+    // The primes below a limit never change, so a response can be kept for as long as caches allow
+    public static final CacheControl CACHE_CONTROL = CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable();
+
+    private ResultETag() {}
+
+    /** accept is the raw Accept header (or null), since JSON and XML are different representations of one result */
+    public static String of(String endpoint, String accept, Object... parameters) {
+        StringBuilder key = new StringBuilder(endpoint).append('|').append(accept == null ? "*/*" : accept.trim());
+        for (Object parameter : parameters) {
+            key.append('|').append(parameter);
+        }
+        return "W/\"" + VERSION + "-" + DigestUtils.md5DigestAsHex(key.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+}
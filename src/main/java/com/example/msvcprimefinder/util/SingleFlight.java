@@ -0,0 +1,88 @@
+package com.example.msvcprimefinder.util;
+
+import com.example.msvcprimefinder.util.type.SingleFlightResult;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent computations that are keyed by (key, upper bound), where a result for bound B also
+ * answers every bound <= B under the same key.
+ * The first caller runs the computation on its own thread; callers arriving while it is in flight with an
+ * equal or smaller bound wait for it and share the result instead of computing again.
+ * Entries, and a key's map once it has none left, are removed as soon as the computation finishes, so this is not
+ * a cache: only overlapping requests share work.
+ * Two callers can still both compute if they miss each other by a hair, which costs work but never correctness.
+ * maxSharedBound keeps a small caller from waiting on a far larger computation it would finish sooner on its own.
+ * */
+public class SingleFlight<K, T> {
+    private final Map<K, ConcurrentSkipListMap<Long, CompletableFuture<T>>> inFlight = new ConcurrentHashMap<>();
+
+    public SingleFlightResult<T> execute(K key, long bound, Supplier<T> computation) {
+        return execute(key, bound, Long.MAX_VALUE, computation);
+    }
+
+    /** Only shares a computation whose bound is at most maxSharedBound */
+    public SingleFlightResult<T> execute(K key, long bound, long maxSharedBound, Supplier<T> computation) {
+        CompletableFuture<T> flight = new CompletableFuture<>();
+        AtomicReference<Map.Entry<Long, CompletableFuture<T>>> joined = new AtomicReference<>();
+        // Joining and registering run under the key's lock, so a key's map is never dropped while a flight is added to it
+        inFlight.compute(key, (k, flights) -> {
+            if (flights == null) {
+                flights = new ConcurrentSkipListMap<>();
+            }
+            // Attach to the smallest in-flight computation that covers this bound
+            Map.Entry<Long, CompletableFuture<T>> covering = flights.ceilingEntry(bound);
+            if (covering != null && (covering.getKey() <= maxSharedBound || covering.getKey() == bound)) {
+                joined.set(covering);
+            } else {
+                flights.put(bound, flight);
+            }
+            return flights;
+        });
+        Map.Entry<Long, CompletableFuture<T>> covering = joined.get();
+        if (covering != null) {
+            return new SingleFlightResult<>(await(covering.getValue()), covering.getKey(), true);
+        }
+
+        try {
+            T result = computation.get();
+            flight.complete(result);
+            return new SingleFlightResult<>(result, bound, false);
+        } catch (RuntimeException | Error e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            // Keys can come from clients, so a key without flights must not keep its map
+            inFlight.computeIfPresent(key, (k, flights) -> {
+                flights.remove(bound, flight);
+                return flights.isEmpty() ? null : flights;
+            });
+        }
+    }
+
+    public int inFlightCount(K key) {
+        ConcurrentSkipListMap<Long, CompletableFuture<T>> flights = inFlight.get(key);
+        return flights == null ? 0 : flights.size();
+    }
+
+    int keyCount() {
+        return inFlight.size();
+    }
+
+    // Followers see the leader's own exception rather than a CompletionException wrapping it
+    private T await(CompletableFuture<T> flight) {
+        try {
+            return flight.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            if (e.getCause() instanceof Error cause) throw cause;
+            throw e;
+        }
+    }
+}
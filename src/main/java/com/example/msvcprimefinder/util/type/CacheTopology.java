@@ -0,0 +1,4 @@
+package com.example.msvcprimefinder.util.type;
+
+/** Data cache sizes in bytes as seen by one core, with how many CPUs share the L2 and the L3 */
+public record CacheTopology(long l1dBytes, long l2Bytes, int l2SharedCpus, long l3Bytes, int l3SharedCpus, String source) {}
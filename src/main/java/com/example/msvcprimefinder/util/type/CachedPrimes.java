@@ -0,0 +1,8 @@
+package com.example.msvcprimefinder.util.type;
+
+import com.example.msvcprimefinder.model.primes.PrimeSequence;
+
+/** The cached primes together with the limit they were sieved up to, so both are always read and replaced as one */
+public record CachedPrimes(PrimeSequence primes, long limit) {
+    public static final CachedPrimes EMPTY = new CachedPrimes(PrimeSequence.empty(), 0);
+}
@@ -0,0 +1,8 @@
+package com.example.msvcprimefinder.util.type;
+
+import com.example.msvcprimefinder.model.enums.ExportFormat;
+
+import java.nio.file.Path;
+
+/** A finished export on disk, count is the number of primes in it */
+public record ExportFile(String id, Path path, ExportFormat format, long size, long count) {}
@@ -0,0 +1,3 @@
+package com.example.msvcprimefinder.util.type;
+
+public record NthPrimeResult(long n, long prime, long windowLow, long windowHigh) {}
@@ -0,0 +1,6 @@
+package com.example.msvcprimefinder.util.type;
+
+import java.math.BigInteger;
+
+/** residueCounts[a] counts the primes congruent to a mod q, null when no modulus was asked for */
+public record PrimeSums(long count, BigInteger sum, BigInteger sumOfSquares, long[] residueCounts) {}
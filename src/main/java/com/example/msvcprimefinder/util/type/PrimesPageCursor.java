@@ -0,0 +1,38 @@
+package com.example.msvcprimefinder.util.type;
+
+import com.example.msvcprimefinder.exception.FindPrimesArgException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Position of the next page: the 0-based index of its first prime and a value it starts searching from.
+ * Carrying both lets the next page be copied from the cache by index or sieved from the value without recounting.
+ * Encoded as opaque base64url text so clients do not build cursors themselves.
+ * */
+public record PrimesPageCursor(long index, long value) {
+    private static final String VERSION = "v1";
+
+    public String encode() {
+        String text = VERSION + ":" + index + ":" + value;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(text.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    public static PrimesPageCursor decode(String cursor) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.US_ASCII).split(":");
+            if (parts.length != 3 || !VERSION.equals(parts[0])) {
+                throw new FindPrimesArgException("Invalid cursor");
+            }
+            long index = Long.parseLong(parts[1]);
+            long value = Long.parseLong(parts[2]);
+            if (index < 0 || value < 2) {
+                throw new FindPrimesArgException("Invalid cursor");
+            }
+            return new PrimesPageCursor(index, value);
+        } catch (IllegalArgumentException e) {
+            // Bad base64 or a bad number (NumberFormatException is an IllegalArgumentException)
+            throw new FindPrimesArgException("Invalid cursor");
+        }
+    }
+}
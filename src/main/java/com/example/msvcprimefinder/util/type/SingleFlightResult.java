@@ -0,0 +1,4 @@
+package com.example.msvcprimefinder.util.type;
+
+/** bound is the bound the result was computed for, which can be larger than the one asked for when shared */
+public record SingleFlightResult<T>(T result, long bound, boolean shared) {}
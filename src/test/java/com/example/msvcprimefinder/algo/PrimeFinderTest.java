@@ -0,0 +1,45 @@
+package com.example.msvcprimefinder.algo;
+
+import com.example.msvcprimefinder.util.PhaseTimings;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PrimeFinderTest {
+
+    @Test
+    void concurrentSieve_SegmentBelowSqrtLimit_StillCorrect() {
+        long limit = 10_000_000;
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            // sqrt(10^7) = 3162, far above a 1000 number segment
+            long[] primes = PrimeFinder.findPrimesWithSegmentedSieve_Concurrent(limit, 1_000, executor);
+            assertEquals(664_579, primes.length);
+            assertEquals(2, primes[0]);
+            assertEquals(9_999_991, primes[primes.length - 1]);
+            for (int i = 1; i < primes.length; i++) {
+                assertTrue(primes[i - 1] < primes[i], "out of order at index " + i);
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void concurrentSieve_BoundedPipeline_InOrderAndComplete() {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            long[] primes = PrimeFinder.findPrimesWithSegmentedSieve_Concurrent(10_000_000, 10_000, executor, 2, PhaseTimings.NONE);
+            assertEquals(664_579, primes.length);
+            for (int i = 1; i < primes.length; i++) {
+                assertTrue(primes[i - 1] < primes[i], "Primes must come out in increasing order");
+            }
+            assertEquals(9_999_991, primes[primes.length - 1]);
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
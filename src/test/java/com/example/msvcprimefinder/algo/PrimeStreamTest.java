@@ -0,0 +1,71 @@
+package com.example.msvcprimefinder.algo;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.util.Spliterator;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PrimeStreamTest {
+
+    @Test
+    void range_MatchesSieve_ExclusiveUpperBound() {
+        long[] expected = PrimeFinder.findPrimesWithSieve(1_000_000);
+        assertArrayEquals(expected, PrimeStream.range(0, 1_000_000).toArray());
+        assertArrayEquals(new long[]{97, 101, 103, 107, 109}, PrimeStream.range(90, 113).toArray());
+        assertEquals(0, PrimeStream.range(24, 29).count());
+    }
+
+    @Test
+    void range_Parallel_SplitsAndKeepsOrder() {
+        long[] sequential = PrimeStream.range(2, 50_000_000).toArray();
+        assertArrayEquals(sequential, PrimeStream.range(2, 50_000_000).parallel().toArray());
+        assertEquals(3_001_134, sequential.length);
+
+        Spliterator.OfLong suffix = PrimeStream.spliterator(2, 50_000_000);
+        Spliterator.OfLong prefix = suffix.trySplit();
+        assertNotNull(prefix);
+        long[] first = new long[1];
+        suffix.tryAdvance((long p) -> first[0] = p);
+        // The prefix covers [2, 25000001), the suffix starts with the first prime after it
+        assertEquals(25_000_009, first[0]);
+    }
+
+    @Test
+    void from_Unbounded_StopsEarly() {
+        assertEquals(10_000_000_000_037L, PrimeStream.from(10_000_000_000_000L).findFirst().getAsLong());
+        // The 10^6th prime
+        assertEquals(15_485_863, PrimeStream.from(2).limit(1_000_000).max().getAsLong());
+        assertEquals(15_485_863, PrimeStream.from(2).parallel().limit(1_000_000).max().getAsLong());
+    }
+
+    @Test
+    void tryAdvanceThenForEachRemaining_ContinuesMidSegment() {
+        Spliterator.OfLong spliterator = PrimeStream.spliterator(2, 100);
+        long[] seen = new long[25];
+        int[] count = {0};
+        for (int i = 0; i < 3; i++) spliterator.tryAdvance((long p) -> seen[count[0]++] = p);
+        spliterator.forEachRemaining((long p) -> seen[count[0]++] = p);
+        assertEquals(25, count[0]);
+        assertArrayEquals(PrimeFinder.findPrimesWithSieve(100), seen);
+    }
+
+    @Test
+    void range_NearMaxBound_MatchesProbablePrimes() {
+        long from = PrimeStream.MAX_BOUND - 1_000;
+        long[] expected = LongStream.range(from, PrimeStream.MAX_BOUND)
+                .filter(n -> BigInteger.valueOf(n).isProbablePrime(30))
+                .toArray();
+        assertArrayEquals(expected, PrimeStream.range(from, PrimeStream.MAX_BOUND).toArray());
+        assertEquals(99_999_999_999_973L, expected[expected.length - 1]);
+        assertFalse(PrimeStream.from(PrimeStream.MAX_BOUND - 1).findFirst().isPresent());
+    }
+
+    @Test
+    void invalidBounds_Throw() {
+        assertThrows(IllegalArgumentException.class, () -> PrimeStream.range(10, 2));
+        assertThrows(IllegalArgumentException.class, () -> PrimeStream.range(2, PrimeStream.MAX_BOUND + 1));
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.msvcprimefinder.algo;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ProgressionSieveTest {
+
+    @Test
+    void list_MatchesFilteredSieve() {
+        long[] primes = PrimeFinder.findPrimesWithSieve(2_000_000);
+        long[][] classes = {{4, 1}, {4, 3}, {1, 0}, {30, 7}, {30_030, 1}, {30_030, 30_029}, {999_983, 5}, {7, 0}};
+        for (long[] progression : classes) {
+            long modulus = progression[0];
+            long residue = progression[1];
+            long[] expected = Arrays.stream(primes).filter(p -> p % modulus == residue).toArray();
+            // A tiny segment makes every base prime carry its offset across many segments
+            assertArrayEquals(expected, ProgressionSieve.list(2, 2_000_000, modulus, residue, 1_000), modulus + ", " + residue);
+            assertEquals(expected.length, ProgressionSieve.count(2, 2_000_000, modulus, residue, 1 << 16));
+        }
+    }
+
+    @Test
+    void list_WindowAwayFromZero() {
+        long from = 1_000_000_000L;
+        long to = from + 1_000_000;
+        long[] window = PrimeStream.range(from, to + 1).toArray();
+        long[] expected = Arrays.stream(window).filter(p -> p % 210 == 11).toArray();
+        assertArrayEquals(expected, ProgressionSieve.list(from, to, 210, 11, 256));
+        // The window starts and ends exactly on primes
+        assertArrayEquals(new long[]{1_000_000_007L}, ProgressionSieve.list(1_000_000_007L, 1_000_000_007L, 2, 1, 256));
+    }
+
+    @Test
+    void residueSharingAFactor_HoldsAtMostThatFactor() {
+        assertArrayEquals(new long[]{2}, ProgressionSieve.list(2, 1_000, 2, 0, 256));
+        assertArrayEquals(new long[]{3}, ProgressionSieve.list(2, 1_000, 6, 3, 256));
+        assertArrayEquals(new long[0], ProgressionSieve.list(2, 1_000, 6, 4, 256));
+        assertArrayEquals(new long[0], ProgressionSieve.list(5, 1_000, 6, 3, 256));
+        assertArrayEquals(new long[0], ProgressionSieve.list(2, 1_000, 10, 0, 256));
+    }
+
+    @Test
+    void eulerPhi_AndInvalidArguments() {
+        assertEquals(1, ProgressionSieve.eulerPhi(1));
+        assertEquals(2, ProgressionSieve.eulerPhi(4));
+        assertEquals(5_760, ProgressionSieve.eulerPhi(30_030));
+        assertEquals(999_982, ProgressionSieve.eulerPhi(999_983));
+        assertThrows(IllegalArgumentException.class, () -> ProgressionSieve.count(2, 100, 0, 0, 256));
+        assertThrows(IllegalArgumentException.class, () -> ProgressionSieve.count(2, 100, 4, 4, 256));
+    }
+}
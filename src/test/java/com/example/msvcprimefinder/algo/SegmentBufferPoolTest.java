@@ -0,0 +1,32 @@
+package com.example.msvcprimefinder.algo;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SegmentBufferPoolTest {
+
+    @Test
+    void acquire_PoolExhausted_BlocksUntilRelease() throws Exception {
+        SegmentBufferPool pool = new SegmentBufferPool(16, 2);
+        boolean[] first = pool.acquire();
+        pool.acquire();
+
+        CompletableFuture<boolean[]> third = CompletableFuture.supplyAsync(() -> {
+            try {
+                return pool.acquire();
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        Thread.sleep(100);
+        assertFalse(third.isDone());
+
+        pool.release(first);
+        assertSame(first, third.get(5, TimeUnit.SECONDS));
+        assertEquals(2, pool.getCreated());
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.msvcprimefinder.benchmark;
+
+import com.example.msvcprimefinder.algo.PrimeFinder;
+import com.example.msvcprimefinder.model.primes.PrimeSequence;
+import com.example.msvcprimefinder.response.FindPrimesResponse;
+import com.example.msvcprimefinder.serializer.FindPrimesResponseHttpMessageConverter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson XML (the previous path) against FindPrimesResponseHttpMessageConverter, writing to a discarding stream
+ * so only serialization is measured. Not run by surefire; run main() from the test classpath, e.g.
+ * mvn test-compile dependency:build-classpath -Dmdep.outputFile=cp.txt
+ * java -cp target/test-classes:target/classes:$(cat cp.txt) com.example.msvcprimefinder.benchmark.FindPrimesResponseSerializationBenchmark
+ * */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FindPrimesResponseSerializationBenchmark {
+    @Param({"100000", "10000000"})
+    public long limit;
+
+    private FindPrimesResponse response;
+    private ObjectMapper xmlMapper;
+    private FindPrimesResponseHttpMessageConverter converter;
+
+    @Setup
+    public void setup() {
+        PrimeSequence primes = PrimeFinder.findPrimeSequenceWithSieve(limit);
+        response = new FindPrimesResponse(primes, primes.size(), 0, 0, "SIEVE", false);
+        xmlMapper = Jackson2ObjectMapperBuilder.xml().featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS).build();
+        converter = new FindPrimesResponseHttpMessageConverter();
+    }
+
+    @Benchmark
+    public void jacksonXml() throws IOException {
+        xmlMapper.writeValue(OutputStream.nullOutputStream(), response);
+    }
+
+    @Benchmark
+    public void converterXml() throws IOException {
+        converter.write(response, MediaType.APPLICATION_XML, new DiscardingOutputMessage());
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(FindPrimesResponseSerializationBenchmark.class.getSimpleName()).build()).run();
+    }
+
+    private static final class DiscardingOutputMessage implements HttpOutputMessage {
+        private final HttpHeaders headers = new HttpHeaders();
+
+        @Override
+        public OutputStream getBody() {
+            return OutputStream.nullOutputStream();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+    }
+}
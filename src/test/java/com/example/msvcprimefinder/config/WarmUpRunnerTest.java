@@ -0,0 +1,74 @@
+package com.example.msvcprimefinder.config;
+
+import com.example.msvcprimefinder.model.enums.PrimeAlgorithmNames;
+import com.example.msvcprimefinder.service.ExecutorServiceProvider;
+import com.example.msvcprimefinder.service.FindPrimesServiceImpl;
+import com.example.msvcprimefinder.service.PrimeCacheService;
+import com.example.msvcprimefinder.service.SegmentSizeTuner;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.DefaultApplicationArguments;
+import org.springframework.boot.actuate.health.Status;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class WarmUpRunnerTest {
+    private final ExecutorServiceProvider executorServiceProvider = new ExecutorServiceProvider(new SegmentSizeTuner(false), 100_000_000, 0);
+    private final PrimeCacheService primeCacheService = new PrimeCacheService();
+    private final FindPrimesServiceImpl findPrimesService = new FindPrimesServiceImpl(executorServiceProvider, primeCacheService);
+
+    @AfterEach
+    void shutdown() {
+        executorServiceProvider.shutdown();
+    }
+
+    @Test
+    void run_WarmsEveryEngineAndFillsTheCache() {
+        WarmUpRunner warmUp = new WarmUpRunner(findPrimesService, primeCacheService, true,
+                List.of(PrimeAlgorithmNames.SIEVE_ATKIN, PrimeAlgorithmNames.SEGMENTED_SIEVE_CONCURRENT), List.of(10_000L, 200_000L), 5, 20_000, 1_000_000);
+        assertEquals(Status.OUT_OF_SERVICE, warmUp.health().getStatus());
+
+        warmUp.run(new DefaultApplicationArguments());
+
+        assertTrue(warmUp.isDone());
+        assertEquals(Status.UP, warmUp.health().getStatus());
+        assertEquals(List.of("SIEVE_ATKIN", "SEGMENTED_SIEVE_CONCURRENT"), List.copyOf(warmUp.getResults().keySet()));
+        warmUp.getResults().values().forEach(result -> assertTrue(result.iterations() >= 1 && result.iterations() <= 5));
+        assertEquals(1_000_000, primeCacheService.getCachedLimit());
+        assertThrows(UnsupportedOperationException.class, () -> warmUp.getResults().clear());
+    }
+
+    @Test
+    void health_ProbedWhileRunning_SeesConsistentSnapshots() throws Exception {
+        WarmUpRunner warmUp = new WarmUpRunner(findPrimesService, primeCacheService, true,
+                List.of(PrimeAlgorithmNames.SIEVE, PrimeAlgorithmNames.SIEVE_ATKIN, PrimeAlgorithmNames.SEGMENTED_SIEVE), List.of(10_000L), 3, 20_000, 0);
+        CompletableFuture<Integer> probes = CompletableFuture.supplyAsync(() -> {
+            int seen = 0;
+            while (!warmUp.isDone()) {
+                Map<?, ?> engines = (Map<?, ?>) warmUp.health().getDetails().get("engines");
+                seen = Math.max(seen, engines.size());
+            }
+            return seen;
+        });
+
+        warmUp.run(new DefaultApplicationArguments());
+        assertTrue(probes.get(10, TimeUnit.SECONDS) <= 3);
+        assertEquals(3, warmUp.getResults().size());
+    }
+
+    @Test
+    void run_Disabled_IsReadyWithoutRunning() {
+        WarmUpRunner warmUp = new WarmUpRunner(findPrimesService, primeCacheService, false,
+                List.of(PrimeAlgorithmNames.SIEVE), List.of(10_000L), 5, 20_000, 1_000_000);
+        warmUp.run(new DefaultApplicationArguments());
+
+        assertEquals(Status.UP, warmUp.health().getStatus());
+        assertTrue(warmUp.getResults().isEmpty());
+        assertEquals(0, primeCacheService.getCachedLimit());
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.msvcprimefinder.controller;
+
+import io.restassured.RestAssured;
+import io.restassured.http.ContentType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpStatus;
+
+import java.util.List;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.equalTo;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public class FactorizeControllerIntegrationTest {
+
+    @LocalServerPort
+    private int port;
+
+    @BeforeEach
+    void setup() {
+        RestAssured.port = port;
+        RestAssured.enableLoggingOfRequestAndResponseIfValidationFails();
+    }
+
+    @Test
+    void factorize_SingleValue_Happy() {
+        given()
+                .queryParam("value", 360)
+                .when()
+                .get("/api/factorize")
+                .then()
+                .statusCode(HttpStatus.OK.value())
+                .body("factorizations[0].value", equalTo(360))
+                .body("factorizations[0].prime", equalTo(false))
+                .body("factorizations[0].factors.prime", equalTo(List.of(2, 3, 5)))
+                .body("factorizations[0].factors.exponent", equalTo(List.of(3, 2, 1)));
+    }
+
+    @Test
+    void factorize_Batch_Happy() {
+        given()
+                .contentType(ContentType.JSON)
+                .body("{\"values\": [97, 1000000016000000063]}")
+                .when()
+                .post("/api/factorize")
+                .then()
+                .statusCode(HttpStatus.OK.value())
+                .body("factorizations.value", equalTo(List.of(97, 1_000_000_016_000_000_063L)))
+                .body("factorizations[0].prime", equalTo(true))
+                .body("factorizations[1].factors.prime", equalTo(List.of(1_000_000_007, 1_000_000_009)));
+    }
+
+    @Test
+    void factorize_InvalidArgumentHandling() {
+        given()
+                .queryParam("value", 0)
+                .when()
+                .get("/api/factorize")
+                .then()
+                .statusCode(HttpStatus.BAD_REQUEST.value())
+                .body("message", containsString("factorize.value: must be greater than or equal to 1"));
+
+        given()
+                .contentType(ContentType.JSON)
+                .body("{\"values\": []}")
+                .when()
+                .post("/api/factorize")
+                .then()
+                .statusCode(HttpStatus.BAD_REQUEST.value())
+                .body("message", containsString("values: size must be between 1 and 100000"));
+
+        given()
+                .contentType(ContentType.JSON)
+                .body("{\"values\": [\"test\"]}")
+                .when()
+                .post("/api/factorize")
+                .then()
+                .statusCode(HttpStatus.BAD_REQUEST.value())
+                .body("message", equalTo("Malformed request body"));
+    }
+}
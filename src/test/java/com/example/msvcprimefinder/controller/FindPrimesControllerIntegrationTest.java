@@ -1,22 +1,30 @@
 package com.example.msvcprimefinder.controller;
 
+import com.example.msvcprimefinder.model.primes.PrimeSequence;
+import com.example.msvcprimefinder.service.FindPrimesServiceImpl;
 import com.example.msvcprimefinder.service.PrimeCacheService;
+import com.example.msvcprimefinder.service.SegmentSizeTuner;
 import io.restassured.RestAssured;
+import io.restassured.http.ContentType;
 import io.restassured.response.Response;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.SpyBean;
 import org.springframework.boot.test.web.server.LocalServerPort;
 import org.springframework.http.HttpStatus;
 
+import java.util.Arrays;
 import java.util.List;
 
 import static io.restassured.RestAssured.given;
 import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.*;
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
@@ -28,6 +36,9 @@ public class FindPrimesControllerIntegrationTest {
     @SpyBean
     PrimeCacheService primeCacheService;
 
+    @Autowired
+    SegmentSizeTuner segmentSizeTuner;
+
     @BeforeEach
     void setup() {
         RestAssured.port = port;
@@ -58,7 +69,7 @@ public class FindPrimesControllerIntegrationTest {
             .body("algorithmName", equalTo("SIEVE"));
 
         assertArrayEquals(primesTo100, responsePrimes);
-        verify(primeCacheService, never()).addPrimesToCache(any(long[].class));
+        verify(primeCacheService, never()).addPrimesToCache(any(PrimeSequence.class), anyLong());
     }
 
     @Test
@@ -78,7 +89,7 @@ public class FindPrimesControllerIntegrationTest {
             .body("algorithmName", equalTo("SIEVE"));
 
         assertArrayEquals(primesTo100, responsePrimes);
-        assertArrayEquals(primesTo100, primeCacheService.getPrimesFromCacheToLimit(limit), "Cache should contain result upto and including limit");
+        assertArrayEquals(primesTo100, primeCacheService.getPrimesFromCacheToLimit(limit).toLongArray(), "Cache should contain result upto and including limit");
 
         Response response2 = given()
             .queryParam("limit", limit)
@@ -96,6 +107,63 @@ public class FindPrimesControllerIntegrationTest {
         verify(primeCacheService, times(2)).getPrimesFromCacheToLimit(limit); // limit 2 here allowing for above check on line 81
     }
 
+    @Test
+    void findPrimes_IfNoneMatch_NotModifiedWithoutComputing() {
+        Response first = given()
+            .queryParam("limit", 1000)
+            .queryParam("useCache", true)
+            .when()
+            .get("/api/find-primes");
+        first.then()
+            .statusCode(HttpStatus.OK.value())
+            .header("Cache-Control", containsString("max-age=31536000"))
+            .header("Vary", containsString("Accept"));
+        String eTag = first.header("ETag");
+        assertTrue(eTag.startsWith("W/\"v1-"), eTag);
+        reset(primeCacheService);
+
+        given()
+            .header("If-None-Match", eTag)
+            .queryParam("limit", 1000)
+            .queryParam("useCache", true)
+            .when()
+            .get("/api/find-primes")
+            .then()
+            .statusCode(HttpStatus.NOT_MODIFIED.value())
+            .header("ETag", equalTo(eTag))
+            .header("Cache-Control", containsString("immutable"))
+            .body(equalTo(""));
+        verifyNoInteractions(primeCacheService);
+
+        // Another limit, or XML instead of JSON, is another representation
+        String otherLimit = given().queryParam("limit", 1001).queryParam("useCache", true).get("/api/find-primes").header("ETag");
+        String xml = given().accept("application/xml").queryParam("limit", 1000).queryParam("useCache", true).get("/api/find-primes").header("ETag");
+        assertTrue(!eTag.equals(otherLimit) && !eTag.equals(xml) && !otherLimit.equals(xml));
+        given()
+            .header("If-None-Match", eTag)
+            .accept("application/xml")
+            .queryParam("limit", 1000)
+            .queryParam("useCache", true)
+            .when()
+            .get("/api/find-primes")
+            .then()
+            .statusCode(HttpStatus.OK.value());
+    }
+
+    @Test
+    void findPrimes_DeadlineOrTimings_NotCacheable() {
+        for (String parameter : new String[]{"deadlineMs", "withTimings"}) {
+            Response response = given()
+                .queryParam("limit", 1000)
+                .queryParam(parameter, parameter.equals("deadlineMs") ? 10_000 : true)
+                .when()
+                .get("/api/find-primes");
+            response.then().statusCode(HttpStatus.OK.value());
+            assertEquals(null, response.header("ETag"), parameter);
+            assertEquals(null, response.header("Cache-Control"), parameter);
+        }
+    }
+
     @Test
     public void findPrimes_SmartAlgorithm_SwitchBasedOnLimit() {
         given()
@@ -114,7 +182,7 @@ public class FindPrimesControllerIntegrationTest {
             .get("/api/find-primes")
             .then()
             .statusCode(HttpStatus.OK.value())
-            .body("algorithmName", equalTo("SEGMENTED_SIEVE_CONCURRENT"));
+            .body("algorithmName", equalTo(Runtime.getRuntime().availableProcessors() >= FindPrimesServiceImpl.SMART_CONCURRENT_MIN_PROCESSORS ? "SEGMENTED_SIEVE_CONCURRENT" : "SIEVE_ATKIN"));
     }
 
     @Test
@@ -127,7 +195,32 @@ public class FindPrimesControllerIntegrationTest {
             .statusCode(HttpStatus.BAD_REQUEST.value())
             .body("message", containsString("findPrimes.limit: must be greater than or equal to 2"));
 
-        verify(primeCacheService, never()).addPrimesToCache(any(long[].class));
+        verify(primeCacheService, never()).addPrimesToCache(any(PrimeSequence.class), anyLong());
+    }
+
+    @Test
+    void findPrimes_WithDeadline_Happy() {
+        given()
+                .queryParam("limit", 1_000_000)
+                .queryParam("algo", "SEGMENTED_SIEVE")
+                .queryParam("deadlineMs", 60_000)
+                .when()
+                .get("/api/find-primes")
+                .then()
+                .statusCode(HttpStatus.OK.value())
+                .body("numberOfPrimes", equalTo(78_498))
+                .body("partial", equalTo(false))
+                .body("sievedUpTo", equalTo(1_000_000));
+
+        given()
+                .queryParam("limit", 100)
+                .queryParam("algo", "SIEVE")
+                .queryParam("deadlineMs", 10)
+                .when()
+                .get("/api/find-primes")
+                .then()
+                .statusCode(HttpStatus.BAD_REQUEST.value())
+                .body("message", containsString("deadlineMs is only supported by the algorithms"));
     }
 
     @Test
@@ -141,7 +234,7 @@ public class FindPrimesControllerIntegrationTest {
                 .statusCode(HttpStatus.BAD_REQUEST.value())
                 .body("message", containsString("Not enough memory to process limit: 7000000000"));
 
-        verify(primeCacheService, never()).addPrimesToCache(any(long[].class));
+        verify(primeCacheService, never()).addPrimesToCache(any(PrimeSequence.class), anyLong());
     }
 
 
@@ -167,7 +260,7 @@ public class FindPrimesControllerIntegrationTest {
                 .contentType("application/xml")
                 .body("FindPrimesResponse.algorithmName", equalTo("SIEVE"));
 
-        verify(primeCacheService, never()).addPrimesToCache(any(long[].class));
+        verify(primeCacheService, never()).addPrimesToCache(any(PrimeSequence.class), anyLong());
     }
 
     @Test
@@ -183,6 +276,219 @@ public class FindPrimesControllerIntegrationTest {
                 .contentType("application/xml")
                 .body("FindPrimesErrorResponse.message", containsString("findPrimes.limit: must be greater than or equal to 2"));
 
-        verify(primeCacheService, never()).addPrimesToCache(any(long[].class));
+        verify(primeCacheService, never()).addPrimesToCache(any(PrimeSequence.class), anyLong());
+    }
+
+    @Test
+    void findNthPrime_Happy() {
+        given()
+                .queryParam("n", 1_000_000)
+                .when()
+                .get("/api/nth-prime")
+                .then()
+                .statusCode(HttpStatus.OK.value())
+                .body("n", equalTo(1_000_000))
+                .body("prime", equalTo(15_485_863));
+
+        verify(primeCacheService, never()).addPrimesToCache(any(PrimeSequence.class), anyLong());
+    }
+
+    @Test
+    void findNthPrime_InvalidArgumentHandling() {
+        given()
+                .queryParam("n", 0)
+                .when()
+                .get("/api/nth-prime")
+                .then()
+                .statusCode(HttpStatus.BAD_REQUEST.value())
+                .body("message", containsString("findNthPrime.n: must be greater than or equal to 1"));
+
+        given()
+                .queryParam("n", "test")
+                .when()
+                .get("/api/nth-prime")
+                .then()
+                .statusCode(HttpStatus.BAD_REQUEST.value())
+                .body("message", equalTo("Invalid value 'test' for parameter 'n'. Please provide a valid index less than or equal to: 9223372036854775807 (max long value)"));
+    }
+
+    @Test
+    void analysePrimes_Happy() {
+        given()
+                .queryParam("limit", 100)
+                .queryParam("listLimit", 2)
+                .when()
+                .get("/api/prime-analytics")
+                .then()
+                .statusCode(HttpStatus.OK.value())
+                .body("numberOfPrimes", equalTo(25))
+                .body("twinPrimes.count", equalTo(8))
+                .body("twinPrimes.occurrences[1]", equalTo(List.of(5, 7)))
+                .body("primeQuadruplets.count", equalTo(2))
+                .body("maxGap.gap", equalTo(8))
+                .body("maxGap.start", equalTo(89));
+    }
+
+    @Test
+    void sumPrimes_Happy() {
+        given()
+                .queryParam("limit", 1_000_000_000)
+                .queryParam("modulus", 3)
+                .when()
+                .get("/api/sum-primes")
+                .then()
+                .statusCode(HttpStatus.OK.value())
+                .body("numberOfPrimes", equalTo(50_847_534))
+                .body("sumOfPrimes", equalTo(24_739_512_092_254_535L))
+                .body("residueCounts.count", equalTo(List.of(1, 25_422_713, 25_424_820)));
+    }
+
+    @Test
+    void findPrimesBatch_Happy() {
+        given()
+                .contentType(ContentType.JSON)
+                .body("{\"queries\": [{\"limit\": 30}, {\"from\": 90, \"to\": 110}, {\"limit\": 1000000}], \"withResult\": true}")
+                .when()
+                .post("/api/find-primes/batch")
+                .then()
+                .statusCode(HttpStatus.OK.value())
+                .body("sievedUpTo", equalTo(1_000_000))
+                .body("parts.numberOfPrimes", equalTo(List.of(10, 5, 78_498)))
+                .body("parts[0].result", equalTo(List.of(2, 3, 5, 7, 11, 13, 17, 19, 23, 29)))
+                .body("parts[1].result", equalTo(List.of(97, 101, 103, 107, 109)));
+    }
+
+    @Test
+    void findPrimesBatch_InvalidArgumentHandling() {
+        given()
+                .contentType(ContentType.JSON)
+                .body("{\"queries\": []}")
+                .when()
+                .post("/api/find-primes/batch")
+                .then()
+                .statusCode(HttpStatus.BAD_REQUEST.value())
+                .body("message", containsString("queries: size must be between 1 and 1000"));
+
+        given()
+                .contentType(ContentType.JSON)
+                .body("{\"queries\": [{\"from\": 10}]}")
+                .when()
+                .post("/api/find-primes/batch")
+                .then()
+                .statusCode(HttpStatus.BAD_REQUEST.value())
+                .body("message", equalTo("Query 0 must have both from and to"));
+    }
+
+    @Test
+    void streamPrimes_Happy() {
+        String body = given()
+                .header("Accept", "application/x-ndjson")
+                .queryParam("limit", 1_000_000)
+                .when()
+                .get("/api/find-primes/stream")
+                .then()
+                .statusCode(HttpStatus.OK.value())
+                .contentType("application/x-ndjson")
+                .extract().asString();
+
+        String[] lines = body.strip().split("\n");
+        assertEquals((1_000_000 - 2) / segmentSizeTuner.segmentedSieveSize() + 1, lines.length);
+        assertTrue(lines[0].startsWith("[2,3,5,7,11,"));
+        long count = Arrays.stream(lines).mapToLong(line -> line.chars().filter(c -> c == ',').count() + 1).sum();
+        assertEquals(78_498, count);
+    }
+
+    @Test
+    void streamPrimes_InvalidArgumentHandling() {
+        given()
+                .queryParam("limit", 100)
+                .queryParam("from", 200)
+                .when()
+                .get("/api/find-primes/stream")
+                .then()
+                .statusCode(HttpStatus.BAD_REQUEST.value())
+                .body("message", equalTo("from must be less than or equal to limit"));
+    }
+
+    @Test
+    void findPrimesPage_Happy() {
+        String nextCursor = given()
+                .queryParam("from", 90)
+                .queryParam("pageSize", 3)
+                .when()
+                .get("/api/find-primes/page")
+                .then()
+                .statusCode(HttpStatus.OK.value())
+                .body("result", equalTo(List.of(97, 101, 103)))
+                .body("firstIndex", equalTo(24))
+                .extract().path("nextCursor");
+
+        given()
+                .queryParam("cursor", nextCursor)
+                .queryParam("pageSize", 3)
+                .when()
+                .get("/api/find-primes/page")
+                .then()
+                .statusCode(HttpStatus.OK.value())
+                .body("result", equalTo(List.of(107, 109, 113)))
+                .body("firstIndex", equalTo(27));
+    }
+
+    @Test
+    void findPrimesPage_InvalidArgumentHandling() {
+        given()
+                .queryParam("cursor", "bm9wZQ")
+                .when()
+                .get("/api/find-primes/page")
+                .then()
+                .statusCode(HttpStatus.BAD_REQUEST.value())
+                .body("message", equalTo("Invalid cursor"));
+    }
+
+    @Test
+    void findPrimesInProgression_Happy() {
+        Response response = given()
+                .queryParam("limit", 100)
+                .queryParam("modulus", 4)
+                .queryParam("residue", 3)
+                .when()
+                .get("/api/find-primes/progression");
+        response.then()
+                .statusCode(HttpStatus.OK.value())
+                .body("numberOfPrimes", equalTo(13));
+        assertArrayEquals(new long[]{3, 7, 11, 19, 23, 31, 43, 47, 59, 67, 71, 79, 83}, mapToArr(response.jsonPath().getList("result", Long.class)));
+
+        given()
+                .queryParam("limit", 100)
+                .queryParam("modulus", 4)
+                .queryParam("residue", 7)
+                .when()
+                .get("/api/find-primes/progression")
+                .then()
+                .statusCode(HttpStatus.BAD_REQUEST.value())
+                .body("message", containsString("residue must be in [0, modulus)"));
+    }
+
+    @Test
+    void readiness_UpOnceWarmedUp() {
+        given()
+                .when()
+                .get("/actuator/health/readiness")
+                .then()
+                .statusCode(HttpStatus.OK.value())
+                .body("components.warmUp.status", equalTo("UP"))
+                .body("components.warmUp.details.engines.SIEVE_ATKIN.iterations", greaterThan(0));
+    }
+
+    @Test
+    void getSieveTuning_ReportsCacheDerivedSizes() {
+        given()
+                .when()
+                .get("/api/sieve-tuning")
+                .then()
+                .statusCode(HttpStatus.OK.value())
+                .body("threads", equalTo(Runtime.getRuntime().availableProcessors()))
+                .body("calibrated", equalTo(false))
+                .body("engines.name", equalTo(List.of("SEGMENTED_SIEVE_CONCURRENT", "SEGMENTED_SIEVE_WINDOW", "PRIME_BITMAP")));
     }
 }
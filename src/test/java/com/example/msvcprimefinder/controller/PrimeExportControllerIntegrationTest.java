@@ -0,0 +1,132 @@
+package com.example.msvcprimefinder.controller;
+
+import io.restassured.RestAssured;
+import io.restassured.response.Response;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.nio.file.Path;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public class PrimeExportControllerIntegrationTest {
+
+    @TempDir
+    static Path exportDir;
+
+    @LocalServerPort
+    private int port;
+
+    @DynamicPropertySource
+    static void exportProperties(DynamicPropertyRegistry registry) {
+        registry.add("primefinder.export.dir", exportDir::toString);
+    }
+
+    @BeforeEach
+    void setup() {
+        RestAssured.port = port;
+        RestAssured.enableLoggingOfRequestAndResponseIfValidationFails();
+    }
+
+    @Test
+    void export_ThenDownload_Happy() {
+        String url = given()
+                .queryParam("limit", 1_000_000)
+                .queryParam("format", "TEXT")
+                .when()
+                .post("/api/find-primes/export")
+                .then()
+                .statusCode(HttpStatus.OK.value())
+                .body("id", equalTo("primes-2-1000000.txt"))
+                .body("numberOfPrimes", equalTo(78_498))
+                .extract().path("downloadUrl");
+
+        Response whole = given().when().get(url);
+        assertEquals(HttpStatus.OK.value(), whole.statusCode());
+        assertEquals("bytes", whole.header("Accept-Ranges"));
+        String[] lines = whole.asString().split("\n");
+        assertEquals(78_498, lines.length);
+        assertEquals("999983", lines[lines.length - 1]);
+
+        given()
+                .header("Range", "bytes=0-9")
+                .when()
+                .get(url)
+                .then()
+                .statusCode(HttpStatus.PARTIAL_CONTENT.value())
+                .header("Content-Range", equalTo("bytes 0-9/" + whole.asByteArray().length))
+                .body(equalTo("2\n3\n5\n7\n11"));
+
+        given()
+                .queryParam("limit", 1_000_000)
+                .queryParam("format", "TEXT")
+                .when()
+                .post("/api/find-primes/export")
+                .then()
+                .statusCode(HttpStatus.OK.value())
+                .body("reused", equalTo(true));
+    }
+
+    @Test
+    void export_BinaryRangeAcrossTheHeader() {
+        String url = given()
+                .queryParam("limit", 100)
+                .when()
+                .post("/api/find-primes/export")
+                .then()
+                .statusCode(HttpStatus.OK.value())
+                .body("format", equalTo("BINARY"))
+                .body("sizeBytes", equalTo(24 + 24))
+                .extract().path("downloadUrl");
+
+        // Last two header bytes (count 25, high bytes zero) and the first three half gaps: 2 -> 3, 3 -> 5, 5 -> 7
+        byte[] bytes = given().header("Range", "bytes=22-26").when().get(url).then()
+                .statusCode(HttpStatus.PARTIAL_CONTENT.value())
+                .extract().asByteArray();
+        assertArrayEquals(new byte[]{0, 0, 0, 1, 1}, bytes);
+    }
+
+    @Test
+    void export_InvalidArgumentHandling() {
+        given()
+                .queryParam("limit", 100)
+                .queryParam("format", "CSV")
+                .when()
+                .post("/api/find-primes/export")
+                .then()
+                .statusCode(HttpStatus.BAD_REQUEST.value())
+                .body("message", containsString("Allowed values are: [BINARY, TEXT]"));
+
+        given()
+                .queryParam("limit", 100_000_000_001L)
+                .when()
+                .post("/api/find-primes/export")
+                .then()
+                .statusCode(HttpStatus.BAD_REQUEST.value());
+
+        given()
+                .when()
+                .get("/api/find-primes/export/primes-2-3.bin")
+                .then()
+                .statusCode(HttpStatus.NOT_FOUND.value())
+                .body("message", containsString("No export with id primes-2-3.bin"));
+
+        given()
+                .header("Range", "bytes=100000-")
+                .when()
+                .get(given().queryParam("limit", 100).post("/api/find-primes/export").path("downloadUrl").toString())
+                .then()
+                .statusCode(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+    }
+}
@@ -10,6 +10,7 @@ import org.mockito.MockitoAnnotations;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
 
 import java.util.Arrays;
@@ -47,6 +48,14 @@ public class GlobalExceptionHandlerTest {
         assertEquals("Failed to compute prime numbers due to a processing error", response.getBody().message());
     }
 
+    @Test
+    public void handleConcurrentFactorizationException() {
+        ConcurrentFactorizationException exception = new ConcurrentFactorizationException("Error", new ArithmeticException("Cause"));
+        ResponseEntity<FindPrimesErrorResponse> response = globalExceptionHandler.handleConcurrentFactorizationException(exception);
+        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
+        assertEquals("Failed to factorize the values due to a processing error", response.getBody().message());
+    }
+
     @Test
     public void handleConstraintViolationException_Limit() {
         ConstraintViolationException exception = mock(ConstraintViolationException.class);
@@ -81,6 +90,15 @@ public class GlobalExceptionHandlerTest {
         });
     }
 
+    @Test
+    public void handleHttpMessageNotReadableException() {
+        HttpMessageNotReadableException exception = mock(HttpMessageNotReadableException.class);
+        when(exception.getMessage()).thenReturn("JSON parse error");
+        ResponseEntity<FindPrimesErrorResponse> response = globalExceptionHandler.handleHttpMessageNotReadableException(exception);
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertEquals("Malformed request body", response.getBody().message());
+    }
+
     @Test
     public void handleThrowable_OOM() {
         OutOfMemoryError exception = new OutOfMemoryError("Memory limit exceeded");
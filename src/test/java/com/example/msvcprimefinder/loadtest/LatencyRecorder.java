@@ -0,0 +1,57 @@
+package com.example.msvcprimefinder.loadtest;
+
+import java.util.Arrays;
+
+/**
+ * Latencies of one scenario. Every sample is kept (a run is at most a few hundred thousand requests),
+ * so percentiles are exact rather than bucketed.
+ * */
+public class LatencyRecorder {
+    private long[] latenciesNs = new long[1024];
+    private int count = 0;
+    private long errors = 0;
+
+    public synchronized void recordSuccess(long latencyNs) {
+        if (count == latenciesNs.length) {
+            latenciesNs = Arrays.copyOf(latenciesNs, count * 2);
+        }
+        latenciesNs[count++] = latencyNs;
+    }
+
+    public synchronized void recordError() {
+        errors++;
+    }
+
+    public synchronized void addAll(LatencyRecorder other) {
+        for (int i = 0; i < other.count; i++) {
+            recordSuccess(other.latenciesNs[i]);
+        }
+        errors += other.errors;
+    }
+
+    public synchronized Summary summarize(double durationSeconds) {
+        long[] sorted = Arrays.copyOf(latenciesNs, count);
+        Arrays.sort(sorted);
+        long total = count + errors;
+        return new Summary(
+                total,
+                errors,
+                total == 0 ? 0 : (double) errors / total,
+                count / durationSeconds,
+                percentileMs(sorted, 0.50),
+                percentileMs(sorted, 0.99),
+                percentileMs(sorted, 0.999),
+                count == 0 ? 0 : sorted[count - 1] / 1e6
+        );
+    }
+
+    // Nearest-rank percentile
+    private static double percentileMs(long[] sorted, double percentile) {
+        if (sorted.length == 0) return 0;
+        int rank = (int) Math.ceil(percentile * sorted.length);
+        return sorted[Math.max(rank - 1, 0)] / 1e6;
+    }
+
+    public record Summary(long requests, long errors, double errorRate, double throughput,
+                          double p50Ms, double p99Ms, double p999Ms, double maxMs) {}
+}
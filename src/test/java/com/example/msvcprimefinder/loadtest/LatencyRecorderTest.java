@@ -0,0 +1,76 @@
+package com.example.msvcprimefinder.loadtest;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class LatencyRecorderTest {
+
+    @Test
+    void summarize_NearestRankPercentiles() {
+        // 1 ms to 2000 ms in random order, past the initial 1024 sample capacity
+        List<Long> latenciesMs = new ArrayList<>();
+        for (long ms = 1; ms <= 2_000; ms++) latenciesMs.add(ms);
+        Collections.shuffle(latenciesMs, new Random(42));
+        LatencyRecorder recorder = new LatencyRecorder();
+        latenciesMs.forEach(ms -> recorder.recordSuccess(ms * 1_000_000));
+
+        LatencyRecorder.Summary summary = recorder.summarize(10);
+        assertEquals(2_000, summary.requests());
+        assertEquals(0, summary.errors());
+        assertEquals(200, summary.throughput());
+        assertEquals(1_000, summary.p50Ms());   // rank ceil(0.5 * 2000) = 1000
+        assertEquals(1_980, summary.p99Ms());   // rank ceil(0.99 * 2000) = 1980
+        assertEquals(1_998, summary.p999Ms());  // rank ceil(0.999 * 2000) = 1998
+        assertEquals(2_000, summary.maxMs());
+    }
+
+    @Test
+    void summarize_FewSamples_RoundsRankUp() {
+        LatencyRecorder recorder = new LatencyRecorder();
+        recorder.recordSuccess(3_000_000);
+        recorder.recordSuccess(1_000_000);
+        recorder.recordSuccess(2_000_000);
+
+        LatencyRecorder.Summary summary = recorder.summarize(1);
+        // ceil(0.5 * 3) = 2 and ceil(0.99 * 3) = 3, so the tail percentiles are the slowest sample
+        assertEquals(2, summary.p50Ms());
+        assertEquals(3, summary.p99Ms());
+        assertEquals(3, summary.p999Ms());
+    }
+
+    @Test
+    void addAll_MergesSamplesAndErrors() {
+        LatencyRecorder first = new LatencyRecorder();
+        first.recordSuccess(1_000_000);
+        first.recordError();
+        LatencyRecorder second = new LatencyRecorder();
+        second.recordSuccess(4_000_000);
+        second.recordSuccess(2_000_000);
+        second.recordError();
+        second.recordError();
+
+        LatencyRecorder total = new LatencyRecorder();
+        total.addAll(first);
+        total.addAll(second);
+        LatencyRecorder.Summary summary = total.summarize(3);
+        assertEquals(6, summary.requests());
+        assertEquals(3, summary.errors());
+        assertEquals(0.5, summary.errorRate());
+        // Only successes count towards throughput and latencies
+        assertEquals(1, summary.throughput());
+        assertEquals(2, summary.p50Ms());
+        assertEquals(4, summary.maxMs());
+    }
+
+    @Test
+    void summarize_NoSamples_AllZero() {
+        LatencyRecorder.Summary summary = new LatencyRecorder().summarize(1);
+        assertEquals(new LatencyRecorder.Summary(0, 0, 0, 0, 0, 0, 0, 0), summary);
+    }
+}
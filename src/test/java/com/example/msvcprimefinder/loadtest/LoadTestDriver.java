@@ -0,0 +1,151 @@
+package com.example.msvcprimefinder.loadtest;
+
+import com.example.msvcprimefinder.MsvcPrimefinderApplication;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-model HTTP load driver. Starts the app on a random port in this JVM (or targets a running instance with
+ * --target), then sends the workload's requests at a fixed rate for warmup + duration seconds and prints
+ * p50/p99/p99.9 latency, throughput and error rate per scenario.
+ * Latency is measured from when a request was scheduled to be sent, not when it actually went out, so a stalled
+ * server shows up as queueing delay instead of being hidden by a slower send rate (coordinated omission).
+ * Not run by surefire; run with the loadtest profile, e.g.
+ * mvn -Ploadtest verify -DskipTests -Dloadtest.args="--rate=50 --duration=30"
+ * Options: --workload=classpath:loadtest/default-workload.json or a file path, --target=http://host:port,
+ * --rate=requests per second, --duration=seconds, --report=path of a JSON report.
+ * */
+public class LoadTestDriver {
+    private static final String DEFAULT_WORKLOAD = "classpath:loadtest/default-workload.json";
+    private static final String TOTAL = "TOTAL";
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parseOptions(args);
+        Workload workload = Workload.read(options.getOrDefault("workload", DEFAULT_WORKLOAD));
+        if (options.containsKey("rate")) workload = workload.withRate(Double.parseDouble(options.get("rate")));
+        if (options.containsKey("duration")) workload = workload.withDuration(Integer.parseInt(options.get("duration")));
+
+        ConfigurableApplicationContext app = null;
+        String target = options.get("target");
+        if (target == null) {
+            // devtools would otherwise restart main() with the app's arguments instead of the driver's
+            System.setProperty("spring.devtools.restart.enabled", "false");
+            app = SpringApplication.run(MsvcPrimefinderApplication.class, "--server.port=0");
+            target = "http://localhost:" + ((ServletWebServerApplicationContext) app).getWebServer().getPort();
+        }
+        try {
+            Map<String, LatencyRecorder.Summary> report = run(workload, target);
+            printReport(workload, target, report);
+            if (options.containsKey("report")) {
+                Path reportPath = Path.of(options.get("report"));
+                if (reportPath.getParent() != null) Files.createDirectories(reportPath.getParent());
+                new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(reportPath.toFile(), report);
+            }
+        } finally {
+            if (app != null) app.close();
+        }
+    }
+
+    public static Map<String, LatencyRecorder.Summary> run(Workload workload, String target) {
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(workload.timeoutSeconds())).build();
+        Map<String, LatencyRecorder> recorders = new LinkedHashMap<>();
+        for (Workload.Scenario scenario : workload.scenarios()) {
+            recorders.put(scenario.name(), new LatencyRecorder());
+        }
+        Random random = new Random(workload.seed());
+        long intervalNs = (long) (1e9 / workload.ratePerSecond());
+        long warmupNs = TimeUnit.SECONDS.toNanos(workload.warmupSeconds());
+        long endNs = warmupNs + TimeUnit.SECONDS.toNanos(workload.durationSeconds());
+        List<CompletableFuture<Void>> inFlight = new ArrayList<>();
+
+        long startNs = System.nanoTime();
+        for (long i = 0; ; i++) {
+            long scheduledOffsetNs = i * intervalNs;
+            if (scheduledOffsetNs >= endNs) break;
+            long scheduledNs = startNs + scheduledOffsetNs;
+            // Wait for the slot, but never skip one: a late sender still charges the delay to the request
+            long waitNs = scheduledNs - System.nanoTime();
+            if (waitNs > 0) LockSupport.parkNanos(waitNs);
+
+            Workload.Scenario scenario = pick(workload, random);
+            LatencyRecorder recorder = scheduledOffsetNs < warmupNs ? null : recorders.get(scenario.name());
+            inFlight.add(client.sendAsync(toRequest(scenario, target, workload.timeoutSeconds()), HttpResponse.BodyHandlers.discarding())
+                    .handle((response, error) -> {
+                        if (recorder == null) return null;
+                        if (error != null || response.statusCode() >= 400) recorder.recordError();
+                        else recorder.recordSuccess(System.nanoTime() - scheduledNs);
+                        return null;
+                    }));
+        }
+        CompletableFuture.allOf(inFlight.toArray(new CompletableFuture[0])).join();
+
+        double measuredSeconds = workload.durationSeconds();
+        Map<String, LatencyRecorder.Summary> report = new LinkedHashMap<>();
+        LatencyRecorder total = new LatencyRecorder();
+        recorders.forEach((name, recorder) -> {
+            report.put(name, recorder.summarize(measuredSeconds));
+            total.addAll(recorder);
+        });
+        report.put(TOTAL, total.summarize(measuredSeconds));
+        return report;
+    }
+
+    private static Workload.Scenario pick(Workload workload, Random random) {
+        int ticket = random.nextInt(workload.totalWeight());
+        for (Workload.Scenario scenario : workload.scenarios()) {
+            ticket -= scenario.weight();
+            if (ticket < 0) return scenario;
+        }
+        throw new IllegalStateException("Scenario weights changed while picking");
+    }
+
+    private static HttpRequest toRequest(Workload.Scenario scenario, String target, int timeoutSeconds) {
+        HttpRequest.BodyPublisher body = scenario.body() == null
+                ? HttpRequest.BodyPublishers.noBody()
+                : HttpRequest.BodyPublishers.ofString(scenario.body());
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(target + scenario.path()))
+                .timeout(Duration.ofSeconds(timeoutSeconds))
+                .header("Accept", scenario.acceptOrDefault())
+                .method(scenario.methodOrDefault(), body);
+        if (scenario.body() != null) builder.header("Content-Type", "application/json");
+        return builder.build();
+    }
+
+    private static void printReport(Workload workload, String target, Map<String, LatencyRecorder.Summary> report) {
+        System.out.printf("%nLoad test against %s: %.1f req/s for %ds after %ds warmup%n",
+                target, workload.ratePerSecond(), workload.durationSeconds(), workload.warmupSeconds());
+        System.out.printf("%-28s %9s %8s %9s %10s %10s %10s %10s%n", "scenario", "requests", "errors", "req/s", "p50 ms", "p99 ms", "p99.9 ms", "max ms");
+        report.forEach((name, s) -> System.out.printf("%-28s %9d %8d %9.1f %10.2f %10.2f %10.2f %10.2f%n",
+                name, s.requests(), s.errors(), s.throughput(), s.p50Ms(), s.p99Ms(), s.p999Ms(), s.maxMs()));
+    }
+
+    private static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new LinkedHashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value, got: " + arg);
+            }
+            options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+        }
+        return options;
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.msvcprimefinder.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Load test definition read from JSON, see src/test/resources/loadtest/default-workload.json.
+ * Requests are sent at a fixed ratePerSecond whatever the response times (open model), each one picking a scenario
+ * at random in proportion to its weight. The random seed makes the sequence of scenarios repeatable between runs.
+ * */
+public record Workload(
+        double ratePerSecond,
+        int warmupSeconds,
+        int durationSeconds,
+        int timeoutSeconds,
+        long seed,
+        List<Scenario> scenarios
+) {
+    public record Scenario(String name, int weight, String method, String path, String accept, String body) {
+        public String methodOrDefault() {
+            return method == null ? "GET" : method;
+        }
+
+        public String acceptOrDefault() {
+            return accept == null ? "application/json" : accept;
+        }
+    }
+
+    public static Workload read(String location) throws IOException {
+        ObjectMapper mapper = new ObjectMapper();
+        if (location.startsWith("classpath:")) {
+            try (InputStream in = Workload.class.getResourceAsStream("/" + location.substring("classpath:".length()))) {
+                if (in == null) throw new IOException("Workload not found: " + location);
+                return mapper.readValue(in, Workload.class);
+            }
+        }
+        return mapper.readValue(Files.readString(Path.of(location)), Workload.class);
+    }
+
+    public int totalWeight() {
+        return scenarios.stream().mapToInt(Scenario::weight).sum();
+    }
+
+    public Workload withRate(double ratePerSecond) {
+        return new Workload(ratePerSecond, warmupSeconds, durationSeconds, timeoutSeconds, seed, scenarios);
+    }
+
+    public Workload withDuration(int durationSeconds) {
+        return new Workload(ratePerSecond, warmupSeconds, durationSeconds, timeoutSeconds, seed, scenarios);
+    }
+}
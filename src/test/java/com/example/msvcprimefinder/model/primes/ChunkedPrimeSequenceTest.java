@@ -0,0 +1,68 @@
+package com.example.msvcprimefinder.model.primes;
+
+import com.example.msvcprimefinder.algo.PrimeFinder;
+import com.example.msvcprimefinder.util.PrimeEstimator;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ChunkedPrimeSequenceTest {
+
+    @Test
+    void sequence_AcrossPageBoundaries_MatchesArray() {
+        // 30M has ~1.86M primes, so the sequence spans two pages
+        long[] expected = PrimeFinder.findPrimesWithSieve(30_000_000);
+        ChunkedPrimeSequence appended = new ChunkedPrimeSequence();
+        for (long prime : expected) appended.add(prime);
+        ChunkedPrimeSequence copied = ChunkedPrimeSequence.of(expected);
+
+        for (PrimeSequence sequence : new PrimeSequence[]{appended, copied}) {
+            assertEquals(expected.length, sequence.size());
+            assertEquals(expected[ChunkedPrimeSequence.PAGE_SIZE], sequence.get(ChunkedPrimeSequence.PAGE_SIZE));
+            assertArrayEquals(expected, sequence.toLongArray());
+            assertArrayEquals(Arrays.copyOfRange(expected, ChunkedPrimeSequence.PAGE_SIZE - 5, ChunkedPrimeSequence.PAGE_SIZE + 5),
+                    sequence.toLongArray(ChunkedPrimeSequence.PAGE_SIZE - 5, ChunkedPrimeSequence.PAGE_SIZE + 5));
+
+            // Views share the pages, and range iteration walks across the page boundary
+            PrimeSequence slice = sequence.slice(ChunkedPrimeSequence.PAGE_SIZE - 5, ChunkedPrimeSequence.PAGE_SIZE + 5);
+            AtomicLong sum = new AtomicLong();
+            slice.forEach(sum::addAndGet);
+            assertEquals(Arrays.stream(slice.toLongArray()).sum(), sum.get());
+            assertEquals(expected[ChunkedPrimeSequence.PAGE_SIZE], slice.get(5));
+            assertInstanceOf(PrimeSequenceSlice.class, sequence.head(10));
+            assertArrayEquals(Arrays.copyOf(expected, 10), sequence.head(10).toLongArray());
+        }
+    }
+
+    @Test
+    void countUpTo_BinarySearch() {
+        PrimeSequence sequence = PrimeFinder.findPrimeSequenceWithSieveOfAtkin(100);
+        assertEquals(25, sequence.size());
+        assertEquals(0, sequence.countUpTo(1));
+        assertEquals(1, sequence.countUpTo(2));
+        assertEquals(4, sequence.countUpTo(10));
+        assertEquals(25, sequence.countUpTo(97));
+        assertEquals(25, sequence.countUpTo(1_000));
+
+        AtomicLong sum = new AtomicLong();
+        sequence.forEach(sum::addAndGet);
+        assertEquals(1060, sum.get());
+    }
+
+    @Test
+    void toLongArray_InvalidRange_Throws() {
+        ChunkedPrimeSequence sequence = ChunkedPrimeSequence.of(new long[]{2, 3, 5});
+        assertThrows(IndexOutOfBoundsException.class, () -> sequence.get(3));
+        assertThrows(IndexOutOfBoundsException.class, () -> sequence.toLongArray(1, 4));
+        assertTrue(new ChunkedPrimeSequence().isEmpty());
+    }
+
+    @Test
+    void estimatePrimesArrayLength_BeyondArrayLimit_Throws() {
+        assertTrue(PrimeEstimator.estimatePrimeCount(100_000_000_000L) > Integer.MAX_VALUE);
+        assertThrows(IllegalStateException.class, () -> PrimeEstimator.estimatePrimesArrayLength(100_000_000_000L));
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.msvcprimefinder.model.primes;
+
+import com.example.msvcprimefinder.algo.PrimeFinder;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GapEncodedPrimeSequenceTest {
+
+    @Test
+    void tryEncode_RoundTripsAndCountsUpTo() {
+        long[] expected = PrimeFinder.findPrimesWithSieve(2_000_000);
+        PrimeSequence narrow = PrimeFinder.findPrimeSequenceWithSieve(2_000_000);
+        assertInstanceOf(IntArrayPrimeSequence.class, narrow);
+
+        GapEncodedPrimeSequence encoded = GapEncodedPrimeSequence.tryEncode(narrow);
+        assertNotNull(encoded);
+        assertArrayEquals(expected, encoded.toLongArray());
+        assertArrayEquals(Arrays.copyOfRange(expected, 63, 200), encoded.toLongArray(63, 200));
+        assertEquals(expected[12_345], encoded.get(12_345));
+        assertTrue(encoded.sizeInBytes() * 6 < expected.length * 8L);
+
+        for (long value : new long[]{0, 2, 3, 4, 97, 100, 1_000_000, 1_999_993, 2_000_000}) {
+            long expectedCount = Arrays.stream(expected).filter(p -> p <= value).count();
+            assertEquals(expectedCount, encoded.countUpTo(value), "countUpTo " + value);
+        }
+        PrimeSequence head = encoded.head(encoded.countUpTo(100));
+        assertEquals(25, head.size());
+        assertArrayEquals(Arrays.copyOf(expected, 25), head.toLongArray());
+    }
+
+    @Test
+    void tryEncode_GapTooWide_ReturnsNull() {
+        assertNull(GapEncodedPrimeSequence.tryEncode(LongArrayPrimeSequence.of(new long[]{3, 5, 1_000_003})));
+        assertNotNull(GapEncodedPrimeSequence.tryEncode(LongArrayPrimeSequence.of(new long[]{2, 3, 5, 7})));
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.msvcprimefinder.model.primes;
+
+import com.example.msvcprimefinder.algo.PrimeFinder;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PrimeSequenceSliceTest {
+    private static final long[] PRIMES = PrimeFinder.findPrimesWithSieve(2_000_000);
+
+    // Every representation, and a slice of a longer one standing in for a base
+    private static List<PrimeSequence> representations() {
+        long[] padded = Arrays.copyOf(PRIMES, PRIMES.length + 3);
+        for (int i = PRIMES.length; i < padded.length; i++) padded[i] = padded[i - 1] + 1_000;
+        return List.of(
+                PrimeFinder.findPrimeSequenceWithSieve(2_000_000),
+                LongArrayPrimeSequence.of(PRIMES),
+                GapEncodedPrimeSequence.tryEncode(LongArrayPrimeSequence.of(PRIMES)),
+                ChunkedPrimeSequence.of(PRIMES),
+                ChunkedPrimeSequence.of(padded).slice(0, PRIMES.length));
+    }
+
+    @Test
+    void slice_MatchesTheArrayRange() {
+        int from = 1_000;
+        int to = 100_003;
+        long[] expected = Arrays.copyOfRange(PRIMES, from, to);
+        for (PrimeSequence primes : representations()) {
+            String name = primes.getClass().getSimpleName();
+            PrimeSequence slice = primes.slice(from, to);
+            assertEquals(expected.length, slice.size(), name);
+            assertEquals(expected[77], slice.get(77), name);
+            assertArrayEquals(expected, slice.toLongArray(), name);
+            assertArrayEquals(Arrays.copyOfRange(expected, 63, 200), slice.toLongArray(63, 200), name);
+
+            List<Long> visited = new ArrayList<>();
+            slice.forEach(visited::add);
+            assertArrayEquals(expected, visited.stream().mapToLong(Long::longValue).toArray(), name);
+
+            // A destination longer than what is left only receives the rest of the slice
+            long[] destination = new long[10];
+            Arrays.fill(destination, -1);
+            assertEquals(3, slice.copyTo(expected.length - 3, destination), name);
+            assertArrayEquals(new long[]{expected[expected.length - 3], expected[expected.length - 2], expected[expected.length - 1], -1},
+                    Arrays.copyOf(destination, 4), name);
+            assertThrows(IndexOutOfBoundsException.class, () -> slice.get(expected.length), name);
+        }
+    }
+
+    @Test
+    void countUpTo_AndNestedSlices() {
+        for (PrimeSequence primes : representations()) {
+            String name = primes.getClass().getSimpleName();
+            PrimeSequence slice = primes.slice(primes.countUpTo(999), primes.countUpTo(1_000_000));
+            // 78,498 primes up to 10^6, less the 168 below 1,000
+            assertEquals(78_498 - 168, slice.size(), name);
+            assertEquals(0, slice.countUpTo(1_000), name);
+            assertEquals(1, slice.countUpTo(1_009), name);
+            assertEquals(slice.size(), slice.countUpTo(5_000_000), name);
+
+            PrimeSequence nested = slice.slice(10, 20).head(5);
+            assertInstanceOf(PrimeSequenceSlice.class, nested);
+            assertArrayEquals(slice.toLongArray(10, 15), nested.toLongArray(), name);
+            assertEquals(0, primes.slice(5, 5).size(), name);
+            assertThrows(IndexOutOfBoundsException.class, () -> primes.slice(10, 5), name);
+            assertThrows(IndexOutOfBoundsException.class, () -> slice.slice(0, slice.size() + 1), name);
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.msvcprimefinder.serializer;
+
+import com.example.msvcprimefinder.model.enums.ExportFormat;
+import com.example.msvcprimefinder.util.type.ExportFile;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FileRangeResponderTest {
+    private static final String CONTENT = "2\n3\n5\n7\n11\n13\n";
+
+    @TempDir
+    private Path directory;
+
+    private ExportFile file;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        Path path = Files.writeString(directory.resolve("primes-2-13.txt"), CONTENT, StandardCharsets.US_ASCII);
+        file = new ExportFile("primes-2-13.txt", path, ExportFormat.TEXT, CONTENT.length(), 6);
+    }
+
+    @Test
+    void send_WholeFileWithoutRange() throws Exception {
+        MockHttpServletResponse response = send(null);
+        assertEquals(200, response.getStatus());
+        assertEquals(CONTENT, response.getContentAsString());
+        assertEquals(CONTENT.length(), response.getContentLengthLong());
+        assertEquals("bytes", response.getHeader("Accept-Ranges"));
+        assertEquals("text/plain", response.getContentType());
+        assertTrue(response.getHeader("Content-Disposition").contains("primes-2-13.txt"));
+    }
+
+    @Test
+    void send_SingleRanges() throws Exception {
+        MockHttpServletResponse middle = send("bytes=4-7");
+        assertEquals(206, middle.getStatus());
+        assertEquals("5\n7\n", middle.getContentAsString());
+        assertEquals("bytes 4-7/" + CONTENT.length(), middle.getHeader("Content-Range"));
+
+        assertEquals("13\n", send("bytes=-3").getContentAsString());
+        assertEquals("11\n13\n", send("bytes=8-").getContentAsString());
+        // An end past the file is cut to the file
+        assertEquals("13\n", send("bytes=11-1000").getContentAsString());
+    }
+
+    @Test
+    void send_UnsatisfiableRange() throws Exception {
+        MockHttpServletResponse response = send("bytes=" + CONTENT.length() + "-");
+        assertEquals(416, response.getStatus());
+        assertEquals("bytes */" + CONTENT.length(), response.getHeader("Content-Range"));
+        assertEquals(0, response.getContentAsByteArray().length);
+    }
+
+    @Test
+    void send_MalformedOrMultipleRanges_SendWholeFile() throws Exception {
+        for (String range : new String[]{"bytes=0-1,4-5", "items=0-1", "bytes=x-y"}) {
+            MockHttpServletResponse response = send(range);
+            assertEquals(200, response.getStatus(), range);
+            assertEquals(CONTENT, response.getContentAsString(), range);
+        }
+    }
+
+    @Test
+    void send_SendfileSupported_HandsTheRegionToTheContainer() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setAttribute("org.apache.tomcat.sendfile.support", Boolean.TRUE);
+        request.addHeader("Range", "bytes=4-7");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        FileRangeResponder.send(request, response, file);
+
+        assertEquals(206, response.getStatus());
+        assertEquals(0, response.getContentAsByteArray().length);
+        assertEquals(file.path().toAbsolutePath().toString(), request.getAttribute("org.apache.tomcat.sendfile.filename"));
+        assertEquals(4L, request.getAttribute("org.apache.tomcat.sendfile.start"));
+        assertEquals(8L, request.getAttribute("org.apache.tomcat.sendfile.end"));
+    }
+
+    private MockHttpServletResponse send(String range) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        if (range != null) request.addHeader("Range", range);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        FileRangeResponder.send(request, response, file);
+        return response;
+    }
+}
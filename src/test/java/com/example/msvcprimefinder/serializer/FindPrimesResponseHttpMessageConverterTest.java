@@ -0,0 +1,90 @@
+package com.example.msvcprimefinder.serializer;
+
+import com.example.msvcprimefinder.algo.PrimeFinder;
+import com.example.msvcprimefinder.model.primes.LongArrayPrimeSequence;
+import com.example.msvcprimefinder.model.primes.PrimeSequence;
+import com.example.msvcprimefinder.response.FindPrimesResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import java.io.ByteArrayOutputStream;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FindPrimesResponseHttpMessageConverterTest {
+    private final FindPrimesResponseHttpMessageConverter converter = new FindPrimesResponseHttpMessageConverter();
+    // Same date handling as the Spring Boot configured mapper
+    private final ObjectMapper xmlMapper = Jackson2ObjectMapperBuilder.xml().featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS).build();
+
+    @Test
+    void canWrite_OnlyXml() {
+        assertTrue(converter.canWrite(FindPrimesResponse.class, MediaType.APPLICATION_XML));
+        assertFalse(converter.canWrite(FindPrimesResponse.class, MediaType.APPLICATION_JSON));
+        assertFalse(converter.canRead(FindPrimesResponse.class, MediaType.APPLICATION_XML));
+    }
+
+    @Test
+    void write_Xml_MatchesJackson() throws Exception {
+        FindPrimesResponse response = response(PrimeFinder.findPrimeSequenceWithSieve(10_000));
+        MockHttpOutputMessage output = new MockHttpOutputMessage();
+        converter.write(response, MediaType.APPLICATION_XML, output);
+
+        assertEquals(xmlMapper.readTree(xmlMapper.writeValueAsString(response)), xmlMapper.readTree(output.getBodyAsString()));
+        assertTrue(output.getBodyAsString().startsWith("<FindPrimesResponse><result><prime>2</prime><prime>3</prime>"));
+    }
+
+    @Test
+    void write_XmlWithTimings_MatchesJackson() throws Exception {
+        FindPrimesResponse response = response(PrimeFinder.findPrimeSequenceWithSieve(100))
+                .withTimings(new LinkedHashMap<>(Map.of("SEGMENT_MARKING", 1200L)));
+        MockHttpOutputMessage output = new MockHttpOutputMessage();
+        converter.write(response, MediaType.APPLICATION_XML, output);
+        assertEquals(xmlMapper.readTree(xmlMapper.writeValueAsString(response)), xmlMapper.readTree(output.getBodyAsString()));
+        assertTrue(output.getBodyAsString().endsWith("<timings><SEGMENT_MARKING>1200</SEGMENT_MARKING></timings></FindPrimesResponse>"));
+    }
+
+    @Test
+    void write_XmlPartial_MatchesJackson() throws Exception {
+        FindPrimesResponse response = response(PrimeFinder.findPrimeSequenceWithSieve(100))
+                .withDeadlineOutcome(true, 100);
+        MockHttpOutputMessage output = new MockHttpOutputMessage();
+        converter.write(response, MediaType.APPLICATION_XML, output);
+        assertEquals(xmlMapper.readTree(xmlMapper.writeValueAsString(response)), xmlMapper.readTree(output.getBodyAsString()));
+        assertTrue(output.getBodyAsString().endsWith("<partial>true</partial><sievedUpTo>100</sievedUpTo></FindPrimesResponse>"));
+    }
+
+    @Test
+    void write_EmptyResult() throws Exception {
+        FindPrimesResponse response = response(PrimeSequence.empty());
+        MockHttpOutputMessage output = new MockHttpOutputMessage();
+        converter.write(response, MediaType.APPLICATION_XML, output);
+        assertEquals(xmlMapper.readTree(xmlMapper.writeValueAsString(response)), xmlMapper.readTree(output.getBodyAsString()));
+    }
+
+    @Test
+    void writeLong_EdgeValues() throws Exception {
+        long[] values = {0, 7, 10, 99, 100, 101, 999_999_999_989L, Long.MAX_VALUE, -1, -100, Long.MIN_VALUE};
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        // A tiny buffer forces flushes in the middle of numbers and strings
+        try (AsciiWriter writer = new AsciiWriter(out, new ByteBufferPool(24, 1))) {
+            for (long value : values) {
+                writer.writeLong(value);
+                writer.writeAscii(" | ");
+            }
+        }
+        StringBuilder expected = new StringBuilder();
+        for (long value : values) expected.append(value).append(" | ");
+        assertEquals(expected.toString(), out.toString());
+    }
+
+    private static FindPrimesResponse response(PrimeSequence primes) {
+        return new FindPrimesResponse(primes, primes.size(), 12, 12_345_678, "SIEVE", false, LocalDateTime.of(2026, 10, 19, 8, 0));
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.msvcprimefinder.service;
+
+import com.example.msvcprimefinder.exception.FindPrimesArgException;
+import com.example.msvcprimefinder.response.FactorizeResponse;
+import com.example.msvcprimefinder.util.LaneScheduler;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.spy;
+
+@ExtendWith(SpringExtension.class)
+@SpringBootTest
+public class FactorizeServiceImplTest {
+
+    @Autowired
+    private FactorizeServiceImpl factorizeService;
+
+    @Autowired
+    private ExecutorServiceProvider executorServiceProvider;
+
+    @Autowired
+    private PrimeCacheService primeCacheService;
+
+    private List<FactorizeResponse.PrimePower> factorsOf(long value) {
+        return factorizeService.factorize(new long[]{value}).factorizations().get(0).factors();
+    }
+
+    private static FactorizeResponse.PrimePower power(long prime, int exponent) {
+        return new FactorizeResponse.PrimePower(prime, exponent);
+    }
+
+    @Test
+    public void testFactorize_SmallValuesFromTable() {
+        assertEquals(List.of(), factorsOf(1));
+        assertEquals(List.of(power(2, 1)), factorsOf(2));
+        assertEquals(List.of(power(2, 2), power(5, 2)), factorsOf(100));
+        assertEquals(List.of(power(97, 1)), factorsOf(97));
+        assertEquals(List.of(power(2, 3), power(3, 2), power(5, 1), power(7, 1)), factorsOf(2520));
+    }
+
+    @Test
+    public void testFactorize_LargeValues() {
+        assertEquals(List.of(power(71, 1), power(839, 1), power(1471, 1), power(6857, 1)), factorsOf(600_851_475_143L));
+        assertEquals(List.of(power(1_000_000_007L, 1), power(1_000_000_009L, 1)), factorsOf(1_000_000_016_000_000_063L));
+        assertEquals(List.of(power(2_147_483_647L, 2)), factorsOf(4_611_686_014_132_420_609L));
+        assertEquals(List.of(power(2, 62)), factorsOf(1L << 62));
+        assertEquals(List.of(power(7, 2), power(73, 1), power(127, 1), power(337, 1), power(92_737, 1), power(649_657, 1)), factorsOf(Long.MAX_VALUE));
+
+        FactorizeResponse.Factorization largestPrime = factorizeService.factorize(new long[]{9_223_372_036_854_775_783L}).factorizations().get(0);
+        assertTrue(largestPrime.prime());
+        assertEquals(List.of(power(9_223_372_036_854_775_783L, 1)), largestPrime.factors());
+    }
+
+    @Test
+    public void testFactorize_BatchMatchesValues() {
+        Random random = new Random(42);
+        long[] values = new long[10_000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i % 2 == 0 ? random.nextInt(1 << 22) + 1 : (random.nextLong() >>> 1) | 1;
+        }
+        List<FactorizeResponse.Factorization> factorizations = factorizeService.factorize(values).factorizations();
+        assertEquals(values.length, factorizations.size());
+        for (int i = 0; i < values.length; i++) {
+            FactorizeResponse.Factorization factorization = factorizations.get(i);
+            assertEquals(values[i], factorization.value(), "Batch order should be preserved");
+            BigInteger product = BigInteger.ONE;
+            for (FactorizeResponse.PrimePower factor : factorization.factors()) {
+                assertTrue(BigInteger.valueOf(factor.prime()).isProbablePrime(30), factor.prime() + " should be prime");
+                product = product.multiply(BigInteger.valueOf(factor.prime()).pow(factor.exponent()));
+            }
+            assertEquals(BigInteger.valueOf(values[i]), product, "Factors should multiply back to " + values[i]);
+        }
+    }
+
+    @Test
+    public void testFactorize_BatchRunsAsOneRequestInItsLane() {
+        ExecutorServiceProvider providerSpy = spy(executorServiceProvider);
+        List<LaneScheduler.Lane> lanes = new ArrayList<>();
+        doAnswer(invocation -> {
+            LaneScheduler.RequestExecutor executor = (LaneScheduler.RequestExecutor) invocation.callRealMethod();
+            lanes.add(executor.getLane());
+            return executor;
+        }).when(providerSpy).getExecutor(anyLong());
+        FactorizeServiceImpl service = new FactorizeServiceImpl(providerSpy, primeCacheService);
+
+        // 10k table values are a cheap batch, 10k values past the table need trial division and rho
+        long[] small = new long[10_000];
+        long[] large = new long[10_000];
+        for (int i = 0; i < small.length; i++) {
+            small[i] = i + 1;
+            large[i] = (1L << 40) + 2 * i + 1;
+        }
+        assertEquals(small.length, service.factorize(small).factorizations().size());
+        assertEquals(List.of(LaneScheduler.Lane.INTERACTIVE), lanes);
+        assertEquals(large.length, service.factorize(large).factorizations().size());
+        assertEquals(List.of(LaneScheduler.Lane.INTERACTIVE, LaneScheduler.Lane.BULK), lanes);
+    }
+
+    @Test
+    public void testFactorize_NonPositiveValue() {
+        Exception exception = assertThrows(FindPrimesArgException.class, () -> factorizeService.factorize(new long[]{10, 0}));
+        assertEquals("Only positive values can be factorized: 0", exception.getMessage());
+    }
+}
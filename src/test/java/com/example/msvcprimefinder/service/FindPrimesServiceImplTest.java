@@ -1,15 +1,35 @@
 package com.example.msvcprimefinder.service;
 
 import com.example.msvcprimefinder.exception.FindPrimesArgException;
+import com.example.msvcprimefinder.jfr.FindPrimesEvent;
+import com.example.msvcprimefinder.jfr.PrimePhaseEvent;
 import com.example.msvcprimefinder.model.enums.PrimeAlgorithmNames;
+import com.example.msvcprimefinder.model.primes.PrimeSequenceSlice;
+import com.example.msvcprimefinder.request.FindPrimesBatchRequest;
+import com.example.msvcprimefinder.response.FindPrimesBatchResponse;
 import com.example.msvcprimefinder.response.FindPrimesResponse;
+import com.example.msvcprimefinder.response.NthPrimeResponse;
+import com.example.msvcprimefinder.response.PrimeAnalyticsResponse;
+import com.example.msvcprimefinder.response.PrimesPageResponse;
+import com.example.msvcprimefinder.response.ProgressionPrimesResponse;
+import com.example.msvcprimefinder.response.SumPrimesResponse;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
+import reactor.test.StepVerifier;
 
+import java.math.BigInteger;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -62,20 +82,24 @@ public class FindPrimesServiceImplTest {
 
     @Test
     public void testFindPrimes_SkipCacheSave_MemReqTooBig() {
-        PrimeCacheService primeCacheServiceMock = mock(PrimeCacheService.class);
-        when(primeCacheServiceMock.addPrimesToCache(any())).thenReturn(false);
+        PrimeCacheService primeCacheServiceSpy = spy(new PrimeCacheService());
+        doReturn(0L).when(primeCacheServiceSpy).getMaxSafeCacheSize();
 
-        FindPrimesService primesService = new FindPrimesServiceImpl(executorServiceProvider, primeCacheServiceMock);
+        FindPrimesService primesService = new FindPrimesServiceImpl(executorServiceProvider, primeCacheServiceSpy);
         long limit = 1_000_000_000 + 1;
         primesService.findPrimes(limit, PrimeAlgorithmNames.SIEVE, true, true);
-        verify(primeCacheServiceMock, never()).setCachedLimit(anyLong());
+        verify(primeCacheServiceSpy).addPrimesToCache(any(), eq(limit));
+        assertEquals(0, primeCacheServiceSpy.getCachedLimit());
     }
 
     @Test
     public void testFindPrimes_SmartAlgorithmSelection_LimitGt() {
         long limit = SMART_MAX_SWITCH + 1;
         FindPrimesResponse response = findPrimesService.findPrimes(limit, PrimeAlgorithmNames.SMART, false, true);
-        assertEquals(PrimeAlgorithmNames.SEGMENTED_SIEVE_CONCURRENT.name(), response.algorithmName());
+        PrimeAlgorithmNames expectedAlgorithm = Runtime.getRuntime().availableProcessors() >= FindPrimesServiceImpl.SMART_CONCURRENT_MIN_PROCESSORS
+                ? PrimeAlgorithmNames.SEGMENTED_SIEVE_CONCURRENT
+                : PrimeAlgorithmNames.SIEVE_ATKIN;
+        assertEquals(expectedAlgorithm.name(), response.algorithmName());
     }
 
     @Test
@@ -100,7 +124,7 @@ public class FindPrimesServiceImplTest {
             PrimeAlgorithmNames expectedAlgorithm = algorithm == PrimeAlgorithmNames.SMART ? PrimeAlgorithmNames.SIEVE : algorithm;
             assertEquals(expectedAlgorithm.name(), response.algorithmName() , "Expected algorithm: " + expectedAlgorithm);
             assertEquals(mockPrimes.length, response.numberOfPrimes(), "Count of result should match for " + algorithm.name());
-            long[] responsePrimes = response.result();
+            long[] responsePrimes = response.result().toLongArray();
             Arrays.sort(responsePrimes);
             assertArrayEquals(mockPrimes, responsePrimes, "Primes returned should match for " + algorithm.name());
             assertFalse(response.useCache(), "useCache should be false for " + algorithm.name());
@@ -120,6 +144,17 @@ public class FindPrimesServiceImplTest {
         });
     }
 
+    @Test
+    public void testFindPrimes_SieveOfAtkin_MultipleSegments() {
+        long limit = 10_000_000;
+        int primesInTenMillion = 664_579;
+        FindPrimesResponse response = findPrimesService.findPrimes(limit, PrimeAlgorithmNames.SIEVE_ATKIN, false, true);
+        FindPrimesResponse sieveResponse = findPrimesService.findPrimes(limit, PrimeAlgorithmNames.SIEVE, false, true);
+        assertEquals(PrimeAlgorithmNames.SIEVE_ATKIN.name(), response.algorithmName());
+        assertEquals(primesInTenMillion, response.numberOfPrimes());
+        assertArrayEquals(sieveResponse.result().toLongArray(), response.result().toLongArray());
+    }
+
     @Test
     public void testFindPrimes_ConcurrentSieve_HugeLimit() {
         long limit = 1_000_000_000;
@@ -136,8 +171,338 @@ public class FindPrimesServiceImplTest {
         int primesInABillion = 50_847_534;
         FindPrimesResponse response = findPrimesService.findPrimes(limit, PrimeAlgorithmNames.SEGMENTED_SIEVE_CONCURRENT, false, false);
         assertEquals(PrimeAlgorithmNames.SEGMENTED_SIEVE_CONCURRENT.name(), response.algorithmName());
-        assertArrayEquals(new long[0], response.result());
+        assertArrayEquals(new long[0], response.result().toLongArray());
         assertEquals(primesInABillion, response.numberOfPrimes());
         assertFalse(response.useCache());
     }
+
+    @Test
+    public void testFindNthPrime_SmallIndexes() {
+        for (int i = 0; i < mockPrimes.length; i++) {
+            NthPrimeResponse response = findPrimesService.findNthPrime(i + 1);
+            assertEquals(mockPrimes[i], response.prime(), "Prime number " + (i + 1) + " should match");
+            assertTrue(response.windowLow() <= response.prime() && response.prime() <= response.windowHigh());
+        }
+    }
+
+    @Test
+    public void testFindNthPrime_LargeIndexes() {
+        assertEquals(999_983L, findPrimesService.findNthPrime(78_498).prime());
+        assertEquals(15_485_863L, findPrimesService.findNthPrime(1_000_000).prime());
+        assertEquals(22_801_763_489L, findPrimesService.findNthPrime(1_000_000_000).prime());
+    }
+
+    @Test
+    public void testFindNthPrime_IndexTooLarge() {
+        Exception exception = assertThrows(FindPrimesArgException.class, () -> findPrimesService.findNthPrime(100_000_000_001L));
+        assertEquals("n is too large, please provide n less than or equal to: 100000000000", exception.getMessage());
+    }
+
+    @Test
+    public void testAnalysePrimes_OneMillion() {
+        PrimeAnalyticsResponse response = findPrimesService.analysePrimes(1_000_000, 3);
+        assertEquals(78_498, response.numberOfPrimes());
+        assertEquals(8_169, response.twinPrimes().count());
+        assertEquals(2_837, response.primeTriplets().count());
+        assertEquals(166, response.primeQuadruplets().count());
+        assertEquals(114, response.maxGap().gap());
+        assertEquals(492_113, response.maxGap().start());
+        assertArrayEquals(new long[]{3, 5}, response.twinPrimes().occurrences().get(0));
+        assertArrayEquals(new long[]{5, 7, 11}, response.primeTriplets().occurrences().get(0));
+        assertArrayEquals(new long[]{5, 7, 11, 13}, response.primeQuadruplets().occurrences().get(0));
+        assertEquals(3, response.twinPrimes().occurrences().size());
+        assertEquals(response.numberOfPrimes() - 1, response.gapHistogram().stream().mapToLong(PrimeAnalyticsResponse.GapCount::count).sum());
+    }
+
+    @Test
+    public void testAnalysePrimes_MatchesSieveAcrossSegments() {
+        long limit = 3_000_000;
+        long[] primes = findPrimesService.findPrimes(limit, PrimeAlgorithmNames.SIEVE, false, true).result().toLongArray();
+        long twins = 0;
+        long maxGap = 0;
+        for (int i = 1; i < primes.length; i++) {
+            if (primes[i] - primes[i - 1] == 2) twins++;
+            maxGap = Math.max(maxGap, primes[i] - primes[i - 1]);
+        }
+        PrimeAnalyticsResponse response = findPrimesService.analysePrimes(limit, 0);
+        assertEquals(primes.length, response.numberOfPrimes());
+        assertEquals(twins, response.twinPrimes().count());
+        assertEquals(maxGap, response.maxGap().gap());
+        assertTrue(response.twinPrimes().occurrences().isEmpty());
+    }
+
+    @Test
+    public void testSumPrimes_SmallLimit() {
+        SumPrimesResponse response = findPrimesService.sumPrimes(100, 4);
+        assertEquals(mockPrimes.length, response.numberOfPrimes());
+        assertEquals(BigInteger.valueOf(Arrays.stream(mockPrimes).sum()), response.sumOfPrimes());
+        assertEquals(BigInteger.valueOf(Arrays.stream(mockPrimes).map(p -> p * p).sum()), response.sumOfPrimeSquares());
+        assertEquals(4, response.modulus());
+        assertEquals(List.of(0L, 11L, 1L, 13L), response.residueCounts().stream().map(SumPrimesResponse.ResidueCount::count).toList());
+    }
+
+    @Test
+    public void testSumPrimes_LargeLimit() {
+        SumPrimesResponse response = findPrimesService.sumPrimes(1_000_000_000_000L, null);
+        assertEquals(37_607_912_018L, response.numberOfPrimes());
+        assertEquals(new BigInteger("18435588552550705911377"), response.sumOfPrimes());
+        assertNull(response.residueCounts());
+    }
+
+    @Test
+    public void testSumPrimes_InvalidArguments() {
+        Exception limitException = assertThrows(FindPrimesArgException.class, () -> findPrimesService.sumPrimes(1_000_000_000_001L, null));
+        assertEquals("Limit is too large for prime sums, please provide a limit less than or equal to: 1000000000000", limitException.getMessage());
+        Exception modulusException = assertThrows(FindPrimesArgException.class, () -> findPrimesService.sumPrimes(100, 65));
+        assertEquals("Modulus must be between 1 and 64", modulusException.getMessage());
+        Exception residueLimitException = assertThrows(FindPrimesArgException.class, () -> findPrimesService.sumPrimes(100_000_000_001L, 4));
+        assertEquals("Limit is too large for residue counts, please provide a limit less than or equal to: 100000000000", residueLimitException.getMessage());
+    }
+
+    @Test
+    public void testSumPrimes_OnePassMatchesSieve() {
+        long[] primes = findPrimesService.findPrimes(2_000_000, PrimeAlgorithmNames.SIEVE, false, true).result().toLongArray();
+        long[] expectedCounts = new long[30];
+        BigInteger expectedSquares = BigInteger.ZERO;
+        for (long prime : primes) {
+            expectedCounts[(int) (prime % 30)]++;
+            expectedSquares = expectedSquares.add(BigInteger.valueOf(prime * prime));
+        }
+
+        SumPrimesResponse response = findPrimesService.sumPrimes(2_000_000, 30);
+        assertEquals(primes.length, response.numberOfPrimes());
+        assertEquals(BigInteger.valueOf(Arrays.stream(primes).sum()), response.sumOfPrimes());
+        assertEquals(expectedSquares, response.sumOfPrimeSquares());
+        assertArrayEquals(expectedCounts, response.residueCounts().stream().mapToLong(SumPrimesResponse.ResidueCount::count).toArray());
+    }
+
+    @Test
+    public void testFindPrimesBatch_MatchesSieve() {
+        long[] primes = findPrimesService.findPrimes(3_000_000, PrimeAlgorithmNames.SIEVE, false, true).result().toLongArray();
+        // Hide whatever other tests cached, so the batch sieves its own bitmap
+        primeCacheService.clear();
+        FindPrimesBatchResponse response = findPrimesService.findPrimesBatch(List.of(
+                new FindPrimesBatchRequest.PrimeQuery(100L, null, null),
+                new FindPrimesBatchRequest.PrimeQuery(null, 1_000_000L, 3_000_000L),
+                new FindPrimesBatchRequest.PrimeQuery(2L, null, null),
+                new FindPrimesBatchRequest.PrimeQuery(null, 0L, 1L)
+        ), true);
+        assertEquals(3_000_000, response.sievedUpTo());
+        assertEquals(4, response.parts().size());
+        assertArrayEquals(mockPrimes, response.parts().get(0).result().toLongArray());
+        long[] expectedRange = Arrays.stream(primes).filter(p -> p >= 1_000_000).toArray();
+        assertEquals(expectedRange.length, response.parts().get(1).numberOfPrimes());
+        assertArrayEquals(expectedRange, response.parts().get(1).result().toLongArray());
+        assertArrayEquals(new long[]{2}, response.parts().get(2).result().toLongArray());
+        assertEquals(0, response.parts().get(3).numberOfPrimes());
+    }
+
+    @Test
+    public void testFindPrimesBatch_FromCache_ViewsWithoutSieving() {
+        long[] primes = findPrimesService.findPrimes(3_000_000, PrimeAlgorithmNames.SIEVE, true, true).result().toLongArray();
+        FindPrimesBatchResponse response = findPrimesService.findPrimesBatch(List.of(
+                new FindPrimesBatchRequest.PrimeQuery(100L, null, null),
+                new FindPrimesBatchRequest.PrimeQuery(null, 1_000_000L, 3_000_000L),
+                new FindPrimesBatchRequest.PrimeQuery(null, 24L, 28L),
+                new FindPrimesBatchRequest.PrimeQuery(null, 0L, 1L)
+        ), true);
+        assertEquals(primeCacheService.getCachedLimit(), response.sievedUpTo());
+        assertArrayEquals(mockPrimes, response.parts().get(0).result().toLongArray());
+        long[] expectedRange = Arrays.stream(primes).filter(p -> p >= 1_000_000).toArray();
+        assertEquals(expectedRange.length, response.parts().get(1).numberOfPrimes());
+        assertArrayEquals(expectedRange, response.parts().get(1).result().toLongArray());
+        assertInstanceOf(PrimeSequenceSlice.class, response.parts().get(1).result());
+        assertEquals(0, response.parts().get(2).numberOfPrimes());
+        assertEquals(0, response.parts().get(3).numberOfPrimes());
+    }
+
+    @Test
+    public void testFindPrimesBatch_CountsOnly() {
+        FindPrimesBatchResponse response = findPrimesService.findPrimesBatch(List.of(
+                new FindPrimesBatchRequest.PrimeQuery(1_000_000_000L, null, null),
+                new FindPrimesBatchRequest.PrimeQuery(10_000_000L, null, null)
+        ), false);
+        assertEquals(50_847_534, response.parts().get(0).numberOfPrimes());
+        assertEquals(664_579, response.parts().get(1).numberOfPrimes());
+        assertEquals(0, response.parts().get(0).result().size());
+    }
+
+    @Test
+    public void testFindPrimesBatch_InvalidQueries() {
+        Exception bothException = assertThrows(FindPrimesArgException.class, () -> findPrimesService.findPrimesBatch(
+                List.of(new FindPrimesBatchRequest.PrimeQuery(100L, 2L, 10L)), true));
+        assertEquals("Query 0 must have either a limit or a from/to range", bothException.getMessage());
+        Exception orderException = assertThrows(FindPrimesArgException.class, () -> findPrimesService.findPrimesBatch(
+                List.of(new FindPrimesBatchRequest.PrimeQuery(100L, null, null), new FindPrimesBatchRequest.PrimeQuery(null, 10L, 2L)), true));
+        assertEquals("Query 1 has from greater than to", orderException.getMessage());
+    }
+
+    @Test
+    public void testStreamPrimes_MatchesSieve() {
+        long[] primes = findPrimesService.findPrimes(1_000_000, PrimeAlgorithmNames.SIEVE, false, true).result().toLongArray();
+        List<long[]> chunks = findPrimesService.streamPrimes(2, 1_000_000).collectList().block();
+        // One chunk per segment, sized by the tuner
+        int segmentSize = executorServiceProvider.getSegmentSizeTuner().segmentedSieveSize();
+        assertEquals((1_000_000 - 2) / segmentSize + 1, chunks.size());
+        assertArrayEquals(primes, chunks.stream().flatMapToLong(Arrays::stream).toArray());
+        assertArrayEquals(new long[]{97, 101, 103, 107, 109}, findPrimesService.streamPrimes(90, 110).blockFirst());
+    }
+
+    @Test
+    public void testStreamPrimes_OnlySievesWhatIsRequested() {
+        // A range far too slow to sieve in a test: it only completes because segments are generated on request
+        // Segments are never smaller than the largest base prime, 99991 for 10^10
+        long secondSegmentLow = 2 + Math.max(executorServiceProvider.getSegmentSizeTuner().segmentedSieveSize(), 99_991);
+        StepVerifier.create(findPrimesService.streamPrimes(2, 10_000_000_000L), 0)
+                .expectSubscription()
+                .expectNoEvent(Duration.ofMillis(50))
+                .thenRequest(2)
+                .assertNext(chunk -> assertEquals(2, chunk[0]))
+                .assertNext(chunk -> assertTrue(chunk[0] >= secondSegmentLow && chunk[0] < secondSegmentLow + 1_000))
+                .expectNoEvent(Duration.ofMillis(50))
+                .thenCancel()
+                .verify();
+    }
+
+    @Test
+    public void testStreamPrimes_InvalidArguments() {
+        Exception limitException = assertThrows(FindPrimesArgException.class, () -> findPrimesService.streamPrimes(2, 100_000_000_000_001L));
+        assertEquals("Limit is too large for streaming, please provide a limit less than or equal to: 100000000000000", limitException.getMessage());
+        Exception rangeException = assertThrows(FindPrimesArgException.class, () -> findPrimesService.streamPrimes(200, 100));
+        assertEquals("from must be less than or equal to limit", rangeException.getMessage());
+    }
+
+    @Test
+    public void testFindPrimesPage_CursorWalksAcrossCacheBoundary() {
+        long[] primes = findPrimesService.findPrimes(100_000, PrimeAlgorithmNames.SIEVE, false, true).result().toLongArray();
+        // Cache the primes up to 10_000 so pages start in the cache and continue with the windowed sieve
+        findPrimesService.findPrimes(10_000, PrimeAlgorithmNames.SIEVE, true, true);
+
+        List<Long> walked = new ArrayList<>();
+        PrimesPageResponse page = findPrimesService.findPrimesPage(null, null, null, 700);
+        int pagesFromCache = 0;
+        while (walked.size() < primes.length) {
+            assertEquals(walked.size(), page.firstIndex());
+            if (page.primesFromCache() > 0) pagesFromCache++;
+            for (long prime : page.result()) walked.add(prime);
+            page = findPrimesService.findPrimesPage(page.nextCursor(), null, null, 700);
+        }
+        assertTrue(pagesFromCache > 0);
+        assertArrayEquals(primes, walked.stream().mapToLong(Long::longValue).limit(primes.length).toArray());
+    }
+
+    @Test
+    public void testFindPrimesPage_IndexAndValueAgree() {
+        PrimesPageResponse byIndex = findPrimesService.findPrimesPage(null, 78_498L, null, 5);
+        PrimesPageResponse byValue = findPrimesService.findPrimesPage(null, null, 1_000_000L, 5);
+        assertArrayEquals(new long[]{1_000_003, 1_000_033, 1_000_037, 1_000_039, 1_000_081}, byIndex.result());
+        assertArrayEquals(byIndex.result(), byValue.result());
+        assertEquals(78_498, byValue.firstIndex());
+        assertEquals(byIndex.nextCursor(), byValue.nextCursor());
+    }
+
+    @Test
+    public void testFindPrimesPage_InvalidArguments() {
+        Exception cursorException = assertThrows(FindPrimesArgException.class, () -> findPrimesService.findPrimesPage("not-a-cursor", null, null, 10));
+        assertEquals("Invalid cursor", cursorException.getMessage());
+        Exception bothException = assertThrows(FindPrimesArgException.class, () -> findPrimesService.findPrimesPage(null, 10L, 100L, 10));
+        assertEquals("Please provide only one of cursor, index or from", bothException.getMessage());
+        // The prime at index pi(10^12) is past the last page value, so it is rejected before locating it
+        Exception indexException = assertThrows(FindPrimesArgException.class, () -> findPrimesService.findPrimesPage(null, 37_607_912_018L, null, 10));
+        assertEquals("index is too large, please provide an index less than: 37607912018", indexException.getMessage());
+    }
+
+    @Test
+    public void testFindPrimesInProgression_ListAndCount() {
+        ProgressionPrimesResponse listed = findPrimesService.findPrimesInProgression(2, 100, 4, 1, true);
+        assertArrayEquals(new long[]{5, 13, 17, 29, 37, 41, 53, 61, 73, 89, 97}, listed.result());
+        assertEquals(11, listed.numberOfPrimes());
+
+        ProgressionPrimesResponse counted = findPrimesService.findPrimesInProgression(2, 1_000_000_000, 30_030, 1, false);
+        assertNull(counted.result());
+        assertEquals(8_817, counted.numberOfPrimes());
+
+        Exception residueException = assertThrows(FindPrimesArgException.class, () -> findPrimesService.findPrimesInProgression(2, 100, 4, 4, true));
+        assertEquals("residue must be in [0, modulus)", residueException.getMessage());
+        Exception limitException = assertThrows(FindPrimesArgException.class, () -> findPrimesService.findPrimesInProgression(2, 1_000_000_000_001L, 4, 1, false));
+        assertEquals("Limit is too large for a progression, please provide a limit less than or equal to: 1000000000000", limitException.getMessage());
+    }
+
+    @Test
+    public void testFindPrimes_WithTimings() {
+        FindPrimesResponse response = findPrimesService.findPrimes(2_000_000, PrimeAlgorithmNames.SIEVE_ATKIN, false, false, true);
+        assertEquals(List.of("BASE_PRIMES", "SEGMENT_MARKING", "EXTRACTION", "MERGE"), List.copyOf(response.timings().keySet()));
+        long phasesNs = response.timings().values().stream().mapToLong(Long::longValue).sum();
+        assertTrue(phasesNs <= response.executionTimeNs());
+
+        assertNull(findPrimesService.findPrimes(100, PrimeAlgorithmNames.SIEVE, false, true).timings());
+        findPrimesService.findPrimes(1_000, PrimeAlgorithmNames.SIEVE, true, true);
+        FindPrimesResponse cacheHit = findPrimesService.findPrimes(500, PrimeAlgorithmNames.SIEVE, true, true, true);
+        assertTrue(cacheHit.timings().containsKey("CACHE_LOOKUP"));
+    }
+
+    @Test
+    public void testFindPrimes_DeadlineReturnsPartialResult() {
+        // Takes seconds without a deadline, still passes the memory check of a small test heap
+        long limit = 800_000_000L;
+        FindPrimesResponse response = findPrimesService.findPrimes(limit, PrimeAlgorithmNames.SIEVE_ATKIN, false, true, false, 10L);
+        assertTrue(response.partial());
+        assertTrue(response.sievedUpTo() > 0 && response.sievedUpTo() < limit);
+        FindPrimesResponse full = findPrimesService.findPrimes(response.sievedUpTo(), PrimeAlgorithmNames.SEGMENTED_SIEVE, false, true);
+        assertEquals(full.numberOfPrimes(), response.numberOfPrimes());
+        assertEquals(full.result().get(full.numberOfPrimes() - 1), response.result().get(response.numberOfPrimes() - 1));
+
+        FindPrimesResponse concurrent = findPrimesService.findPrimes(limit, PrimeAlgorithmNames.SEGMENTED_SIEVE_CONCURRENT, false, false, false, 10L);
+        assertTrue(concurrent.partial());
+        assertTrue(concurrent.sievedUpTo() < limit);
+    }
+
+    @Test
+    public void testFindPrimes_DeadlinePartialResult_SeedsCacheUpToSievedUpTo() {
+        // Hide whatever other tests cached, so the partial result is larger than the cache
+        primeCacheService.clear();
+        long limit = 800_000_000L;
+        FindPrimesResponse response = findPrimesService.findPrimes(limit, PrimeAlgorithmNames.SIEVE_ATKIN, true, true, false, 10L);
+        assertTrue(response.partial());
+        assertEquals(response.sievedUpTo(), primeCacheService.getCachedLimit());
+        assertTrue(primeCacheService.isCached(response.sievedUpTo()));
+        assertFalse(primeCacheService.isCached(response.sievedUpTo() + 1));
+
+        // The seeded cache now answers requests up to sievedUpTo
+        FindPrimesResponse cached = findPrimesService.findPrimes(response.sievedUpTo(), PrimeAlgorithmNames.SIEVE_ATKIN, true, false);
+        assertEquals("CACHE_HIT", cached.algorithmName());
+        assertEquals(response.numberOfPrimes(), cached.numberOfPrimes());
+    }
+
+    @Test
+    public void testFindPrimes_DeadlineNotReached() {
+        FindPrimesResponse response = findPrimesService.findPrimes(1_000_000, PrimeAlgorithmNames.SMART, false, true, false, 60_000L);
+        assertFalse(response.partial());
+        assertEquals(1_000_000, response.sievedUpTo());
+        assertEquals(78_498, response.numberOfPrimes());
+        assertNull(findPrimesService.findPrimes(100, PrimeAlgorithmNames.SIEVE, false, true).partial());
+
+        Exception exception = assertThrows(FindPrimesArgException.class,
+                () -> findPrimesService.findPrimes(100, PrimeAlgorithmNames.SIEVE, false, true, false, 10L));
+        assertTrue(exception.getMessage().startsWith("deadlineMs is only supported by the algorithms"));
+    }
+
+    @Test
+    public void testFindPrimes_RecordsFlightRecorderEvents() throws Exception {
+        Path file = Files.createTempFile("find-primes", ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable(FindPrimesEvent.class);
+            recording.enable(PrimePhaseEvent.class);
+            recording.start();
+            findPrimesService.findPrimes(1_000_000, PrimeAlgorithmNames.SIEVE, false, false);
+            recording.stop();
+            recording.dump(file);
+        }
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+        Files.delete(file);
+        assertTrue(events.stream().anyMatch(e -> e.getEventType().getName().equals("com.example.msvcprimefinder.FindPrimes")
+                && e.getLong("limit") == 1_000_000 && e.getLong("numberOfPrimes") == 78_498));
+        assertTrue(events.stream().anyMatch(e -> e.getEventType().getName().equals("com.example.msvcprimefinder.PrimePhase")
+                && e.getString("phase").equals("SEGMENT_MARKING") && e.getString("algorithm").equals("SIEVE")));
+    }
 }
@@ -0,0 +1,82 @@
+package com.example.msvcprimefinder.service;
+
+import com.example.msvcprimefinder.algo.PrimeFinder;
+import com.example.msvcprimefinder.model.primes.PrimeSequence;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PrimeCacheServiceTest {
+
+    @Test
+    void addPrimesToCache_SmallerLimitAfterLarger_KeepsLargerCache() {
+        PrimeCacheService primeCacheService = new PrimeCacheService();
+        PrimeSequence primesTo1000 = PrimeFinder.findPrimeSequenceWithSieve(1_000);
+        assertTrue(primeCacheService.addPrimesToCache(primesTo1000, 1_000));
+        assertTrue(primeCacheService.addPrimesToCache(PrimeFinder.findPrimeSequenceWithSieve(100), 100));
+
+        assertEquals(1_000, primeCacheService.getCachedLimit());
+        assertEquals(primesTo1000.size(), primeCacheService.getCachedPrimes().size());
+        assertEquals(primesTo1000.countUpTo(500), primeCacheService.getPrimesFromCacheToLimit(500).size());
+    }
+
+    @Test
+    void addPrimesToCache_ConcurrentSaves_LimitAlwaysMatchesPrimes() throws Exception {
+        PrimeCacheService primeCacheService = new PrimeCacheService();
+        long[] limits = {100_000, 1_000_000, 10_000, 500_000, 2_000_000, 1_000};
+        List<PrimeSequence> results = new ArrayList<>();
+        for (long limit : limits) {
+            results.add(PrimeFinder.findPrimeSequenceWithSieve(limit));
+        }
+        CountDownLatch start = new CountDownLatch(1);
+        List<CompletableFuture<Void>> savers = new ArrayList<>();
+        for (int i = 0; i < limits.length; i++) {
+            int saver = i;
+            savers.add(CompletableFuture.runAsync(() -> {
+                await(start);
+                primeCacheService.addPrimesToCache(results.get(saver), limits[saver]);
+            }));
+        }
+        // Readers check that whatever limit they see, the primes they read next cover it
+        CompletableFuture<Void> reader = CompletableFuture.runAsync(() -> {
+            await(start);
+            for (int i = 0; i < 10_000; i++) {
+                long cachedLimit = primeCacheService.getCachedLimit();
+                PrimeSequence primes = primeCacheService.getCachedPrimes();
+                assertTrue(primes.isEmpty() && cachedLimit == 0 || primes.get(primes.size() - 1) > cachedLimit - 1_000,
+                        "cached primes end before the cached limit " + cachedLimit);
+            }
+        });
+        start.countDown();
+        CompletableFuture.allOf(savers.toArray(CompletableFuture[]::new)).get(30, TimeUnit.SECONDS);
+        reader.get(30, TimeUnit.SECONDS);
+
+        assertEquals(2_000_000, primeCacheService.getCachedLimit());
+        assertEquals(results.get(4).size(), primeCacheService.getCachedPrimes().size());
+    }
+
+    @Test
+    void clear_DropsCache() {
+        PrimeCacheService primeCacheService = new PrimeCacheService();
+        primeCacheService.addPrimesToCache(PrimeFinder.findPrimeSequenceWithSieve(1_000), 1_000);
+        primeCacheService.clear();
+        assertEquals(0, primeCacheService.getCachedLimit());
+        assertFalse(primeCacheService.isCached(2));
+        assertTrue(primeCacheService.getCachedPrimes().isEmpty());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.example.msvcprimefinder.service;
+
+import com.example.msvcprimefinder.algo.PrimeFinder;
+import com.example.msvcprimefinder.algo.PrimeStream;
+import com.example.msvcprimefinder.exception.FindPrimesArgException;
+import com.example.msvcprimefinder.model.enums.ExportFormat;
+import com.example.msvcprimefinder.response.PrimesExportResponse;
+import com.example.msvcprimefinder.serializer.PrimeFileWriter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(SpringExtension.class)
+@SpringBootTest
+public class PrimeExportServiceImplTest {
+
+    @Autowired
+    private ExecutorServiceProvider executorServiceProvider;
+
+    private static final long TTL_MS = 60 * 60 * 1000;
+    private static final long MAX_TOTAL_BYTES = 2 * 1024 * 1024;
+
+    @TempDir
+    private Path directory;
+
+    private PrimeExportServiceImpl exportService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        exportService = new PrimeExportServiceImpl(executorServiceProvider, directory, TTL_MS, MAX_TOTAL_BYTES, 1);
+    }
+
+    @Test
+    public void testExport_BinaryDecodesToTheSievedPrimes() throws Exception {
+        long[] expected = PrimeFinder.findPrimesWithSieve(2_000_000);
+        PrimesExportResponse response = exportService.export(2, 2_000_000, ExportFormat.BINARY);
+
+        assertEquals("primes-2-2000000.bin", response.id());
+        assertEquals("/api/find-primes/export/primes-2-2000000.bin", response.downloadUrl());
+        assertEquals(expected.length, response.numberOfPrimes());
+        assertFalse(response.reused());
+        byte[] bytes = Files.readAllBytes(directory.resolve(response.id()));
+        assertEquals(PrimeFileWriter.HEADER_SIZE + expected.length - 1, bytes.length);
+        assertEquals(bytes.length, response.sizeBytes());
+        assertArrayEquals(expected, decodeBinary(bytes));
+    }
+
+    @Test
+    public void testExport_TextWindowAwayFromZero() throws Exception {
+        long from = 1_000_000_000L;
+        long limit = from + 100_000;
+        long[] expected = PrimeStream.range(from, limit + 1).toArray();
+        PrimesExportResponse response = exportService.export(from, limit, ExportFormat.TEXT);
+
+        String[] lines = Files.readString(directory.resolve(response.id()), StandardCharsets.US_ASCII).split("\n");
+        assertArrayEquals(expected, Arrays.stream(lines).mapToLong(Long::parseLong).toArray());
+        assertEquals(expected.length, response.numberOfPrimes());
+    }
+
+    @Test
+    public void testExport_IdenticalRequestReusesTheFile() throws Exception {
+        PrimesExportResponse first = exportService.export(2, 1_000_000, ExportFormat.TEXT);
+        Path file = directory.resolve(first.id());
+        // An older timestamp that is still within the TTL, so a rewrite would show
+        FileTime written = FileTime.fromMillis((System.currentTimeMillis() - 60_000) / 1000 * 1000);
+        Files.setLastModifiedTime(file, written);
+
+        PrimesExportResponse second = exportService.export(2, 1_000_000, ExportFormat.TEXT);
+        assertTrue(second.reused());
+        assertEquals(first.numberOfPrimes(), second.numberOfPrimes());
+        assertEquals(first.sizeBytes(), second.sizeBytes());
+        assertEquals(written, Files.getLastModifiedTime(file));
+        // Another format or range is another file
+        assertFalse(exportService.export(2, 1_000_000, ExportFormat.BINARY).reused());
+        assertFalse(exportService.export(3, 1_000_000, ExportFormat.TEXT).reused());
+    }
+
+    @Test
+    public void testExport_EmptyRange() throws Exception {
+        PrimesExportResponse binary = exportService.export(24, 28, ExportFormat.BINARY);
+        assertEquals(0, binary.numberOfPrimes());
+        assertArrayEquals(new long[0], decodeBinary(Files.readAllBytes(directory.resolve(binary.id()))));
+        assertEquals(0, exportService.export(24, 28, ExportFormat.TEXT).sizeBytes());
+    }
+
+    @Test
+    public void testExport_InvalidArgumentsAndIds() throws Exception {
+        assertThrows(FindPrimesArgException.class, () -> exportService.export(2, PrimeExportServiceImpl.MAX_EXPORT_LIMIT + 1, ExportFormat.BINARY));
+        assertThrows(FindPrimesArgException.class, () -> exportService.export(101, 100, ExportFormat.BINARY));
+        Files.writeString(directory.resolve("notes.txt"), "not an export");
+        assertTrue(exportService.findExport("notes.txt").isEmpty());
+        assertTrue(exportService.findExport("../primes-2-100.bin").isEmpty());
+        assertTrue(exportService.findExport("primes-2-100.bin").isEmpty());
+        try (var files = Files.list(directory)) {
+            assertTrue(files.noneMatch(path -> path.toString().endsWith(".part")));
+        }
+    }
+
+    @Test
+    public void testExport_RetentionDeletesExpiredAndOldestFiles() throws Exception {
+        PrimesExportResponse expired = exportService.export(2, 1_000, ExportFormat.TEXT);
+        Files.setLastModifiedTime(directory.resolve(expired.id()), FileTime.fromMillis(System.currentTimeMillis() - TTL_MS - 60_000));
+        assertTrue(exportService.findExport(expired.id()).isEmpty());
+        assertFalse(Files.exists(directory.resolve(expired.id())));
+
+        // ~1.2 MB each under a 2 MB budget, so the second export evicts the first
+        PrimesExportResponse oldest = exportService.export(2, 2_000_000, ExportFormat.TEXT);
+        Files.setLastModifiedTime(directory.resolve(oldest.id()), FileTime.fromMillis(System.currentTimeMillis() - 60_000));
+        PrimesExportResponse newest = exportService.export(3, 2_000_000, ExportFormat.TEXT);
+        assertFalse(Files.exists(directory.resolve(oldest.id())));
+        assertTrue(Files.exists(directory.resolve(newest.id())));
+
+        Exception tooLarge = assertThrows(FindPrimesArgException.class, () -> exportService.export(2, 100_000_000, ExportFormat.TEXT));
+        assertTrue(tooLarge.getMessage().contains("bytes kept for exports"));
+    }
+
+    private static long[] decodeBinary(byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+        assertEquals(PrimeFileWriter.MAGIC, buffer.getInt());
+        assertEquals(PrimeFileWriter.VERSION, buffer.getInt());
+        long prime = buffer.getLong();
+        long[] primes = new long[(int) buffer.getLong()];
+        for (int i = 0; i < primes.length; i++) {
+            if (i > 0) {
+                int halfGap = buffer.get() & 0xFF;
+                prime = halfGap == 0 ? 3 : prime + 2L * halfGap;
+            }
+            primes[i] = prime;
+        }
+        assertFalse(buffer.hasRemaining());
+        return primes;
+    }
+}
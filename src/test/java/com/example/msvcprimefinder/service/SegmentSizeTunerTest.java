@@ -0,0 +1,35 @@
+package com.example.msvcprimefinder.service;
+
+import com.example.msvcprimefinder.util.type.CacheTopology;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SegmentSizeTunerTest {
+
+    @Test
+    void tuner_SharedL2_SplitsCacheBetweenThreads() {
+        CacheTopology topology = new CacheTopology(32 * 1024, 2048 * 1024, 4, 32L * 1024 * 1024, 16, "test");
+        SegmentSizeTuner single = new SegmentSizeTuner(topology, 1, false);
+        SegmentSizeTuner quad = new SegmentSizeTuner(topology, 8, false);
+
+        assertEquals(1024 * 1024, single.segmentedSieveSize());
+        assertEquals(256 * 1024, quad.segmentedSieveSize());
+        assertEquals(256 * 1024 / Long.BYTES, quad.bitmapWordsPerTask());
+        // Small limits are split into at least MIN_TASKS_PER_THREAD tasks per thread, but never below L1d
+        assertEquals(256 * 1024, quad.concurrentSegmentSize(10_000_000_000L));
+        assertEquals(4_000_000L / (8 * SegmentSizeTuner.MIN_TASKS_PER_THREAD), quad.concurrentSegmentSize(4_000_000));
+        assertEquals(32 * 1024, quad.concurrentSegmentSize(1_000));
+    }
+
+    @Test
+    void tuner_Calibrate_PicksOneOfTheCandidates() {
+        CacheTopology topology = new CacheTopology(32 * 1024, 1024 * 1024, 1, 8L * 1024 * 1024, 8, "test");
+        SegmentSizeTuner tuner = new SegmentSizeTuner(topology, 1, true);
+        var tuning = tuner.describe();
+
+        assertTrue(tuning.calibrated());
+        assertFalse(tuning.calibrationRuns().isEmpty());
+        assertTrue(tuning.calibrationRuns().stream().anyMatch(run -> run.segmentBytes() == tuning.segmentBytes()));
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.msvcprimefinder.util;
+
+import com.example.msvcprimefinder.util.type.CacheTopology;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CacheTopologyReaderTest {
+
+    private static void writeIndex(Path cacheDir, int index, int level, String type, String size, String sharedCpus) throws IOException {
+        Path dir = Files.createDirectories(cacheDir.resolve("index" + index));
+        Files.writeString(dir.resolve("level"), level + "\n");
+        Files.writeString(dir.resolve("type"), type + "\n");
+        Files.writeString(dir.resolve("size"), size + "\n");
+        Files.writeString(dir.resolve("shared_cpu_list"), sharedCpus + "\n");
+    }
+
+    @Test
+    void read_SysfsLayout_SkipsInstructionCache(@TempDir Path cacheDir) throws IOException {
+        writeIndex(cacheDir, 0, 1, "Data", "48K", "0,32");
+        writeIndex(cacheDir, 1, 1, "Instruction", "32K", "0,32");
+        writeIndex(cacheDir, 2, 2, "Unified", "2048K", "0,32");
+        writeIndex(cacheDir, 3, 3, "Unified", "105M", "0-31,64-95");
+
+        CacheTopology topology = CacheTopologyReader.read(cacheDir);
+        assertEquals(48 * 1024, topology.l1dBytes());
+        assertEquals(2048 * 1024, topology.l2Bytes());
+        assertEquals(2, topology.l2SharedCpus());
+        assertEquals(105L * 1024 * 1024, topology.l3Bytes());
+        assertEquals(64, topology.l3SharedCpus());
+    }
+
+    @Test
+    void read_MissingSysfs_UsesFallback(@TempDir Path dir) {
+        assertEquals(CacheTopologyReader.FALLBACK, CacheTopologyReader.read(dir.resolve("missing")));
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.msvcprimefinder.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DeadlineTest {
+
+    @Test
+    void afterMillis_HugeBudget_NeverExpires() {
+        // millis * 10^6 overflows a long for anything above ~9.2 * 10^12 ms
+        assertFalse(Deadline.afterMillis(Long.MAX_VALUE).isExpired());
+        assertFalse(Deadline.afterMillis(10_000_000_000_000L).isExpired());
+        assertFalse(Deadline.NONE.isExpired());
+    }
+
+    @Test
+    void afterMillis_BudgetPassed_Expires() throws InterruptedException {
+        Deadline deadline = Deadline.afterMillis(1);
+        Thread.sleep(5);
+        assertTrue(deadline.isExpired());
+        assertFalse(deadline.isStopped());
+        deadline.stop(1_000);
+        assertTrue(deadline.isStopped());
+        assertEquals(1_000, deadline.getSievedUpTo());
+    }
+}
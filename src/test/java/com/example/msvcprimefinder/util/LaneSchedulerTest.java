@@ -0,0 +1,161 @@
+package com.example.msvcprimefinder.util;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LaneSchedulerTest {
+    private static final long INTERACTIVE_MAX_COST = 1_000;
+
+    private LaneScheduler scheduler;
+
+    @AfterEach
+    void shutdown() {
+        if (scheduler != null) scheduler.shutdown();
+    }
+
+    @Test
+    void interactiveTasks_RunBeforeQueuedBulkTasks() throws Exception {
+        scheduler = new LaneScheduler(1, INTERACTIVE_MAX_COST, 1);
+        List<String> order = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch release = blockWorker(scheduler.newRequest(INTERACTIVE_MAX_COST + 1));
+
+        LaneScheduler.RequestExecutor bulk = scheduler.newRequest(10_000_000_000L);
+        assertEquals(LaneScheduler.Lane.BULK, bulk.getLane());
+        for (int i = 0; i < 5; i++) bulk.execute(record(order, "bulk"));
+        CountDownLatch done = new CountDownLatch(1);
+        LaneScheduler.RequestExecutor interactive = scheduler.newRequest(INTERACTIVE_MAX_COST);
+        assertEquals(LaneScheduler.Lane.INTERACTIVE, interactive.getLane());
+        interactive.execute(record(order, "interactive"));
+        bulk.execute(done::countDown);
+        release.countDown();
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals("interactive", order.get(0));
+    }
+
+    @Test
+    void requestsInALane_TakeTurns() throws Exception {
+        scheduler = new LaneScheduler(1, INTERACTIVE_MAX_COST, 1);
+        List<String> order = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch release = blockWorker(scheduler.newRequest(0));
+
+        LaneScheduler.RequestExecutor first = scheduler.newRequest(INTERACTIVE_MAX_COST * 10);
+        LaneScheduler.RequestExecutor second = scheduler.newRequest(INTERACTIVE_MAX_COST * 10);
+        for (int i = 1; i <= 3; i++) first.execute(record(order, "A" + i));
+        for (int i = 1; i <= 3; i++) second.execute(record(order, "B" + i));
+        CountDownLatch done = new CountDownLatch(1);
+        second.execute(done::countDown);
+        release.countDown();
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of("A1", "B1", "A2", "B2", "A3", "B3"), order);
+    }
+
+    @Test
+    void bulkRequest_NeverExceedsItsCap() throws Exception {
+        scheduler = new LaneScheduler(4, INTERACTIVE_MAX_COST, 2);
+        LaneScheduler.RequestExecutor bulk = scheduler.newRequest(INTERACTIVE_MAX_COST + 1);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(8);
+        for (int i = 0; i < 8; i++) {
+            bulk.execute(() -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                sleep(20);
+                running.decrementAndGet();
+                done.countDown();
+            });
+        }
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(2, maxRunning.get());
+    }
+
+    @Test
+    void bulkTasks_AreNotStarvedByInteractiveOnes() throws Exception {
+        scheduler = new LaneScheduler(1, INTERACTIVE_MAX_COST, 1);
+        List<String> order = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch release = blockWorker(scheduler.newRequest(0));
+
+        scheduler.newRequest(INTERACTIVE_MAX_COST + 1).execute(record(order, "bulk"));
+        LaneScheduler.RequestExecutor interactive = scheduler.newRequest(0);
+        for (int i = 0; i < 20; i++) interactive.execute(record(order, "interactive"));
+        CountDownLatch done = new CountDownLatch(1);
+        interactive.execute(done::countDown);
+        release.countDown();
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertTrue(order.indexOf("bulk") < 8, "bulk ran at " + order.indexOf("bulk"));
+    }
+
+    @Test
+    void shutdown_QueuedTasksStillComplete() throws Exception {
+        scheduler = new LaneScheduler(1, INTERACTIVE_MAX_COST, 1);
+        CountDownLatch release = blockWorker(scheduler.newRequest(0));
+
+        LaneScheduler.RequestExecutor bulk = scheduler.newRequest(INTERACTIVE_MAX_COST + 1);
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        for (int i = 0; i < 3; i++) futures.add(CompletableFuture.runAsync(() -> {}, bulk));
+        scheduler.shutdown();
+        assertThrows(RejectedExecutionException.class, () -> bulk.execute(() -> {}));
+        release.countDown();
+
+        // Joining a task queued before shutdown must not hang
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void failingTasks_DoNotStopTheWorkers() throws Exception {
+        scheduler = new LaneScheduler(1, INTERACTIVE_MAX_COST, 1);
+        LaneScheduler.RequestExecutor request = scheduler.newRequest(0);
+        request.execute(() -> {
+            throw new IllegalStateException("task failed");
+        });
+        request.execute(() -> {
+            throw new AssertionError("task failed with an Error");
+        });
+        CountDownLatch done = new CountDownLatch(1);
+        request.execute(done::countDown);
+
+        // The Error ends its worker thread, and a replacement runs the rest
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+    }
+
+    // Occupies the only worker until the returned latch is released, so later tasks queue up in a known order
+    private static CountDownLatch blockWorker(LaneScheduler.RequestExecutor executor) throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        executor.execute(() -> {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        return release;
+    }
+
+    private static Runnable record(List<String> order, String name) {
+        return () -> order.add(name);
+    }
+
+    private static void sleep(long ms) {
+        try {
+            Thread.sleep(ms);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -24,6 +24,8 @@ public class PrimeTimerTest {
         assertEquals("Primes", result.result());
         assertTrue(result.durationMs() >= 100);
         assertTrue(result.durationNs() >= TimeUnit.MILLISECONDS.toNanos(100));
+        // Both come from one nanoTime measurement
+        assertEquals(TimeUnit.NANOSECONDS.toMillis(result.durationNs()), result.durationMs());
     }
 
     @Test
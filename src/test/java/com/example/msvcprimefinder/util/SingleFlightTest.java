@@ -0,0 +1,143 @@
+package com.example.msvcprimefinder.util;
+
+import com.example.msvcprimefinder.util.type.SingleFlightResult;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SingleFlightTest {
+
+    @Test
+    void execute_ConcurrentSmallerBound_SharesInFlightResult() throws Exception {
+        SingleFlight<String, String> singleFlight = new SingleFlight<>();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger computations = new AtomicInteger();
+
+        CompletableFuture<SingleFlightResult<String>> leader = CompletableFuture.supplyAsync(() -> singleFlight.execute("SIEVE", 1_000, () -> {
+            computations.incrementAndGet();
+            started.countDown();
+            await(release);
+            return "primes to 1000";
+        }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        CompletableFuture<SingleFlightResult<String>> follower = CompletableFuture.supplyAsync(() -> singleFlight.execute("SIEVE", 100, () -> {
+            computations.incrementAndGet();
+            return "primes to 100";
+        }));
+        // The follower can only finish once the leader is released
+        Thread.sleep(100);
+        assertFalse(follower.isDone());
+        release.countDown();
+
+        assertEquals(new SingleFlightResult<>("primes to 1000", 1_000, false), leader.get(5, TimeUnit.SECONDS));
+        assertEquals(new SingleFlightResult<>("primes to 1000", 1_000, true), follower.get(5, TimeUnit.SECONDS));
+        assertEquals(1, computations.get());
+        assertEquals(0, singleFlight.inFlightCount("SIEVE"));
+    }
+
+    @Test
+    void execute_ConcurrentLargerBoundOrOtherKey_ComputesSeparately() throws Exception {
+        SingleFlight<String, String> singleFlight = new SingleFlight<>();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<SingleFlightResult<String>> leader = CompletableFuture.supplyAsync(() -> singleFlight.execute("SIEVE", 100, () -> {
+            started.countDown();
+            await(release);
+            return "primes to 100";
+        }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        // Both would block until the leader is released if they attached to it
+        SingleFlightResult<String> larger = singleFlight.execute("SIEVE", 1_000, () -> "primes to 1000");
+        SingleFlightResult<String> otherKey = singleFlight.execute("ATKIN", 100, () -> "atkin primes to 100");
+        assertEquals(new SingleFlightResult<>("primes to 1000", 1_000, false), larger);
+        assertEquals(new SingleFlightResult<>("atkin primes to 100", 100, false), otherKey);
+        assertFalse(leader.isDone());
+        release.countDown();
+        assertFalse(leader.get(5, TimeUnit.SECONDS).shared());
+    }
+
+    @Test
+    void execute_AfterLeaderFinished_Recomputes() {
+        SingleFlight<String, Long> singleFlight = new SingleFlight<>();
+        SingleFlightResult<Long> first = singleFlight.execute("SIEVE", 100, () -> 100L);
+        SingleFlightResult<Long> second = singleFlight.execute("SIEVE", 100, () -> 200L);
+        // Nothing in flight any more, so a repeated request recomputes rather than reading a stale result
+        assertFalse(first.shared());
+        assertFalse(second.shared());
+        assertEquals(200L, second.result());
+    }
+
+    @Test
+    void execute_InFlightBoundAboveMaxShared_ComputesSeparately() throws Exception {
+        SingleFlight<String, String> singleFlight = new SingleFlight<>();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<SingleFlightResult<String>> leader = CompletableFuture.supplyAsync(() -> singleFlight.execute("SIEVE", 1_000_000, () -> {
+            started.countDown();
+            await(release);
+            return "primes to 1000000";
+        }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        // Would otherwise wait for the leader, which only finishes once released
+        SingleFlightResult<String> small = singleFlight.execute("SIEVE", 100, 1_000, () -> "primes to 100");
+        assertEquals(new SingleFlightResult<>("primes to 100", 100, false), small);
+        release.countDown();
+        assertFalse(leader.get(5, TimeUnit.SECONDS).shared());
+    }
+
+    @Test
+    void execute_LeaderThrows_FollowersSeeSameException() throws Exception {
+        SingleFlight<String, String> singleFlight = new SingleFlight<>();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<SingleFlightResult<String>> leader = CompletableFuture.supplyAsync(() -> singleFlight.execute("SIEVE", 1_000, () -> {
+            started.countDown();
+            await(release);
+            throw new IllegalStateException("Sieve failed");
+        }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<SingleFlightResult<String>> follower = CompletableFuture.supplyAsync(() -> singleFlight.execute("SIEVE", 1_000, () -> "unused"));
+        Thread.sleep(100);
+        release.countDown();
+
+        Exception leaderException = assertThrows(Exception.class, () -> leader.get(5, TimeUnit.SECONDS));
+        Exception followerException = assertThrows(Exception.class, () -> follower.get(5, TimeUnit.SECONDS));
+        assertEquals("Sieve failed", leaderException.getCause().getMessage());
+        assertEquals("Sieve failed", followerException.getCause().getMessage());
+        assertEquals(0, singleFlight.inFlightCount("SIEVE"));
+    }
+
+    @Test
+    void execute_ManyDistinctKeys_LeavesNoMapsBehind() {
+        SingleFlight<String, String> singleFlight = new SingleFlight<>();
+        for (int i = 0; i < 1_000; i++) {
+            String key = "export-" + i;
+            singleFlight.execute(key, 100, () -> key);
+            assertEquals(0, singleFlight.inFlightCount(key));
+        }
+        assertThrows(IllegalStateException.class, () -> singleFlight.execute("failing", 100, () -> {
+            throw new IllegalStateException("Export failed");
+        }));
+        assertEquals(0, singleFlight.keyCount());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}